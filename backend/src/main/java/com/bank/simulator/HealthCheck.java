@@ -1,5 +1,8 @@
 package com.bank.simulator;
 
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.config.RequestExecutor;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -11,7 +14,10 @@ import java.util.Map;
 
 @Path("healthz")
 public class HealthCheck {
-    
+
+    @Inject
+    private RequestExecutor requestExecutor;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response health() {
@@ -19,6 +25,8 @@ public class HealthCheck {
         healthStatus.put("status", "healthy");
         healthStatus.put("timestamp", LocalDateTime.now().toString());
         healthStatus.put("service", "Bank Simulator API");
+        healthStatus.put("dbPool", DBConfig.getPoolMetrics());
+        healthStatus.put("requestExecutor", requestExecutor.getMetrics());
         
         return Response.ok(healthStatus).build();
     }
@@ -1,15 +1,34 @@
 package com.bank.simulator;
 
+import org.eclipse.jetty.ee10.servlet.DefaultServlet;
 import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
 import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.glassfish.jersey.servlet.ServletContainer;
+import com.bank.simulator.config.AppConfig;
 import com.bank.simulator.config.DatabaseInitializerListener;
+import com.bank.simulator.config.RestApplication;
+import com.bank.simulator.config.SpaFallbackFilter;
+import jakarta.servlet.DispatcherType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.Executors;
 
 public class StartServer {
     public static void main(String[] args) throws Exception {
         int port = Integer.parseInt(System.getenv().getOrDefault("PORT", "8080"));
-        Server server = new Server(port);
+        Server server = new Server(createThreadPool());
+        server.addConnector(createConnector(server, port));
 
         ServletContextHandler context = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
         context.setContextPath("/");
@@ -21,14 +40,13 @@ public class StartServer {
             System.out.println("⚠️  Database listener error (non-blocking): " + e.getMessage());
         }
         
-        ServletHolder jerseyServlet = context.addServlet(ServletContainer.class, "/api/*");
+        ServletHolder jerseyServlet = new ServletHolder(new ServletContainer(new RestApplication()));
         jerseyServlet.setInitOrder(1);
-        jerseyServlet.setInitParameter(
-            "jersey.config.server.provider.packages",
-            "com.bank.simulator.controller,com.bank.simulator.config,com.bank.simulator"
-        );
-        
-        server.setHandler(context);
+        jerseyServlet.setAsyncSupported(true);
+        context.addServlet(jerseyServlet, "/api/*");
+        addFrontend(context);
+
+        server.setHandler(createGzipHandler(context));
 
         System.out.println("🚀 Jetty 12 EE10 server running on port " + port);
         System.out.println("📍 Health check: http://localhost:" + port + "/api/healthz");
@@ -37,4 +55,102 @@ public class StartServer {
         server.start();
         server.join();
     }
+
+    /**
+     * HTTP/1.1 with keep-alive: an idle connection is kept for
+     * server.idle.timeout.ms so the dashboard's bursts of API calls reuse it,
+     * and responses are buffered up to server.output.buffer.bytes before the
+     * first write so small JSON bodies go out in one packet with a Content-Length.
+     * With server.h2c.enabled the same port also speaks cleartext HTTP/2 (prior
+     * knowledge or an h2c upgrade), so a client or a TLS-terminating proxy can
+     * multiplex the dashboard's parallel calls over one connection. HTTP/1.1
+     * responses are then chunked rather than sized up front; see RestApplication.
+     */
+    private static ServerConnector createConnector(Server server, int port) {
+        HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setOutputBufferSize(AppConfig.getInt("server.output.buffer.bytes", 32 * 1024));
+        httpConfig.setRequestHeaderSize(AppConfig.getInt("server.request.header.bytes", 8 * 1024));
+
+        ConnectionFactory[] factories = AppConfig.getBoolean("server.h2c.enabled", true)
+            ? new ConnectionFactory[]{new HttpConnectionFactory(httpConfig), new HTTP2CServerConnectionFactory(httpConfig)}
+            : new ConnectionFactory[]{new HttpConnectionFactory(httpConfig)};
+        ServerConnector connector = new ServerConnector(server, factories);
+        connector.setPort(port);
+        connector.setIdleTimeout(AppConfig.getLong("server.idle.timeout.ms", 30_000));
+        connector.setAcceptQueueSize(AppConfig.getInt("server.accept.queue.size", 128));
+        return connector;
+    }
+
+    /**
+     * Gzips JSON and text responses of at least server.gzip.min.bytes when the
+     * client accepts it. Export files are left alone: they are served with
+     * byte ranges and a Content-Length, and the streamed downloads already
+     * compress themselves (and are skipped because they set Content-Encoding).
+     */
+    private static Handler createGzipHandler(ServletContextHandler context) {
+        if (!AppConfig.getBoolean("server.gzip.enabled", true)) {
+            return context;
+        }
+        GzipHandler gzip = new GzipHandler();
+        gzip.setMinGzipSize(AppConfig.getInt("server.gzip.min.bytes", 1024));
+        gzip.setIncludedMimeTypes(AppConfig.get("server.gzip.mime.types",
+            "application/json,text/csv,application/x-ndjson,text/plain,text/html").split("\\s*,\\s*"));
+        gzip.setIncludedMethods("GET", "POST");
+        gzip.addExcludedPaths("/api/transaction/exports/*");
+        gzip.setHandler(context);
+        return gzip;
+    }
+
+    /**
+     * Serves the built frontend (server.static.dir, the Vite dist) from the
+     * same origin as the API, so the browser makes no cross-origin calls or
+     * preflights. Hashed files under /assets never change and are cached for a
+     * year as immutable; everything else, index.html included, is revalidated
+     * with its ETag. A .br/.gz sibling written at build time is sent instead of
+     * the file when the client accepts it, and files are memory-mapped.
+     */
+    private static void addFrontend(ServletContextHandler context) {
+        Path staticDir = Path.of(AppConfig.get("server.static.dir", "frontend")).toAbsolutePath().normalize();
+        if (!Files.isRegularFile(staticDir.resolve("index.html"))) {
+            System.out.println("No frontend build at " + staticDir + ", serving the API only");
+            return;
+        }
+        context.addServlet(staticServlet("frontend-assets", staticDir.resolve("assets"), "public, max-age=31536000, immutable"),
+            "/assets/*");
+        context.addServlet(staticServlet("frontend", staticDir, "no-cache"), "/");
+        context.addFilter(SpaFallbackFilter.class, "/*", EnumSet.of(DispatcherType.REQUEST));
+        System.out.println("📍 Frontend: serving " + staticDir);
+    }
+
+    private static ServletHolder staticServlet(String name, Path baseDir, String cacheControl) {
+        ServletHolder holder = new ServletHolder(name, DefaultServlet.class);
+        holder.setInitParameter("baseResource", baseDir.toUri().toString());
+        holder.setInitParameter("cacheControl", cacheControl);
+        holder.setInitParameter("etags", "true");
+        holder.setInitParameter("precompressed", "br=.br,gzip=.gz");
+        holder.setInitParameter("useFileMappedBuffer", "true");
+        holder.setInitParameter("dirAllowed", "false");
+        holder.setAsyncSupported(true);
+        return holder;
+    }
+
+    /**
+     * Jetty's pool still runs the selectors and acceptors. In "virtual" mode
+     * (the default) each request is handled on its own virtual thread, so a
+     * request blocked on JDBC or SMTP parks without holding a platform thread
+     * and the number of requests in flight is not capped by server.threads.max.
+     * Database work is still bounded by the connection pool's permits.
+     */
+    private static QueuedThreadPool createThreadPool() {
+        QueuedThreadPool threadPool = new QueuedThreadPool(AppConfig.getInt("server.threads.max", 200));
+        threadPool.setName("jetty");
+        String mode = AppConfig.get("server.execution.mode", "virtual").trim();
+        if ("virtual".equalsIgnoreCase(mode)) {
+            threadPool.setVirtualThreadsExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jetty-vt-", 0).factory()));
+        }
+        System.out.println("Request execution mode: " + mode + " (max platform threads "
+            + threadPool.getMaxThreads() + ")");
+        return threadPool;
+    }
 }
@@ -0,0 +1,61 @@
+package com.bank.simulator.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * application.properties, read from the classpath once per JVM and shared by
+ * every component that needs configuration.
+ */
+public final class AppConfig {
+
+    private static final Properties PROPERTIES = load();
+
+    private AppConfig() {}
+
+    private static Properties load() {
+        Properties props = new Properties();
+        try (InputStream input = AppConfig.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (input != null) {
+                props.load(input);
+                System.out.println("Loaded configuration from application.properties");
+            } else {
+                System.err.println("application.properties not found!");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not load application.properties: " + e.getMessage());
+        }
+        return props;
+    }
+
+    public static Properties getProperties() {
+        return PROPERTIES;
+    }
+
+    public static String get(String key, String defaultValue) {
+        return PROPERTIES.getProperty(key, defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+}
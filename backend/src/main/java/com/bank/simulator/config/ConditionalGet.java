@@ -0,0 +1,22 @@
+package com.bank.simulator.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET whose response carries a version ETag and is answered with 304
+ * when the client's {@code If-None-Match} still matches. {@link #value} picks
+ * the version probe and {@link #param} names the path parameter it is keyed by.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ConditionalGet {
+
+    enum Resource { ACCOUNT, CUSTOMER, TRANSACTIONS }
+
+    Resource value();
+
+    String param();
+}
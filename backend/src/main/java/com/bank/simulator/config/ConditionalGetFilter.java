@@ -0,0 +1,118 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.service.AccountService;
+import com.bank.simulator.service.CustomerService;
+import com.bank.simulator.service.TransactionService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Conditional GETs for the {@link ConditionalGet} endpoints. Before the
+ * resource method runs, a version probe (an indexed read of a few columns)
+ * gives the ETag; a matching {@code If-None-Match} is answered 304 right away,
+ * so the full read and the JSON body are skipped. Otherwise the method runs and
+ * its 200 carries the ETag.
+ *
+ * <p>The probe runs before the read, so a change in between can only make the
+ * ETag older than the body, which costs the client one extra full response
+ * later and never hides a change.
+ *
+ * <p>Filters run on the container thread, before the resource method hands
+ * its work to {@link RequestExecutor}, so the probe is outside the bounded
+ * pool. It is a single-row primary or unique key read that still waits for a
+ * connection like any other, and while the executor is saturated it is
+ * skipped altogether: the request then goes on to be shed with 503 by the
+ * executor, as it would have been without the filter.
+ */
+@Provider
+public class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String ETAG_PROPERTY = ConditionalGetFilter.class.getName() + ".etag";
+
+    @Context
+    private ResourceInfo resourceInfo;
+    @Inject
+    private AccountService accountService;
+    @Inject
+    private CustomerService customerService;
+    @Inject
+    private TransactionService transactionService;
+    @Inject
+    private RequestExecutor requestExecutor;
+
+    public ConditionalGetFilter() {
+    }
+
+    ConditionalGetFilter(ResourceInfo resourceInfo, AccountService accountService,
+                         CustomerService customerService, TransactionService transactionService,
+                         RequestExecutor requestExecutor) {
+        this.resourceInfo = resourceInfo;
+        this.accountService = accountService;
+        this.customerService = customerService;
+        this.transactionService = transactionService;
+        this.requestExecutor = requestExecutor;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        ConditionalGet conditional = resourceInfo.getResourceMethod() == null
+            ? null : resourceInfo.getResourceMethod().getAnnotation(ConditionalGet.class);
+        if (conditional == null || !"GET".equals(requestContext.getMethod()) || requestExecutor.isSaturated()) {
+            return;
+        }
+        String key = requestContext.getUriInfo().getPathParameters().getFirst(conditional.param());
+        String version = key == null ? null : probe(conditional.value(), key);
+        if (version == null) {
+            return;
+        }
+
+        EntityTag etag = new EntityTag(conditional.value().name().toLowerCase() + "-" + digest(version));
+        Response.ResponseBuilder notModified = requestContext.getRequest().evaluatePreconditions(etag);
+        if (notModified != null) {
+            requestContext.abortWith(notModified.header(HttpHeaders.CACHE_CONTROL, "private, no-cache").build());
+            return;
+        }
+        requestContext.setProperty(ETAG_PROPERTY, etag);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object etag = requestContext.getProperty(ETAG_PROPERTY);
+        if (etag instanceof EntityTag && responseContext.getStatus() == Response.Status.OK.getStatusCode()) {
+            responseContext.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+            responseContext.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+    }
+
+    private String probe(ConditionalGet.Resource resource, String key) {
+        return switch (resource) {
+            case ACCOUNT -> accountService.getAccountVersion(key);
+            case CUSTOMER -> customerService.getCustomerVersion(key);
+            case TRANSACTIONS -> transactionService.getTransactionsVersion(key);
+        };
+    }
+
+    /** Hashes the version so internal ids in it do not leak into the header. */
+    static String digest(String version) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(version.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.bank.simulator.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-ceiling JDBC connection pool used behind {@link DBConfig#getConnection()}.
+ * Callers keep using try-with-resources; closing the handed-out connection returns
+ * the physical connection to the pool instead of closing the socket.
+ *
+ * <p>Borrowers are admitted by a fair semaphore with one permit per connection,
+ * so however many (virtual) request threads reach the database at once, the
+ * excess park in arrival order for up to the connection timeout instead of
+ * opening more connections.
+ */
+public class ConnectionPool {
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minIdle;
+    private final int maxSize;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long leakDetectionThresholdMs;
+    private final int validationTimeoutSeconds;
+    private final boolean validateOnBorrow;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, PoolSettings settings) {
+        this.factory = factory;
+        this.minIdle = Math.max(0, Math.min(settings.minIdle, settings.maxSize));
+        this.maxSize = Math.max(1, settings.maxSize);
+        this.connectionTimeoutMs = settings.connectionTimeoutMs;
+        this.idleTimeoutMs = settings.idleTimeoutMs;
+        this.maxLifetimeMs = settings.maxLifetimeMs;
+        this.leakDetectionThresholdMs = settings.leakDetectionThresholdMs;
+        this.validationTimeoutSeconds = settings.validationTimeoutSeconds;
+        this.validateOnBorrow = settings.validateOnBorrow;
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, settings.housekeepingPeriodMs);
+        housekeeper.scheduleAtFixedRate(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                    "Timed out after " + connectionTimeoutMs + "ms waiting for a database connection " +
+                    "(active=" + borrowed.size() + ", max=" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            recordWait(System.nanoTime() - start);
+            pooled.markBorrowed(leakDetectionThresholdMs > 0);
+            borrowed.add(pooled);
+            return pooled.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return createPooledConnection();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (pooled.isExpired(maxLifetimeMs)) {
+            return false;
+        }
+        if (!validateOnBorrow) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createPooledConnection() throws SQLException {
+        Connection physical = factory.create();
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+        try {
+            if (closed || pooled.broken || pooled.physical.isClosed() || pooled.isExpired(maxLifetimeMs)) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.markIdle();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    void housekeep() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        if (idleTimeoutMs > 0) {
+            int removable = idle.size() - minIdle;
+            for (PooledConnection pooled : idle) {
+                if (removable <= 0) {
+                    break;
+                }
+                boolean stale = now - pooled.lastUsedAt > idleTimeoutMs || pooled.isExpired(maxLifetimeMs);
+                if (stale && idle.remove(pooled)) {
+                    discard(pooled);
+                    removable--;
+                }
+            }
+        }
+
+        if (leakDetectionThresholdMs > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMs) {
+                    pooled.leakReported = true;
+                    leakCount.incrementAndGet();
+                    System.err.println("WARNING: Possible connection leak - connection held for " +
+                                       (now - pooled.borrowedAt) + "ms");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        fillToMinIdle();
+    }
+
+    public void fillToMinIdle() {
+        while (!closed && idle.size() < minIdle && totalConnections.get() < maxSize) {
+            try {
+                PooledConnection pooled = createPooledConnection();
+                pooled.markIdle();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Could not pre-fill connection pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        if (!borrowed.isEmpty()) {
+            System.err.println("Connection pool shut down with " + borrowed.size() +
+                               " connections still in use; they will be closed on return");
+        }
+        System.out.println("Connection pool shut down.");
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long borrows = borrowCount.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("total", totalConnections.get());
+        metrics.put("active", borrowed.size());
+        metrics.put("idle", idle.size());
+        metrics.put("pendingThreads", permits.getQueueLength());
+        metrics.put("maxSize", maxSize);
+        metrics.put("minIdle", minIdle);
+        metrics.put("borrowCount", borrows);
+        metrics.put("avgWaitMs", borrows == 0 ? 0.0 : totalWaitNanos.get() / (double) borrows / 1_000_000.0);
+        metrics.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        metrics.put("timeouts", timeoutCount.get());
+        metrics.put("leaksDetected", leakCount.get());
+        return metrics;
+    }
+
+    private final class PooledConnection implements InvocationHandler {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile Connection proxy;
+        private volatile long lastUsedAt = createdAt;
+        private volatile long borrowedAt;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+        private volatile boolean handedBack;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        void markBorrowed(boolean captureSite) {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = captureSite ? new Exception("Connection borrowed here") : null;
+            leakReported = false;
+            handedBack = false;
+            proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        void markIdle() {
+            lastUsedAt = System.currentTimeMillis();
+            borrowSite = null;
+        }
+
+        boolean isExpired(long lifetimeMs) {
+            return lifetimeMs > 0 && System.currentTimeMillis() - createdAt > lifetimeMs;
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (target != proxy) {
+                // A stale handle from a previous borrow must not touch the reused connection.
+                if ("close".equals(name)) {
+                    return null;
+                }
+                if ("isClosed".equals(name)) {
+                    return true;
+                }
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            switch (name) {
+                case "close":
+                    if (!handedBack) {
+                        handedBack = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return handedBack || physical.isClosed();
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            if (handedBack) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlEx && isFatal(sqlEx)) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        private boolean isFatal(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && (state.startsWith("08") || state.equals("57P01"));
+        }
+    }
+
+    public static class PoolSettings {
+        int minIdle = 2;
+        int maxSize = 10;
+        long connectionTimeoutMs = 30_000;
+        long idleTimeoutMs = 600_000;
+        long maxLifetimeMs = 1_800_000;
+        long leakDetectionThresholdMs = 0;
+        long housekeepingPeriodMs = 30_000;
+        int validationTimeoutSeconds = 5;
+        boolean validateOnBorrow = true;
+
+        public PoolSettings minIdle(int value) { this.minIdle = value; return this; }
+        public PoolSettings maxSize(int value) { this.maxSize = value; return this; }
+        public PoolSettings connectionTimeoutMs(long value) { this.connectionTimeoutMs = value; return this; }
+        public PoolSettings idleTimeoutMs(long value) { this.idleTimeoutMs = value; return this; }
+        public PoolSettings maxLifetimeMs(long value) { this.maxLifetimeMs = value; return this; }
+        public PoolSettings leakDetectionThresholdMs(long value) { this.leakDetectionThresholdMs = value; return this; }
+        public PoolSettings housekeepingPeriodMs(long value) { this.housekeepingPeriodMs = value; return this; }
+        public PoolSettings validationTimeoutSeconds(int value) { this.validationTimeoutSeconds = value; return this; }
+        public PoolSettings validateOnBorrow(boolean value) { this.validateOnBorrow = value; return this; }
+    }
+}
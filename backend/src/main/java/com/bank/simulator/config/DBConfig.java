@@ -3,14 +3,14 @@ package com.bank.simulator.config;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Map;
 import java.util.Properties;
-import java.io.InputStream;
-import java.io.IOException;
 
 public class DBConfig {
     private static final String DB_URL;
     private static final String DB_USERNAME;
     private static final String DB_PASSWORD;
+    private static final ConnectionPool POOL;
     
     static {
         try {
@@ -21,30 +21,45 @@ public class DBConfig {
             e.printStackTrace();
         }
         
-        Properties props = new Properties();
-        try (InputStream input = DBConfig.class.getClassLoader().getResourceAsStream("application.properties")) {
-            if (input != null) {
-                props.load(input);
-                System.out.println("Loaded database configuration from application.properties");
-            } else {
-                System.err.println("application.properties not found!");
-            }
-        } catch (IOException e) {
-            System.err.println("Could not load application.properties: " + e.getMessage());
-        }
-        
-       
-        DB_URL = props.getProperty("db.url", "jdbc:mysql://localhost:3306/bank_simulation?useSSL=false&serverTimezone=UTC");
+        Properties props = AppConfig.getProperties();
+
+        DB_URL = props.getProperty("db.url", "jdbc:mysql://localhost:3306/bank_simulation?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true");
         DB_USERNAME = props.getProperty("db.username", "root");
         DB_PASSWORD = props.getProperty("db.password", "");  
         
         if (DB_PASSWORD.isEmpty()) {
             System.err.println("WARNING: Database password not found in application.properties!");
         }
+
+        ConnectionPool.PoolSettings settings = new ConnectionPool.PoolSettings()
+            .minIdle(AppConfig.getInt("db.pool.min.idle", 2))
+            .maxSize(AppConfig.getInt("db.pool.max.size", 10))
+            .connectionTimeoutMs(AppConfig.getLong("db.pool.connection.timeout.ms", 30_000))
+            .idleTimeoutMs(AppConfig.getLong("db.pool.idle.timeout.ms", 600_000))
+            .maxLifetimeMs(AppConfig.getLong("db.pool.max.lifetime.ms", 1_800_000))
+            .leakDetectionThresholdMs(AppConfig.getLong("db.pool.leak.detection.threshold.ms", 0))
+            .housekeepingPeriodMs(AppConfig.getLong("db.pool.housekeeping.period.ms", 30_000))
+            .validateOnBorrow(AppConfig.getBoolean("db.pool.validate.on.borrow", true))
+            .validationTimeoutSeconds(AppConfig.getInt("db.pool.validation.timeout.seconds", 5));
+
+        POOL = new ConnectionPool(() -> DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD), settings);
+        System.out.println("Database connection pool configured: " + POOL.getMetrics());
     }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+        return POOL.getConnection();
+    }
+
+    public static Map<String, Object> getPoolMetrics() {
+        return POOL.getMetrics();
+    }
+
+    public static void warmUpPool() {
+        POOL.fillToMinIdle();
+    }
+
+    public static void shutdownPool() {
+        POOL.shutdown();
     }
 
     public static void testConnection() throws SQLException {   
@@ -0,0 +1,154 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.model.ApiResponse;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool the database-heavy endpoints run on. A handler is queued behind
+ * at most {@code queueCapacity} others; when the queue is full the request is
+ * shed at once with 503 and {@code Retry-After} instead of piling up, and a
+ * request still waiting in the queue after {@code timeoutMs} is dropped with
+ * the same 503. A handler that has started is never cut off: it may already
+ * have committed a transfer, and telling the client to retry would repeat it.
+ * Overload therefore shows up as fast 503s and a growing queue depth in the
+ * metrics, not as exhausted server threads.
+ */
+public class RequestExecutor {
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int ABANDONED = 2;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final int retryAfterSeconds;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+
+    public static RequestExecutor fromConfig() {
+        return new RequestExecutor(
+            AppConfig.getInt("request.executor.threads", 32),
+            AppConfig.getInt("request.executor.queue.capacity", 1000),
+            AppConfig.getLong("request.timeout.ms", 30_000),
+            AppConfig.getInt("request.retry.after.seconds", 2));
+    }
+
+    public RequestExecutor(int threads, int queueCapacity, long timeoutMs, int retryAfterSeconds) {
+        int size = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            r -> {
+                Thread t = new Thread(r, "request-db-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    /**
+     * Runs {@code handler} on the pool and resumes {@code response} with what
+     * it returns; an exception it throws becomes a 500.
+     */
+    public void submit(AsyncResponse response, Callable<Response> handler) {
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        if (timeoutMs > 0) {
+            response.setTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+            response.setTimeoutHandler(timedOutResponse -> {
+                if (state.compareAndSet(QUEUED, ABANDONED)) {
+                    timedOut.incrementAndGet();
+                    timedOutResponse.resume(unavailable("Request waited more than " + timeoutMs + " ms in the queue"));
+                } else {
+                    timedOutResponse.setTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+                }
+            });
+        }
+
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return;
+                }
+                started.incrementAndGet();
+                totalQueueNanos.addAndGet(System.nanoTime() - queuedAt);
+                Response result;
+                try {
+                    result = handler.call();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    System.err.println("Unhandled exception in async request: " + e.getMessage());
+                    e.printStackTrace();
+                    result = Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                        .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                        .build();
+                }
+                response.resume(result);
+            });
+            accepted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            response.resume(unavailable("Server is busy, please retry"));
+        }
+    }
+
+    /**
+     * True while the queue is full, i.e. the next {@link #submit} would be
+     * shed. Lets work done before a handler is submitted back off as well.
+     */
+    public boolean isSaturated() {
+        return executor.getQueue().remainingCapacity() == 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long startedCount = started.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queueDepth", executor.getQueue().size());
+        metrics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        metrics.put("accepted", accepted.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("timedOut", timedOut.get());
+        metrics.put("failed", failed.get());
+        metrics.put("avgQueueWaitMs", startedCount == 0 ? 0.0 : totalQueueNanos.get() / (double) startedCount / 1_000_000.0);
+        return metrics;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Response unavailable(String message) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header("Retry-After", retryAfterSeconds)
+            .entity(ApiResponse.error(message))
+            .build();
+    }
+}
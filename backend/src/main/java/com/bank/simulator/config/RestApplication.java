@@ -1,9 +1,23 @@
 package com.bank.simulator.config;
 
 import jakarta.ws.rs.ApplicationPath;
-import jakarta.ws.rs.core.Application;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
 
 @ApplicationPath("/api")
-public class RestApplication extends Application {
-    // Jersey will automatically discover resources in the package
+public class RestApplication extends ResourceConfig {
+
+    public RestApplication() {
+        // Jersey will automatically discover resources in the package
+        packages("com.bank.simulator.controller", "com.bank.simulator.config", "com.bank.simulator");
+        register(new ServiceBinder());
+        register(ServiceLifecycleListener.class);
+        // Jersey flushes its content-length buffer inside the synchronized
+        // ByteArrayOutputStream.writeTo, pinning the request's virtual thread
+        // while an HTTP/2 write waits for a carrier; with h2c on, responses go
+        // straight to Jetty's output buffer (chunked instead of Content-Length).
+        if (AppConfig.getBoolean("server.h2c.enabled", true)) {
+            property(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, 0);
+        }
+    }
 }
@@ -0,0 +1,340 @@
+package com.bank.simulator.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Versioned schema migrations. Each migration runs once per database and is
+ * recorded in {@code schema_version}; startup only applies versions that are not
+ * recorded yet. A MySQL advisory lock keeps two instances starting at the same
+ * time from applying the same step twice.
+ *
+ * <p>New schema changes are appended as a new version - applied versions are
+ * never edited.
+ */
+public class SchemaMigrator {
+
+    private static final String LOCK_NAME = "bank_simulator_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    /** One unit of DDL/DML inside a migration. */
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final List<Step> steps;
+
+        public Migration(int version, String description, List<Step> steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = steps;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public List<Step> getSteps() { return steps; }
+    }
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator() {
+        this(DBConfig::getConnection, defaultMigrations());
+    }
+
+    public SchemaMigrator(ConnectionPool.ConnectionFactory connections, List<Migration> migrations) {
+        this.connections = connections;
+        this.migrations = migrations;
+    }
+
+    /** Applies every pending migration in version order and returns how many ran. */
+    public int migrate() throws SQLException {
+        try (Connection conn = connections.create()) {
+            acquireLock(conn);
+            try {
+                createVersionTable(conn);
+                Set<Integer> applied = loadAppliedVersions(conn);
+
+                int count = 0;
+                for (Migration migration : migrations) {
+                    if (applied.contains(migration.getVersion())) {
+                        continue;
+                    }
+                    System.out.println("Applying schema migration V" + migration.getVersion()
+                        + ": " + migration.getDescription());
+                    for (Step step : migration.getSteps()) {
+                        step.apply(conn);
+                    }
+                    recordVersion(conn, migration);
+                    count++;
+                }
+
+                System.out.println("✓ Schema is at version " + currentVersion(applied, migrations)
+                    + " (" + count + " migration(s) applied)");
+                return count;
+            } finally {
+                releaseLock(conn);
+            }
+        }
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Could not release schema migration lock: " + e.getMessage());
+        }
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INT PRIMARY KEY,
+                    description VARCHAR(200) NOT NULL,
+                    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+        }
+    }
+
+    private Set<Integer> loadAppliedVersions(Connection conn) throws SQLException {
+        Set<Integer> applied = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                applied.add(rs.getInt("version"));
+            }
+        }
+        return applied;
+    }
+
+    private void recordVersion(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int currentVersion(Set<Integer> applied, List<Migration> migrations) {
+        int version = applied.stream().mapToInt(Integer::intValue).max().orElse(0);
+        for (Migration migration : migrations) {
+            version = Math.max(version, migration.getVersion());
+        }
+        return version;
+    }
+
+    // ---------------------------------------------------------------- step helpers
+
+    public static Step sql(String statement) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(statement);
+            }
+        };
+    }
+
+    /**
+     * CREATE INDEX that tolerates the index already existing (MySQL has no
+     * CREATE INDEX IF NOT EXISTS), e.g. when it was added by hand before
+     * migrations were tracked.
+     */
+    public static Step index(String table, String name, String columns) {
+        return conn -> {
+            String existsQuery = "SELECT COUNT(*) FROM information_schema.statistics " +
+                                "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(existsQuery)) {
+                stmt.setString(1, table);
+                stmt.setString(2, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        System.out.println("  index " + table + "." + name + " already exists");
+                        return;
+                    }
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+                System.out.println("  ✓ created index " + table + "." + name);
+            }
+        };
+    }
+
+    /**
+     * ADD COLUMN that tolerates the column already existing, for the same
+     * reason as {@link #index}.
+     */
+    public static Step column(String table, String name, String definition) {
+        return conn -> {
+            String existsQuery = "SELECT COUNT(*) FROM information_schema.columns " +
+                                "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(existsQuery)) {
+                stmt.setString(1, table);
+                stmt.setString(2, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        System.out.println("  column " + table + "." + name + " already exists");
+                        return;
+                    }
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + name + " " + definition);
+                System.out.println("  ✓ added column " + table + "." + name);
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- migrations
+
+    static List<Migration> defaultMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+
+        migrations.add(new Migration(1, "Base tables", List.of(
+            sql("""
+                CREATE TABLE IF NOT EXISTS User (
+                    id VARCHAR(50) PRIMARY KEY,
+                    full_name VARCHAR(100) NOT NULL,
+                    email VARCHAR(100) NOT NULL UNIQUE,
+                    password VARCHAR(255) NOT NULL,
+                    active BOOLEAN DEFAULT TRUE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+                )
+            """),
+            sql("""
+                CREATE TABLE IF NOT EXISTS Customer (
+                    customer_id VARCHAR(50) PRIMARY KEY,
+                    name VARCHAR(100) NOT NULL,
+                    phone_number VARCHAR(10) NOT NULL UNIQUE,
+                    email VARCHAR(100) NOT NULL,
+                    address TEXT NOT NULL,
+                    customer_pin VARCHAR(6) NOT NULL,
+                    aadhar_number VARCHAR(12) NOT NULL UNIQUE,
+                    dob DATE NOT NULL,
+                    status VARCHAR(20) DEFAULT 'Inactive'
+                )
+            """),
+            sql("""
+                CREATE TABLE IF NOT EXISTS Account (
+                    account_id VARCHAR(50) PRIMARY KEY,
+                    customer_id VARCHAR(50) NOT NULL,
+                    account_number VARCHAR(30) NOT NULL UNIQUE,
+                    aadhar_number VARCHAR(12) NOT NULL,
+                    ifsc_code VARCHAR(11) NOT NULL,
+                    phone_number_linked VARCHAR(10) NOT NULL,
+                    amount DECIMAL(15,2) DEFAULT 600.00,
+                    bank_name VARCHAR(100) NOT NULL,
+                    name_on_account VARCHAR(100) NOT NULL,
+                    status VARCHAR(20) DEFAULT 'ACTIVE',
+                    created TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    modified TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                    FOREIGN KEY (customer_id) REFERENCES Customer(customer_id) ON DELETE CASCADE
+                )
+            """),
+            sql("""
+                CREATE TABLE IF NOT EXISTS Transaction (
+                    transaction_id VARCHAR(50) PRIMARY KEY,
+                    account_id VARCHAR(50) NOT NULL,
+                    sender_account_number VARCHAR(30) NOT NULL,
+                    receiver_account_number VARCHAR(30) NOT NULL,
+                    amount DECIMAL(15,2) NOT NULL,
+                    transaction_type ENUM('ONLINE') NOT NULL DEFAULT 'ONLINE',
+                    description TEXT,
+                    created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (account_id) REFERENCES Account(account_id) ON DELETE CASCADE
+                )
+            """),
+            sql("""
+                CREATE TABLE IF NOT EXISTS NotificationOutbox (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    transaction_id VARCHAR(50) NOT NULL,
+                    notification_type VARCHAR(10) NOT NULL,
+                    recipient_email VARCHAR(100) NOT NULL,
+                    recipient_name VARCHAR(100) NOT NULL,
+                    bank_name VARCHAR(100) NOT NULL,
+                    account_number VARCHAR(30) NOT NULL,
+                    counterparty_account_number VARCHAR(30) NOT NULL,
+                    amount DECIMAL(15,2) NOT NULL,
+                    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+                    attempts INT NOT NULL DEFAULT 0,
+                    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+                    last_error TEXT,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                    INDEX idx_outbox_status_due (status, next_attempt_at)
+                )
+            """),
+            sql("""
+                CREATE TABLE IF NOT EXISTS IdSequence (
+                    name VARCHAR(30) PRIMARY KEY,
+                    next_value BIGINT NOT NULL
+                )
+            """)
+        )));
+
+        migrations.add(new Migration(2, "Indexes for statements, existence checks and email lookups", List.of(
+            // Account statement: one range scan per leg, already in (created_date, id) order.
+            index("Transaction", "idx_txn_sender_date", "sender_account_number, created_date, transaction_id"),
+            index("Transaction", "idx_txn_receiver_date", "receiver_account_number, created_date, transaction_id"),
+            // Admin listing ordered by date.
+            index("Transaction", "idx_txn_created", "created_date, transaction_id"),
+            // Email uniqueness checks and Customer -> User joins on email.
+            index("Customer", "idx_customer_email", "email"),
+            // Customer -> accounts and Aadhaar linking checks.
+            index("Account", "idx_account_customer_status", "customer_id, status"),
+            index("Account", "idx_account_aadhar", "aadhar_number")
+        )));
+
+        migrations.add(new Migration(3, "Indexes for paginated admin listings", List.of(
+            // Keyset pages over /account/all and /auth/users/all ordered by creation time.
+            index("Account", "idx_account_created", "created, account_id"),
+            index("User", "idx_user_created", "created_at, id")
+        )));
+
+        migrations.add(new Migration(4, "Checkpoint of the in-memory ledger's write-behind persister", List.of(
+            sql("""
+                CREATE TABLE IF NOT EXISTS LedgerCheckpoint (
+                    id INT PRIMARY KEY,
+                    last_seq BIGINT NOT NULL
+                )
+                """),
+            sql("INSERT IGNORE INTO LedgerCheckpoint (id, last_seq) VALUES (1, 0)")
+        )));
+
+        migrations.add(new Migration(5, "Version columns for conditional GETs", List.of(
+            // Bumped by every customer update; the ETag of /customer/aadhar/{n}.
+            column("Customer", "version", "BIGINT NOT NULL DEFAULT 0"),
+            // Microseconds, so two updates within the same second still change the account's ETag.
+            sql("ALTER TABLE Account MODIFY modified TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) " +
+                "ON UPDATE CURRENT_TIMESTAMP(6)")
+        )));
+
+        return migrations;
+    }
+}
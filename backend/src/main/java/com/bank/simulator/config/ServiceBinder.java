@@ -0,0 +1,76 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.service.AccountService;
+import com.bank.simulator.service.CustomerService;
+import com.bank.simulator.service.ExcelGeneratorService;
+import com.bank.simulator.service.NotificationService;
+import com.bank.simulator.service.TransactionExportService;
+import com.bank.simulator.service.TransactionService;
+import com.bank.simulator.service.UserService;
+import com.bank.simulator.service.impl.AccountCache;
+import com.bank.simulator.service.impl.AccountServiceImpl;
+import com.bank.simulator.service.impl.CustomerServiceImpl;
+import com.bank.simulator.service.impl.ExportJobService;
+import com.bank.simulator.service.impl.IdAllocator;
+import com.bank.simulator.service.impl.LedgerEngine;
+import com.bank.simulator.service.impl.NotificationOutbox;
+import com.bank.simulator.service.impl.NotificationServiceImpl;
+import com.bank.simulator.service.impl.TransactionIdGenerator;
+import com.bank.simulator.service.impl.TransactionServiceImpl;
+import com.bank.simulator.service.impl.TransferBatcher;
+import com.bank.simulator.service.impl.TransferEngine;
+import com.bank.simulator.service.impl.UniquenessIndex;
+import com.bank.simulator.service.impl.UserServiceImpl;
+import com.bank.simulator.validation.AccountValidator;
+import com.bank.simulator.validation.CustomerValidator;
+import com.bank.simulator.validation.TransactionValidator;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+/**
+ * Application-scoped service graph. Every service and validator is stateless
+ * (or guards its own shared state), so one instance of each is built when Jersey
+ * starts and injected into the per-request controllers.
+ */
+public class ServiceBinder extends AbstractBinder {
+
+    @Override
+    protected void configure() {
+        NotificationService notificationService = new NotificationServiceImpl(AppConfig.getProperties());
+        NotificationOutbox notificationOutbox = new NotificationOutbox(notificationService);
+        IdAllocator idAllocator = new IdAllocator();
+        AccountCache accountCache = new AccountCache();
+        UniquenessIndex uniquenessIndex = UniquenessIndex.fromConfig();
+        LedgerEngine ledger = LedgerEngine.fromConfig(notificationOutbox);
+        AccountService accountService = new AccountServiceImpl(idAllocator, accountCache, uniquenessIndex, ledger);
+        CustomerService customerService = new CustomerServiceImpl(idAllocator, uniquenessIndex);
+        UserService userService = new UserServiceImpl(idAllocator, uniquenessIndex);
+        TransferEngine transferEngine = new TransferEngine();
+        TransferBatcher transferBatcher = TransferBatcher.fromConfig(transferEngine, notificationOutbox);
+        TransactionService transactionService = new TransactionServiceImpl(
+            notificationOutbox, transferEngine, new TransactionIdGenerator(), ledger, transferBatcher);
+        ExcelGeneratorService excelService = new ExcelGeneratorService();
+        TransactionExportService exportService = new TransactionExportService();
+        ExportJobService exportJobService = new ExportJobService(transactionService, excelService, exportService);
+
+        bind(notificationService).to(NotificationService.class);
+        bind(notificationOutbox).to(NotificationOutbox.class);
+        bind(accountCache).to(AccountCache.class);
+        bind(uniquenessIndex).to(UniquenessIndex.class);
+        bind(ledger).to(LedgerEngine.class);
+        bind(transferBatcher).to(TransferBatcher.class);
+        bind(accountService).to(AccountService.class);
+        bind(customerService).to(CustomerService.class);
+        bind(userService).to(UserService.class);
+        bind(transactionService).to(TransactionService.class);
+        bind(exportJobService).to(ExportJobService.class);
+        bind(RequestExecutor.fromConfig()).to(RequestExecutor.class);
+
+        bind(new AccountValidator(uniquenessIndex)).to(AccountValidator.class);
+        bind(new CustomerValidator(uniquenessIndex)).to(CustomerValidator.class);
+        bind(new TransactionValidator()).to(TransactionValidator.class);
+        bind(excelService).to(ExcelGeneratorService.class);
+        bind(exportService).to(TransactionExportService.class);
+
+        System.out.println("✓ Service graph initialized (singleton services and validators)");
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.service.NotificationService;
+import com.bank.simulator.service.impl.ExportJobService;
+import com.bank.simulator.service.impl.LedgerEngine;
+import com.bank.simulator.service.impl.NotificationOutbox;
+import com.bank.simulator.service.impl.NotificationServiceImpl;
+import com.bank.simulator.service.impl.TransferBatcher;
+import com.bank.simulator.service.impl.UniquenessIndex;
+import org.glassfish.jersey.server.spi.Container;
+import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
+
+/**
+ * Starts and stops the background workers owned by the singleton service graph
+ * together with the Jersey container.
+ */
+public class ServiceLifecycleListener implements ContainerLifecycleListener {
+
+    @Override
+    public void onStartup(Container container) {
+        lookup(container, NotificationOutbox.class).start();
+        lookup(container, ExportJobService.class).start();
+        lookup(container, UniquenessIndex.class).start();
+        lookup(container, TransferBatcher.class).start();
+        try {
+            lookup(container, LedgerEngine.class).start();
+        } catch (Exception e) {
+            System.err.println("✗ Ledger failed to start, transfers will be refused: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void onReload(Container container) {
+    }
+
+    @Override
+    public void onShutdown(Container container) {
+        lookup(container, RequestExecutor.class).shutdown();
+        lookup(container, TransferBatcher.class).stop();
+        lookup(container, LedgerEngine.class).stop();
+        lookup(container, UniquenessIndex.class).stop();
+        lookup(container, ExportJobService.class).stop();
+        lookup(container, NotificationOutbox.class).stop();
+        if (lookup(container, NotificationService.class) instanceof NotificationServiceImpl notificationService) {
+            notificationService.close();
+        }
+    }
+
+    private static <T> T lookup(Container container, Class<T> type) {
+        return container.getApplicationHandler().getInjectionManager().getInstance(type);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.simulator.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Lets the React router own client-side routes: a GET for a path outside
+ * {@code /api} whose last segment has no file extension (e.g.
+ * {@code /dashboard/transactions}) is answered with {@code index.html}.
+ * Asset requests and API calls pass through, so a missing asset is still a 404.
+ */
+public class SpaFallbackFilter extends HttpFilter {
+
+    static final String INDEX = "/index.html";
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (isClientRoute(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()))) {
+            request.getRequestDispatcher(INDEX).forward(request, response);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    static boolean isClientRoute(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        if (path.isEmpty() || path.equals("/") || path.equals("/api") || path.startsWith("/api/")) {
+            return false;
+        }
+        String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+        return !lastSegment.contains(".");
+    }
+}
@@ -1,12 +1,19 @@
 package com.bank.simulator.controller;
 
+import com.bank.simulator.config.ConditionalGet;
+import com.bank.simulator.config.RequestExecutor;
 import com.bank.simulator.model.Account;
 import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.model.BatchResult;
+import com.bank.simulator.model.ListingPage;
 import com.bank.simulator.service.AccountService;
-import com.bank.simulator.service.impl.AccountServiceImpl;
+import com.bank.simulator.service.impl.AccountCache;
 import com.bank.simulator.validation.AccountValidator;
 import com.bank.simulator.validation.ValidationResult;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
@@ -18,12 +25,23 @@ import java.math.BigDecimal;
 @Consumes(MediaType.APPLICATION_JSON)
 public class AccountController {
     
-    private final AccountService accountService = new AccountServiceImpl();
-    private final AccountValidator accountValidator = new AccountValidator();
+    @Inject
+    private AccountService accountService;
+    @Inject
+    private AccountValidator accountValidator;
+    @Inject
+    private AccountCache accountCache;
+    @Inject
+    private RequestExecutor requestExecutor;
 
     @POST
     @Path("/add")
-    public Response createAccount(Account account) {
+    public void createAccount(Account account,
+                              @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> createAccount(account));
+    }
+
+    Response createAccount(Account account) {
         try {
             System.out.println("=== ACCOUNT CREATION REQUEST ===");
             
@@ -76,6 +94,62 @@ public class AccountController {
         }
     }
 
+    /**
+     * Adds a JSON array of accounts, each linked to its customer by Aadhar.
+     * {@code atomic=true} (the default) creates all of them or none;
+     * {@code atomic=false} creates every valid row.
+     */
+    @POST
+    @Path("/add/batch")
+    public void createAccounts(List<Account> accounts, @QueryParam("atomic") @DefaultValue("true") boolean atomic,
+                               @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> createAccounts(accounts, atomic));
+    }
+
+    Response createAccounts(List<Account> accounts, boolean atomic) {
+        try {
+            Response invalidSize = BatchRequests.checkSize(accounts);
+            if (invalidSize != null) {
+                return invalidSize;
+            }
+            System.out.println("=== ACCOUNT BATCH REQUEST: " + accounts.size() + " rows, atomic=" + atomic + " ===");
+
+            BatchResult result = new BatchResult(accounts.size(), atomic);
+            for (int i = 0; i < accounts.size(); i++) {
+                Account account = accounts.get(i);
+                if (account == null) {
+                    result.reject(i, "VALIDATION", "Account is required");
+                    continue;
+                }
+                ValidationResult validation = accountValidator.validateAccountFields(account);
+                if (!validation.isValid()) {
+                    result.reject(i, "VALIDATION", validation.getAllErrorMessages());
+                    continue;
+                }
+                if (account.getAmount() == null) {
+                    account.setAmount(BigDecimal.valueOf(0.00));
+                }
+                if (account.getStatus() == null || account.getStatus().trim().isEmpty()) {
+                    account.setStatus("ACTIVE");
+                }
+            }
+
+            if (atomic && result.hasFailures()) {
+                result.skipPending();
+            } else {
+                accountService.createAccounts(accounts, result);
+            }
+            return BatchRequests.toResponse(result, "accounts");
+
+        } catch (Exception e) {
+            System.err.println("Exception in account batch creation: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
     // @GET
     // @Path("/{account_id}")
     // public Response getAccount(@PathParam("account_id") String accountId) {
@@ -124,7 +198,13 @@ public class AccountController {
 
     @GET
     @Path("/number/{account_number}")
-    public Response getAccountByAccountNumber(@PathParam("account_number") String accountNumber) {
+    @ConditionalGet(value = ConditionalGet.Resource.ACCOUNT, param = "account_number")
+    public void getAccountByAccountNumber(@PathParam("account_number") String accountNumber,
+                                          @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> getAccountByAccountNumber(accountNumber));
+    }
+
+    Response getAccountByAccountNumber(String accountNumber) {
         try {
             if (accountNumber == null || accountNumber.trim().isEmpty()) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -223,6 +303,8 @@ public class AccountController {
                     .build();
             }
 
+            // With the in-memory ledger on, updateAccount leaves the balance alone,
+            // so an amount echoed back from the edit form is simply not applied.
             boolean updated = accountService.updateAccount(accountId, account);
             if (updated) {
                 return Response.ok(ApiResponse.success("Account updated successfully")).build();
@@ -265,12 +347,29 @@ public class AccountController {
     // }
     
 
+    @GET
+    @Path("/cache/stats")
+    public Response getCacheStats() {
+        return Response.ok(ApiResponse.success("Account cache statistics", accountCache.getStats())).build();
+    }
+
     @GET
     @Path("/all")
-    public Response getAllAccounts() {
+    public void getAllAccounts(@BeanParam PageParams page,
+                               @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> getAllAccounts(page));
+    }
+
+    Response getAllAccounts(PageParams page) {
         try {
             System.out.println(" GET ALL ACCOUNTS REQUEST");
-            
+
+            if (page.isRequested()) {
+                ListingPage listing = accountService.listAccounts(page.toPageRequest());
+                System.out.println(" Returning page of " + listing.getItems().size() + " accounts");
+                return Response.ok(ApiResponse.success("Accounts retrieved successfully", listing)).build();
+            }
+
             List<Account> accounts = accountService.getAllAccounts();
             
             for (Account account : accounts) {
@@ -283,6 +382,10 @@ public class AccountController {
             return Response.ok(ApiResponse.success("Accounts retrieved successfully", accounts))
                     .build();
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
         } catch (Exception e) {
             System.err.println(" Error in getAllAccounts: " + e.getMessage());
             e.printStackTrace();
@@ -1,13 +1,13 @@
 package com.bank.simulator.controller;
 
 import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.model.ListingPage;
 import com.bank.simulator.model.LoginRequest;
 import com.bank.simulator.model.SignupRequest;
 import com.bank.simulator.model.User;
 import com.bank.simulator.service.CustomerService;
 import com.bank.simulator.service.UserService;
-import com.bank.simulator.service.impl.CustomerServiceImpl;
-import com.bank.simulator.service.impl.UserServiceImpl;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -17,8 +17,10 @@ import jakarta.ws.rs.core.Response;
 @Consumes(MediaType.APPLICATION_JSON)
 public class AuthController {
 
-    private final UserService userService = new UserServiceImpl();
-    private final CustomerService customerService = new CustomerServiceImpl();
+    @Inject
+    private UserService userService;
+    @Inject
+    private CustomerService customerService;
 
     @POST
     @Path("/signup")
@@ -249,10 +251,16 @@ public Response login(LoginRequest request) {
 
     @GET
     @Path("/users/all")
-    public Response getAllUsers() {
+    public Response getAllUsers(@BeanParam PageParams page) {
         try {
             System.out.println("\n=== GET ALL USERS REQUEST ===");
-            
+
+            if (page.isRequested()) {
+                ListingPage listing = userService.listUsers(page.toPageRequest());
+                System.out.println(" Returning page of " + listing.getItems().size() + " users");
+                return Response.ok(ApiResponse.success("Users retrieved successfully", listing)).build();
+            }
+
             String query = "SELECT id, full_name, email, active, created_at, updated_at FROM User ORDER BY created_at DESC";
             
             java.util.List<User> users = new java.util.ArrayList<>();
@@ -278,6 +286,10 @@ public Response login(LoginRequest request) {
                     .entity(ApiResponse.success("Users retrieved successfully", users))
                     .build();
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
         } catch (Exception e) {
             System.err.println("Error fetching all users: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,61 @@
+package com.bank.simulator.controller;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.model.BatchResult;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+/** Request size limits and response mapping shared by the batch endpoints. */
+final class BatchRequests {
+
+    private static final int MAX_SIZE = AppConfig.getInt("onboarding.batch.max.size", 5000);
+
+    private BatchRequests() {
+    }
+
+    /** A 400/413 response if the batch is empty or too large, otherwise null. */
+    static Response checkSize(List<?> items) {
+        return checkSize(items, MAX_SIZE);
+    }
+
+    static Response checkSize(List<?> items, int maxSize) {
+        if (items == null || items.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Request body must be a non-empty JSON array"))
+                .build();
+        }
+        if (items.size() > maxSize) {
+            return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .entity(ApiResponse.error("At most " + maxSize + " rows per batch; got " + items.size()))
+                .build();
+        }
+        return null;
+    }
+
+    /**
+     * 201 when every row was created, 200 when only some were, 400 when none
+     * were because of the rows themselves, 500 when none were because of the
+     * database. The per-row results are returned in every case.
+     */
+    static Response toResponse(BatchResult result, String entityName) {
+        int created = result.getCreated();
+        if (created == result.getTotal()) {
+            return Response.status(Response.Status.CREATED)
+                .entity(ApiResponse.success("All " + created + " " + entityName + " created", result))
+                .build();
+        }
+        if (created > 0) {
+            return Response.ok(ApiResponse.success(created + " of " + result.getTotal() + " " + entityName + " created", result))
+                .build();
+        }
+        boolean databaseFailure = result.getRows().stream().anyMatch(row -> "DB_ERROR".equals(row.getErrorCode()));
+        String message = result.isAtomic()
+            ? "Batch rejected: " + result.getFailed() + " of " + result.getTotal() + " rows failed, nothing was created"
+            : "No " + entityName + " created";
+        return Response.status(databaseFailure ? Response.Status.INTERNAL_SERVER_ERROR : Response.Status.BAD_REQUEST)
+            .entity(new ApiResponse<>(false, message, result))
+            .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.simulator.controller;
+
+/**
+ * A single satisfiable byte range from an HTTP Range header
+ * ({@code bytes=start-end}, {@code bytes=start-} or {@code bytes=-suffix}).
+ */
+class ByteRange {
+
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private final long start;
+    private final long end;
+
+    ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    long getStart() { return start; }
+    long getEnd() { return end; }
+    long length() { return end - start + 1; }
+
+    /**
+     * Returns null when the header is absent or not something we honour (other
+     * units, multiple ranges, malformed), meaning "send the whole file";
+     * {@link #UNSATISFIABLE} when it starts past the end of the file, which
+     * every range does for an empty file.
+     */
+    static ByteRange parse(String header, long fileLength) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || fileLength == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, fileLength - suffix), fileLength - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? fileLength - 1 : Math.min(Long.parseLong(last), fileLength - 1);
+            if (start >= fileLength) {
+                return UNSATISFIABLE;
+            }
+            return end < start ? null : new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.bank.simulator.controller;
 
+import com.bank.simulator.config.ConditionalGet;
 import com.bank.simulator.model.ApiResponse;
+import com.bank.simulator.model.BatchResult;
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.ListingPage;
 import com.bank.simulator.service.CustomerService; 
-import com.bank.simulator.service.impl.CustomerServiceImpl;
 import com.bank.simulator.validation.CustomerValidator;
 import com.bank.simulator.validation.ValidationResult;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -17,8 +20,10 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class CustomerController {
     
-    private final CustomerService customerService = new CustomerServiceImpl();
-    private final CustomerValidator customerValidator = new CustomerValidator();
+    @Inject
+    private CustomerService customerService;
+    @Inject
+    private CustomerValidator customerValidator;
 
     @POST
     @Path("/onboard")
@@ -60,6 +65,54 @@ public class CustomerController {
         }
     }
 
+    /**
+     * Onboards a JSON array of customers. {@code atomic=true} (the default)
+     * creates all of them or none; {@code atomic=false} creates every valid row.
+     */
+    @POST
+    @Path("/onboard/batch")
+    public Response createCustomers(List<Customer> customers,
+                                    @QueryParam("atomic") @DefaultValue("true") boolean atomic) {
+        try {
+            Response invalidSize = BatchRequests.checkSize(customers);
+            if (invalidSize != null) {
+                return invalidSize;
+            }
+            System.out.println("=== CUSTOMER BATCH REQUEST: " + customers.size() + " rows, atomic=" + atomic + " ===");
+
+            BatchResult result = new BatchResult(customers.size(), atomic);
+            for (int i = 0; i < customers.size(); i++) {
+                Customer customer = customers.get(i);
+                if (customer == null) {
+                    result.reject(i, "VALIDATION", "Customer is required");
+                    continue;
+                }
+                ValidationResult validation = customerValidator.validateCustomerFields(customer);
+                if (!validation.isValid()) {
+                    result.reject(i, "VALIDATION", validation.getAllErrorMessages());
+                    continue;
+                }
+                if (customer.getStatus() == null || customer.getStatus().trim().isEmpty()) {
+                    customer.setStatus("active");
+                }
+            }
+
+            if (atomic && result.hasFailures()) {
+                result.skipPending();
+            } else {
+                customerService.createCustomers(customers, result);
+            }
+            return BatchRequests.toResponse(result, "customers");
+
+        } catch (Exception e) {
+            System.err.println("Exception in customer batch creation: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
     // @GET
     // @Path("/{customer_id}")
     // public Response getCustomer(@PathParam("customer_id") String customerId) {
@@ -84,6 +137,7 @@ public class CustomerController {
 
     @GET
     @Path("/aadhar/{aadharNumber}")
+    @ConditionalGet(value = ConditionalGet.Resource.CUSTOMER, param = "aadharNumber")
     public Response getCustomerByAadhar(@PathParam("aadharNumber") String aadharNumber) {
         try {
             if (aadharNumber == null || aadharNumber.trim().isEmpty()) {
@@ -308,8 +362,14 @@ public Response deleteCustomerByAadhar(@PathParam("aadharNumber") String aadharN
 
     @GET
     @Path("/all")
-    public Response getAllCustomers() {
+    public Response getAllCustomers(@BeanParam PageParams page) {
         try {
+            if (page.isRequested()) {
+                ListingPage listing = customerService.listCustomers(page.toPageRequest());
+                System.out.println(" Returning page of " + listing.getItems().size() + " customers");
+                return Response.ok(ApiResponse.success("Customers retrieved successfully", listing)).build();
+            }
+
             List<Customer> customers = customerService.getAllCustomers();
             
             for (Customer customer : customers) {
@@ -318,6 +378,10 @@ public Response deleteCustomerByAadhar(@PathParam("aadharNumber") String aadharN
             }
             
             return Response.ok(ApiResponse.success("Customers retrieved successfully", customers)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error(e.getMessage()))
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
@@ -0,0 +1,45 @@
+package com.bank.simulator.controller;
+
+import com.bank.simulator.model.PageRequest;
+import jakarta.ws.rs.QueryParam;
+
+/**
+ * Paging query parameters shared by the {@code /all} listings, injected with
+ * {@code @BeanParam}: {@code ?limit=&cursor=&sort=&fields=&total=}.
+ */
+public class PageParams {
+
+    @QueryParam("cursor")
+    private String cursor;
+
+    @QueryParam("limit")
+    private Integer limit;
+
+    @QueryParam("sort")
+    private String sort;
+
+    @QueryParam("fields")
+    private String fields;
+
+    @QueryParam("total")
+    private String total;
+
+    public PageParams() {}
+
+    PageParams(String cursor, Integer limit, String sort, String fields, String total) {
+        this.cursor = cursor;
+        this.limit = limit;
+        this.sort = sort;
+        this.fields = fields;
+        this.total = total;
+    }
+
+    /** Without any paging parameter the endpoint keeps returning the full list. */
+    public boolean isRequested() {
+        return PageRequest.isRequested(cursor, limit, sort, fields, total);
+    }
+
+    public PageRequest toPageRequest() {
+        return new PageRequest(cursor, limit, sort, fields, total);
+    }
+}
@@ -1,28 +1,46 @@
 package com.bank.simulator.controller;
 
-import com.bank.simulator.model.Account;
 import com.bank.simulator.model.ApiResponse;
-import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.BatchResult;
+import com.bank.simulator.model.ExportJob;
+import com.bank.simulator.model.ExportRequest;
+import com.bank.simulator.model.ListingPage;
 import com.bank.simulator.model.Transaction;
-import com.bank.simulator.model.User;
-import com.bank.simulator.service.AccountService;
-import com.bank.simulator.service.CustomerService;
+import com.bank.simulator.model.TransactionPage;
+import com.bank.simulator.model.TransferSnapshot;
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.config.ConditionalGet;
+import com.bank.simulator.config.RequestExecutor;
 import com.bank.simulator.service.TransactionService;
-import com.bank.simulator.service.UserService;
-import com.bank.simulator.service.impl.AccountServiceImpl;
-import com.bank.simulator.service.impl.CustomerServiceImpl;
-import com.bank.simulator.service.impl.TransactionServiceImpl;
-import com.bank.simulator.service.impl.UserServiceImpl;
+import com.bank.simulator.service.impl.ExportJobService;
+import com.bank.simulator.service.impl.LedgerEngine;
+import com.bank.simulator.service.impl.TransferBatcher;
 import com.bank.simulator.validation.TransactionValidator;
 import com.bank.simulator.validation.ValidationResult;
 
+import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import java.util.List;
-import com.bank.simulator.service.ExcelGeneratorService;
-import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import com.bank.simulator.service.ExportFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -31,15 +49,34 @@ import java.time.format.DateTimeFormatter;
 @Consumes(MediaType.APPLICATION_JSON)
 public class TransactionController {
 
-    private final TransactionService transactionService = new TransactionServiceImpl();
-    private final TransactionValidator transactionValidator = new TransactionValidator();
-    private final AccountService accountService = new AccountServiceImpl();
-    private final CustomerService customerService = new CustomerServiceImpl();
-    private final UserService userService = new UserServiceImpl(); 
+    private static final String EXCEL_MEDIA_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BULK_TRANSFERS = AppConfig.getInt("transfer.bulk.max.size", 50_000);
+
+    @Inject
+    private TransactionService transactionService;
+    @Inject
+    private TransactionValidator transactionValidator;
+    @Inject
+    private ExportJobService exportJobs;
+    @Inject
+    private LedgerEngine ledger;
+    @Inject
+    private TransferBatcher transferBatcher;
+    @Inject
+    private RequestExecutor requestExecutor;
 
     @POST
     @Path("/createTransaction")
-    public Response createTransaction(Transaction transaction) {
+    public void createTransaction(Transaction transaction,
+                                  @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> createTransaction(transaction));
+    }
+
+    Response createTransaction(Transaction transaction) {
         try {
             System.out.println("\n=== TRANSACTION CREATION REQUEST ===");
 
@@ -92,7 +129,17 @@ public class TransactionController {
                     .build();
             }
 
-            Account senderAccount = accountService.getAccountByAccountNumber(transaction.getSenderAccountNumber());
+            TransferSnapshot snapshot = transactionService.loadTransferSnapshot(
+                transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber());
+
+            if (snapshot == null) {
+                System.err.println("TRANSFER SNAPSHOT COULD NOT BE LOADED");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to create transaction"))
+                    .build();
+            }
+
+            TransferSnapshot.Party senderAccount = snapshot.getSender();
             
             if (senderAccount == null) {
                 System.err.println("SENDER ACCOUNT NOT FOUND");
@@ -102,16 +149,16 @@ public class TransactionController {
                     .build();
             }
 
-            if (senderAccount.getStatus() == null || !senderAccount.getStatus().equalsIgnoreCase("ACTIVE")) {
+            if (!senderAccount.isAccountActive()) {
                 System.err.println("SENDER ACCOUNT DEACTIVATED");
                 System.err.println("Account Number: " + transaction.getSenderAccountNumber());
-                System.err.println("Account Status: " + senderAccount.getStatus());
+                System.err.println("Account Status: " + senderAccount.getAccountStatus());
                 return Response.status(Response.Status.FORBIDDEN)
                         .entity(ApiResponse.error("Your account is deactivated. Please contact admin or report an issue."))
                         .build();
             }
 
-            Account receiverAccount = accountService.getAccountByAccountNumber(transaction.getReceiverAccountNumber());
+            TransferSnapshot.Party receiverAccount = snapshot.getReceiver();
             
             if (receiverAccount == null) {
                 System.err.println("RECEIVER ACCOUNT NOT FOUND");
@@ -121,52 +168,43 @@ public class TransactionController {
                     .build();
             }
 
-            if (receiverAccount.getStatus() == null || !receiverAccount.getStatus().equalsIgnoreCase("ACTIVE")) {
+            if (!receiverAccount.isAccountActive()) {
                 System.err.println("RECEIVER ACCOUNT DEACTIVATED");
                 System.err.println("Account Number: " + transaction.getReceiverAccountNumber());
-                System.err.println("Account Status: " + receiverAccount.getStatus());
+                System.err.println("Account Status: " + receiverAccount.getAccountStatus());
                 return Response.status(Response.Status.FORBIDDEN)
                         .entity(ApiResponse.error("Receiver account is deactivated. Transaction cannot be processed."))
                         .build();
             }
 
-            Customer customer = customerService.getCustomerById(senderAccount.getCustomerId());
-            
-            if (customer == null) {
+            if (!senderAccount.hasCustomer()) {
                 System.err.println("CUSTOMER NOT FOUND");
-                System.err.println("Customer ID: " + senderAccount.getCustomerId());
+                System.err.println("Account Number: " + senderAccount.getAccountNumber());
                 return Response.status(Response.Status.NOT_FOUND)
                     .entity(ApiResponse.error("Customer not found"))
                     .build();
             }
 
-            try {
-                System.out.println("=== CHECKING USER ACCOUNT STATUS ===");
-                User senderUser = userService.getUserByEmail(customer.getEmail());
-                
-                if (senderUser != null) {
-                    if (!senderUser.isActive()) {
-                        System.err.println("USER ACCOUNT DEACTIVATED");
-                        System.err.println("Email: " + customer.getEmail());
-                        System.err.println("User ID: " + senderUser.getId());
-                        return Response.status(Response.Status.FORBIDDEN)
-                                .entity(ApiResponse.error("Your account is deactivated. Please contact admin or report an issue."))
-                                .build();
-                    }
-                    System.out.println("User account is active");
-                } else {
-                    System.out.println("Warning: User record not found for customer email: " + customer.getEmail());
+            System.out.println("=== CHECKING USER ACCOUNT STATUS ===");
+            if (senderAccount.getUserActive() != null) {
+                if (!senderAccount.getUserActive()) {
+                    System.err.println("USER ACCOUNT DEACTIVATED");
+                    System.err.println("Email: " + senderAccount.getCustomerEmail());
+                    return Response.status(Response.Status.FORBIDDEN)
+                            .entity(ApiResponse.error("Your account is deactivated. Please contact admin or report an issue."))
+                            .build();
                 }
-            } catch (Exception userCheckEx) {
-                System.err.println("Warning: Could not verify user active status: " + userCheckEx.getMessage());
+                System.out.println("User account is active");
+            } else {
+                System.out.println("Warning: User record not found for customer email: " + senderAccount.getCustomerEmail());
             }
 
-            String storedPin = customer.getCustomerPin();
+            String storedPin = senderAccount.getCustomerPin();
             String enteredPin = transaction.getPin();
 
             System.out.println("PIN Validation:");
-            System.out.println("- Customer ID: " + customer.getCustomerId());
-            System.out.println("- Customer Name: " + customer.getName());
+            System.out.println("- Customer ID: " + senderAccount.getCustomerId());
+            System.out.println("- Customer Name: " + senderAccount.getCustomerName());
             System.out.println("- Entered PIN: " + enteredPin);
             System.out.println("- Stored PIN: " + storedPin);
 
@@ -180,7 +218,8 @@ public class TransactionController {
 
             System.out.println("PIN validation successful");
 
-            ValidationResult validationResult = transactionValidator.validateTransactionForCreation(transaction);
+            ValidationResult validationResult = transactionValidator.validateTransactionForCreation(transaction, snapshot,
+                !ledger.isEnabled());
 
             if (!validationResult.isValid()) {
                 System.err.println("TRANSACTION VALIDATION FAILED");
@@ -191,7 +230,7 @@ public class TransactionController {
                     .build();
             }
 
-            String transactionId = transactionService.createTransaction(transaction);
+            String transactionId = transactionService.createTransaction(transaction, snapshot);
 
             if (transactionId != null && transactionId.startsWith("TXN_")) {
                 System.out.println("TRANSACTION SUCCESSFUL");
@@ -224,9 +263,100 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Many transfers in one call, e.g. a payroll run. Each row carries the same
+     * fields (and sender PIN) as createTransaction. {@code atomic=true} (the
+     * default) applies all of them or none; {@code atomic=false} applies every
+     * row that passes, in order.
+     */
+    @POST
+    @Path("/bulk")
+    public void createTransactions(List<Transaction> transactions, @QueryParam("atomic") @DefaultValue("true") boolean atomic,
+                                   @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> createTransactions(transactions, atomic));
+    }
+
+    Response createTransactions(List<Transaction> transactions, boolean atomic) {
+        try {
+            Response invalidSize = BatchRequests.checkSize(transactions, MAX_BULK_TRANSFERS);
+            if (invalidSize != null) {
+                return invalidSize;
+            }
+            System.out.println("\n=== BULK TRANSFER REQUEST: " + transactions.size() + " rows, atomic=" + atomic + " ===");
+
+            BatchResult result = new BatchResult(transactions.size(), atomic);
+            Set<String> accountNumbers = new TreeSet<>();
+            for (int i = 0; i < transactions.size(); i++) {
+                Transaction transaction = transactions.get(i);
+                if (transaction == null) {
+                    result.reject(i, "VALIDATION", "Transaction data is required");
+                    continue;
+                }
+                if (transaction.getPin() == null || !transaction.getPin().matches("^[0-9]{6}$")) {
+                    result.reject(i, "INVALID_PIN", "PIN must be exactly 6 digits");
+                    continue;
+                }
+                if (transaction.getTransactionType() == null || transaction.getTransactionType().trim().isEmpty()) {
+                    transaction.setTransactionType("ONLINE");
+                }
+                ValidationResult validation = transactionValidator.validateTransactionFields(transaction);
+                if (!validation.isValid()) {
+                    String code = validation.getErrorCode() != null ? validation.getErrorCode() : "VALIDATION";
+                    result.reject(i, code, validation.getAllErrorMessages());
+                    continue;
+                }
+                accountNumbers.add(transaction.getSenderAccountNumber());
+                accountNumbers.add(transaction.getReceiverAccountNumber());
+            }
+
+            if (!(atomic && result.hasFailures())) {
+                Map<String, TransferSnapshot.Party> parties = transactionService.loadParties(accountNumbers);
+                for (int i : result.pendingIndexes()) {
+                    Transaction transaction = transactions.get(i);
+                    ValidationResult validation = transactionValidator.validateTransferParties(transaction,
+                        parties.get(transaction.getSenderAccountNumber()),
+                        parties.get(transaction.getReceiverAccountNumber()));
+                    if (!validation.isValid()) {
+                        result.reject(i, validation.getErrorCode(), validation.getFirstErrorMessage());
+                    }
+                }
+                if (!(atomic && result.hasFailures())) {
+                    transactionService.createTransactions(transactions, parties, result);
+                }
+            }
+            result.skipPending();
+            return BatchRequests.toResponse(result, "transfers");
+
+        } catch (Exception e) {
+            System.err.println("EXCEPTION IN BULK TRANSFER: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
+    @GET
+    @Path("/ledger/stats")
+    public Response getLedgerStats() {
+        return Response.ok(ApiResponse.success("Ledger statistics", ledger.getStats())).build();
+    }
+
+    @GET
+    @Path("/group-commit/stats")
+    public Response getGroupCommitStats() {
+        return Response.ok(ApiResponse.success("Group commit statistics", transferBatcher.getStats())).build();
+    }
+
     @GET
     @Path("/getTransactionsByAccountNumber/{accountNumber}")
-    public Response getTransactionsByAccountNumber(@PathParam("accountNumber") String accountNumber) {
+    @ConditionalGet(value = ConditionalGet.Resource.TRANSACTIONS, param = "accountNumber")
+    public void getTransactionsByAccountNumber(@PathParam("accountNumber") String accountNumber,
+                                               @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> getTransactionsByAccountNumber(accountNumber));
+    }
+
+    Response getTransactionsByAccountNumber(String accountNumber) {
         try {
             System.out.println("\n=== GET TRANSACTIONS REQUEST ===");
             System.out.println("Account Number: " + accountNumber);
@@ -264,12 +394,77 @@ public class TransactionController {
         }
     }
 
+    @GET
+    @Path("/statement/{accountNumber}")
+    public void getStatement(@PathParam("accountNumber") String accountNumber, @QueryParam("cursor") String cursor,
+                             @QueryParam("limit") @DefaultValue("50") int limit,
+                             @Suspended AsyncResponse response) {
+        requestExecutor.submit(response, () -> getStatement(accountNumber, cursor, limit));
+    }
+
+    Response getStatement(String accountNumber, String cursor, int limit) {
+        try {
+            System.out.println("\n=== GET STATEMENT REQUEST ===");
+            System.out.println("Account Number: " + accountNumber + ", limit: " + limit
+                + (cursor != null ? ", cursor: " + cursor : ""));
+
+            if (accountNumber == null || accountNumber.trim().isEmpty()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error("Account number is required"))
+                    .build();
+            }
+
+            if (limit <= 0) {
+                limit = DEFAULT_PAGE_SIZE;
+            }
+            limit = Math.min(limit, MAX_PAGE_SIZE);
+
+            TransactionPage page = transactionService.getStatementPage(accountNumber, cursor, limit);
+            if (page == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to load statement"))
+                    .build();
+            }
+
+            return Response.ok(ApiResponse.success("Statement retrieved successfully",
+                    page.getTransactions(), page.getNextCursor()))
+                .build();
+
+        } catch (IllegalArgumentException e) {
+            System.err.println("INVALID STATEMENT CURSOR: " + cursor);
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error("Invalid cursor"))
+                .build();
+        } catch (Exception e) {
+            System.err.println("EXCEPTION IN FETCHING STATEMENT");
+            System.err.println("Exception: " + e.getMessage());
+            e.printStackTrace();
+
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(ApiResponse.error("Internal server error: " + e.getMessage()))
+                .build();
+        }
+    }
+
     @GET
     @Path("/all")
-    public Response getAllTransactions() {
+    @Produces({MediaType.APPLICATION_JSON, CSV_MEDIA_TYPE, NDJSON_MEDIA_TYPE})
+    public Response getAllTransactions(@QueryParam("format") String format, @BeanParam PageParams page,
+                                       @Context HttpHeaders headers) {
         try {
             System.out.println("\n=== GET ALL TRANSACTIONS REQUEST ===");
-            
+
+            ExportFormat exportFormat = ExportFormat.resolve(format, acceptedTypes(headers));
+            if (exportFormat != null) {
+                return exportResponse(exportFormat, null, "all_transactions", headers);
+            }
+
+            if (page.isRequested()) {
+                ListingPage listing = transactionService.listTransactions(page.toPageRequest());
+                System.out.println(" Returning page of " + listing.getItems().size() + " transactions");
+                return Response.ok(ApiResponse.success("Transactions retrieved successfully", listing)).build();
+            }
+
             List<Transaction> transactions = transactionService.getAllTransactions();
             
             System.out.println("TRANSACTIONS RETRIEVED SUCCESSFULLY");
@@ -278,6 +473,11 @@ public class TransactionController {
             return Response.ok(ApiResponse.success("Transactions retrieved successfully", transactions))
                 .build();
                 
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(ApiResponse.error(e.getMessage()))
+                .type(MediaType.APPLICATION_JSON)
+                .build();
         } catch (Exception e) {
             System.err.println("EXCEPTION IN FETCHING ALL TRANSACTIONS");
             System.err.println("Exception: " + e.getMessage());
@@ -291,14 +491,14 @@ public class TransactionController {
 
     @GET
     @Path("/download/all")
-    @Produces("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public Response downloadAllTransactionsExcel() {
+    @Produces({EXCEL_MEDIA_TYPE, CSV_MEDIA_TYPE, NDJSON_MEDIA_TYPE})
+    public Response downloadAllTransactionsExcel(@QueryParam("format") String format, @Context HttpHeaders headers) {
         try {
             System.out.println("\n=== DOWNLOAD ALL TRANSACTIONS REQUEST ===");
+
+            ExportFormat exportFormat = resolveDownloadFormat(format, headers);
             
-            List<Transaction> transactions = transactionService.getAllTransactions();
-            
-            if (transactions.isEmpty()) {
+            if (!transactionService.hasAnyTransactions()) {
                 System.out.println("No transactions found");
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity(ApiResponse.error("No transactions available to download"))
@@ -306,24 +506,15 @@ public class TransactionController {
                         .build();
             }
             
-            System.out.println("Transactions to export: " + transactions.size());
+            return exportResponse(exportFormat, null, "all_transactions", headers);
             
-            ExcelGeneratorService excelService = new ExcelGeneratorService();
-            ByteArrayOutputStream excelStream = excelService.generateTransactionsExcel(transactions);
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "all_transactions_" + timestamp + ".xlsx";
-            
-            System.out.println("Generated file: " + filename);
-            System.out.println("File size: " + excelStream.size() + " bytes");
-            
-            return Response.ok(excelStream.toByteArray())
-                    .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
-                    .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .type(MediaType.APPLICATION_JSON)
                     .build();
-            
         } catch (Exception e) {
-            System.err.println("Error generating Excel file: " + e.getMessage());
+            System.err.println("Error generating export file: " + e.getMessage());
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(ApiResponse.error("Failed to generate Excel file: " + e.getMessage()))
@@ -334,8 +525,10 @@ public class TransactionController {
 
     @GET
     @Path("/download/{accountNumber}")
-    @Produces("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public Response downloadTransactionsByAccount(@PathParam("accountNumber") String accountNumber) {
+    @Produces({EXCEL_MEDIA_TYPE, CSV_MEDIA_TYPE, NDJSON_MEDIA_TYPE})
+    public Response downloadTransactionsByAccount(@PathParam("accountNumber") String accountNumber,
+                                                  @QueryParam("format") String format,
+                                                  @Context HttpHeaders headers) {
         System.out.println("\n=== DOWNLOAD TRANSACTIONS BY ACCOUNT REQUEST ===");
         System.out.println("Account Number: " + accountNumber);
         
@@ -347,10 +540,10 @@ public class TransactionController {
                         .type(MediaType.APPLICATION_JSON)
                         .build();
             }
+
+            ExportFormat exportFormat = resolveDownloadFormat(format, headers);
             
-            List<Transaction> transactions = transactionService.getTransactionsByAccountNumber(accountNumber);
-            
-            if (transactions == null || transactions.isEmpty()) {
+            if (!transactionService.hasTransactionsForAccount(accountNumber)) {
                 System.err.println("No transactions found for account: " + accountNumber);
                 return Response.status(Response.Status.NOT_FOUND)
                         .entity(ApiResponse.error("No transactions found for account number: " + accountNumber))
@@ -358,24 +551,15 @@ public class TransactionController {
                         .build();
             }
             
-            System.out.println("Found " + transactions.size() + " transactions for account: " + accountNumber);
-            
-            ExcelGeneratorService excelService = new ExcelGeneratorService();
-            ByteArrayOutputStream excelStream = excelService.generateTransactionsExcel(transactions);
-            
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String filename = "transactions_" + accountNumber + "_" + timestamp + ".xlsx";
-            
-            System.out.println("Excel file generated successfully: " + filename);
-            System.out.println("File size: " + excelStream.size() + " bytes");
-            
-            return Response.ok(excelStream.toByteArray())
-                    .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
-                    .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                    .build();
+            return exportResponse(exportFormat, accountNumber, "transactions_" + accountNumber, headers);
                     
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
         } catch (Exception e) {
-            System.err.println("Error generating Excel file for account " + accountNumber);
+            System.err.println("Error generating export file for account " + accountNumber);
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
             
@@ -386,6 +570,188 @@ public class TransactionController {
         }
     }
 
+    private static List<String> acceptedTypes(HttpHeaders headers) {
+        return headers.getAcceptableMediaTypes().stream()
+            .map(type -> type.getType() + "/" + type.getSubtype())
+            .collect(Collectors.toList());
+    }
+
+    private static ExportFormat resolveDownloadFormat(String format, HttpHeaders headers) {
+        ExportFormat exportFormat = ExportFormat.resolve(format, acceptedTypes(headers));
+        return exportFormat != null ? exportFormat : ExportFormat.XLSX;
+    }
+
+    /**
+     * Streams the export straight from the database cursor into the response,
+     * or from a finished export job's file when one matches the current ledger.
+     * Text formats are gzip-compressed when the client accepts it (xlsx is
+     * already a zip). The body runs after the headers are committed, so a failure
+     * there aborts the download rather than turning into an error status.
+     */
+    private Response exportResponse(ExportFormat format, String accountNumber, String filenameBase,
+                                    HttpHeaders headers) throws SQLException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String filename = filenameBase + "_" + timestamp + "." + format.getExtension();
+        boolean gzip = format != ExportFormat.XLSX && acceptsGzip(headers);
+        ExportJob cached = exportJobs.findReady(accountNumber, format);
+        System.out.println((cached != null ? "Serving cached " + format + " export " + cached.getJobId() + ": "
+            : "Streaming " + format + " export: ") + filename + (gzip ? " (gzip)" : ""));
+
+        StreamingOutput body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            try {
+                if (cached != null) {
+                    Files.copy(cached.getFile(), target);
+                } else {
+                    exportJobs.writeExport(format, accountNumber, target);
+                }
+                if (target instanceof GZIPOutputStream) {
+                    ((GZIPOutputStream) target).finish();
+                }
+            } catch (SQLException e) {
+                System.err.println(format + " export aborted: " + e.getMessage());
+                throw new IOException(format + " export aborted", e);
+            }
+        };
+
+        Response.ResponseBuilder response = Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .header("Content-Type", contentType(format))
+                .header("Vary", "Accept, Accept-Encoding");
+        if (gzip) {
+            response.header("Content-Encoding", "gzip");
+        }
+        return response.build();
+    }
+
+    private static String contentType(ExportFormat format) {
+        return format.getMediaType() + (format == ExportFormat.XLSX ? "" : "; charset=UTF-8");
+    }
+
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        String acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    @POST
+    @Path("/exports")
+    public Response submitExport(ExportRequest request) {
+        try {
+            System.out.println("\n=== EXPORT JOB REQUEST ===");
+
+            String accountNumber = request != null && request.getAccountNumber() != null
+                && !request.getAccountNumber().trim().isEmpty() ? request.getAccountNumber().trim() : null;
+            ExportFormat format = ExportFormat.resolve(request != null ? request.getFormat() : null, List.of());
+            if (format == null) {
+                format = ExportFormat.XLSX;
+            }
+            System.out.println("Account Number: " + (accountNumber != null ? accountNumber : "ALL") + ", format: " + format);
+
+            ExportJob job = exportJobs.submit(accountNumber, format);
+            Response.Status status = job.isReady() ? Response.Status.OK : Response.Status.ACCEPTED;
+            return Response.status(status)
+                    .entity(ApiResponse.success(job.isReady() ? "Export ready" : "Export queued", job))
+                    .header("Location", "/api/transaction/exports/" + job.getJobId())
+                    .build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ApiResponse.error(e.getMessage()))
+                    .build();
+        } catch (RejectedExecutionException e) {
+            System.err.println("EXPORT QUEUE FULL: " + e.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(ApiResponse.error("Too many exports in progress. Please try again shortly."))
+                    .header("Retry-After", "30")
+                    .build();
+        } catch (Exception e) {
+            System.err.println("Error queueing export: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ApiResponse.error("Failed to queue export: " + e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/exports/{jobId}")
+    public Response getExport(@PathParam("jobId") String jobId) {
+        ExportJob job = exportJobs.getJob(jobId);
+        if (job == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ApiResponse.error("Export job not found"))
+                    .build();
+        }
+        return Response.ok(ApiResponse.success("Export " + job.getStatus().toLowerCase(), job)).build();
+    }
+
+    /**
+     * Serves a finished export file. Supports a single byte range so interrupted
+     * downloads of large exports can resume; the job id doubles as a strong ETag
+     * since an artifact never changes once written.
+     */
+    @GET
+    @Path("/exports/{jobId}/file")
+    @Produces({EXCEL_MEDIA_TYPE, CSV_MEDIA_TYPE, NDJSON_MEDIA_TYPE, MediaType.APPLICATION_JSON})
+    public Response downloadExport(@PathParam("jobId") String jobId,
+                                   @HeaderParam("Range") String range,
+                                   @HeaderParam("If-Range") String ifRange) {
+        ExportJob job = exportJobs.getJob(jobId);
+        if (job == null || !job.isReady() || !Files.exists(job.getFile())) {
+            return Response.status(job == null ? Response.Status.NOT_FOUND : Response.Status.CONFLICT)
+                    .entity(ApiResponse.error(job == null ? "Export job not found" : "Export is not ready"))
+                    .type(MediaType.APPLICATION_JSON)
+                    .build();
+        }
+
+        ExportFormat format = ExportFormat.valueOf(job.getFormat());
+        String etag = "\"" + job.getJobId() + "\"";
+        long length = job.getSizeBytes();
+        String filename = (job.getAccountNumber() != null ? "transactions_" + job.getAccountNumber() : "all_transactions")
+            + "." + format.getExtension();
+
+        // A stale If-Range means the client's partial copy is of something else: send it all.
+        ByteRange byteRange = ifRange == null || ifRange.equals(etag) ? ByteRange.parse(range, length) : null;
+        if (byteRange == ByteRange.UNSATISFIABLE) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + length)
+                    .header("Accept-Ranges", "bytes")
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(ApiResponse.error("Requested range not satisfiable"))
+                    .build();
+        }
+
+        long start = byteRange != null ? byteRange.getStart() : 0;
+        long count = byteRange != null ? byteRange.length() : length;
+        StreamingOutput body = out -> {
+            try (RandomAccessFile file = new RandomAccessFile(job.getFile().toFile(), "r")) {
+                file.seek(start);
+                byte[] buffer = new byte[64 * 1024];
+                long remaining = count;
+                while (remaining > 0) {
+                    int read = file.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        };
+
+        Response.ResponseBuilder response = Response.status(byteRange != null ? 206 : 200)
+                .entity(body)
+                .header("Content-Type", contentType(format))
+                .header("Content-Length", count)
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .header("Accept-Ranges", "bytes")
+                .header("ETag", etag);
+        if (byteRange != null) {
+            response.header("Content-Range", "bytes " + byteRange.getStart() + "-" + byteRange.getEnd() + "/" + length);
+        }
+        return response.build();
+    }
+
     @DELETE
     @Path("/{transactionId}")
     public Response deleteTransaction(@PathParam("transactionId") String transactionId) {
@@ -414,22 +780,38 @@ public class TransactionController {
                 }
             }
             
+            // Touching both account rows moves their modified stamp, which is
+            // what the conditional GET of the transaction list and the cached
+            // exports' watermark are keyed on.
             String deleteQuery = "DELETE FROM Transaction WHERE transaction_id = ?";
-            try (java.sql.Connection conn = com.bank.simulator.config.DBConfig.getConnection();
-                 java.sql.PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
-                
-                deleteStmt.setString(1, transactionId);
-                int result = deleteStmt.executeUpdate();
-                
-                if (result > 0) {
-                    System.out.println("Transaction deleted successfully");
-                    return Response.ok()
-                            .entity(ApiResponse.success("Transaction deleted successfully"))
-                            .build();
-                } else {
-                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                            .entity(ApiResponse.error("Failed to delete transaction"))
-                            .build();
+            String touchQuery = "UPDATE Account SET modified = CURRENT_TIMESTAMP(6) WHERE account_number IN " +
+                                "(SELECT sender_account_number FROM Transaction WHERE transaction_id = ? " +
+                                "UNION SELECT receiver_account_number FROM Transaction WHERE transaction_id = ?)";
+            try (java.sql.Connection conn = com.bank.simulator.config.DBConfig.getConnection()) {
+                conn.setAutoCommit(false);
+                try (java.sql.PreparedStatement touchStmt = conn.prepareStatement(touchQuery);
+                     java.sql.PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
+
+                    touchStmt.setString(1, transactionId);
+                    touchStmt.setString(2, transactionId);
+                    touchStmt.executeUpdate();
+                    deleteStmt.setString(1, transactionId);
+                    int result = deleteStmt.executeUpdate();
+                    conn.commit();
+
+                    if (result > 0) {
+                        System.out.println("Transaction deleted successfully");
+                        return Response.ok()
+                                .entity(ApiResponse.success("Transaction deleted successfully"))
+                                .build();
+                    } else {
+                        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                .entity(ApiResponse.error("Failed to delete transaction"))
+                                .build();
+                    }
+                } catch (java.sql.SQLException e) {
+                    conn.rollback();
+                    throw e;
                 }
             }
             
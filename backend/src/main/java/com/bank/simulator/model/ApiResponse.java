@@ -1,12 +1,24 @@
 package com.bank.simulator.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 public class ApiResponse<T> {
     private boolean success;
     private String message;
     private T data;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalEstimated;
     
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
     private LocalDateTime timestamp;
@@ -26,6 +38,21 @@ public class ApiResponse<T> {
         return new ApiResponse<>(true, message, data);
     }
 
+    public static <T> ApiResponse<T> success(String message, T data, String nextCursor) {
+        ApiResponse<T> response = new ApiResponse<>(true, message, data);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+
+    public static ApiResponse<List<Map<String, Object>>> success(String message, ListingPage page) {
+        ApiResponse<List<Map<String, Object>>> response = success(message, page.getItems(), page.getNextCursor());
+        if (page.getTotal() != null) {
+            response.setTotal(page.getTotal());
+            response.setTotalEstimated(page.isTotalEstimated());
+        }
+        return response;
+    }
+
     public static <T> ApiResponse<T> success(String message) {
         return new ApiResponse<>(true, message, null);
     }
@@ -43,6 +70,15 @@ public class ApiResponse<T> {
     public T getData() { return data; }
     public void setData(T data) { this.data = data; }
 
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public Boolean getTotalEstimated() { return totalEstimated; }
+    public void setTotalEstimated(Boolean totalEstimated) { this.totalEstimated = totalEstimated; }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 }
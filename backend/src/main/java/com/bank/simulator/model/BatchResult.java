@@ -0,0 +1,127 @@
+package com.bank.simulator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-row outcome of a batch onboarding call. In an atomic batch either every
+ * row is CREATED or none is: rows that were valid but not written because
+ * another row failed are reported as SKIPPED.
+ */
+public class BatchResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    private boolean atomic;
+    private List<Row> rows;
+
+    public static class Row {
+        private int index;
+        private String status;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String id;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String errorCode;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String message;
+
+        public Row(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getErrorCode() { return errorCode; }
+        public void setErrorCode(String errorCode) { this.errorCode = errorCode; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    public BatchResult(int size, boolean atomic) {
+        this.atomic = atomic;
+        this.rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new Row(i));
+        }
+    }
+
+    public void reject(int index, String errorCode, String message) {
+        Row row = rows.get(index);
+        row.setStatus(FAILED);
+        row.setId(null);
+        row.setErrorCode(errorCode);
+        row.setMessage(message);
+    }
+
+    public void markCreated(int index, String id) {
+        Row row = rows.get(index);
+        row.setStatus(CREATED);
+        row.setId(id);
+    }
+
+    /** Rows not yet rejected or written, in order. */
+    public List<Integer> pendingIndexes() {
+        List<Integer> pending = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.getStatus() == null) {
+                pending.add(row.getIndex());
+            }
+        }
+        return pending;
+    }
+
+    /** Ends an atomic batch that will not be written: every row still pending is SKIPPED. */
+    public void skipPending() {
+        for (int index : pendingIndexes()) {
+            rows.get(index).setStatus(SKIPPED);
+        }
+    }
+
+    public void rejectPending(String errorCode, String message) {
+        for (int index : pendingIndexes()) {
+            reject(index, errorCode, message);
+        }
+    }
+
+    public boolean hasFailures() {
+        return getFailed() > 0;
+    }
+
+    public boolean isAtomic() { return atomic; }
+    public void setAtomic(boolean atomic) { this.atomic = atomic; }
+
+    public List<Row> getRows() { return rows; }
+    public void setRows(List<Row> rows) { this.rows = rows; }
+
+    public int getTotal() { return rows.size(); }
+
+    public int getCreated() { return count(CREATED); }
+
+    public int getFailed() { return count(FAILED); }
+
+    public int getSkipped() { return count(SKIPPED); }
+
+    private int count(String status) {
+        int count = 0;
+        for (Row row : rows) {
+            if (status.equals(row.getStatus())) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.simulator.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+public class ExportJob {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_READY = "READY";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private String jobId;
+    private String accountNumber;
+    private String format;
+    private String watermark;
+    private volatile String status = STATUS_QUEUED;
+    private volatile long rowCount;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private volatile LocalDateTime completedAt;
+
+    @JsonIgnore
+    private volatile Path file;
+
+    @JsonIgnore
+    private String cacheKey;
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getWatermark() { return watermark; }
+    public void setWatermark(String watermark) { this.watermark = watermark; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public Path getFile() { return file; }
+    public void setFile(Path file) { this.file = file; }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getDownloadUrl() {
+        return STATUS_READY.equals(status) ? "/api/transaction/exports/" + jobId + "/file" : null;
+    }
+
+    @JsonIgnore
+    public boolean isReady() {
+        return STATUS_READY.equals(status);
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return STATUS_READY.equals(status) || STATUS_FAILED.equals(status);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bank.simulator.model;
+
+public class ExportRequest {
+    private String accountNumber;
+    private String format;
+
+    public ExportRequest() {}
+
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+}
@@ -0,0 +1,30 @@
+package com.bank.simulator.model;
+
+import java.util.List;
+import java.util.Map;
+
+public class ListingPage {
+    private List<Map<String, Object>> items;
+    private String nextCursor;
+    private Long total;
+    private boolean totalEstimated;
+
+    public ListingPage(List<Map<String, Object>> items, String nextCursor, Long total, boolean totalEstimated) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+        this.totalEstimated = totalEstimated;
+    }
+
+    public List<Map<String, Object>> getItems() { return items; }
+    public void setItems(List<Map<String, Object>> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public boolean isTotalEstimated() { return totalEstimated; }
+    public void setTotalEstimated(boolean totalEstimated) { this.totalEstimated = totalEstimated; }
+}
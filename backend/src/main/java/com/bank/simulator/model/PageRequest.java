@@ -0,0 +1,68 @@
+package com.bank.simulator.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query parameters shared by the paginated {@code /all} listings: an opaque
+ * keyset cursor, a capped page size, a sort field (prefix {@code -} for
+ * descending), an optional comma-separated field projection and whether a
+ * total should be returned ({@code exact} or {@code estimate}).
+ */
+public class PageRequest {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public static final String TOTAL_NONE = "none";
+    public static final String TOTAL_EXACT = "exact";
+    public static final String TOTAL_ESTIMATE = "estimate";
+
+    private final String cursor;
+    private final int limit;
+    private final String sort;
+    private final List<String> fields;
+    private final String total;
+
+    public PageRequest(String cursor, Integer limit, String sort, String fields, String total) {
+        this.cursor = blankToNull(cursor);
+        this.limit = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        this.sort = blankToNull(sort);
+        this.fields = splitFields(fields);
+        this.total = blankToNull(total) == null ? TOTAL_NONE : total.trim().toLowerCase();
+        if (!TOTAL_NONE.equals(this.total) && !TOTAL_EXACT.equals(this.total) && !TOTAL_ESTIMATE.equals(this.total)) {
+            throw new IllegalArgumentException("total must be one of none, exact, estimate");
+        }
+    }
+
+    /**
+     * True when the caller used any paging parameter. Callers that send none
+     * keep getting the full list they always got.
+     */
+    public static boolean isRequested(String cursor, Integer limit, String sort, String fields, String total) {
+        return blankToNull(cursor) != null || limit != null || blankToNull(sort) != null
+            || blankToNull(fields) != null || blankToNull(total) != null;
+    }
+
+    public String getCursor() { return cursor; }
+    public int getLimit() { return limit; }
+    public String getSort() { return sort; }
+    public List<String> getFields() { return fields; }
+    public String getTotal() { return total; }
+
+    private static List<String> splitFields(String fields) {
+        List<String> result = new ArrayList<>();
+        if (fields != null) {
+            for (String field : fields.split(",")) {
+                if (!field.trim().isEmpty()) {
+                    result.add(field.trim());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
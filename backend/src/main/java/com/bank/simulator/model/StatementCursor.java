@@ -0,0 +1,42 @@
+package com.bank.simulator.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Seek position in an account statement: the (created_date, transaction_id) of the
+ * last row already returned. Travels to clients as an opaque URL-safe token.
+ */
+public class StatementCursor {
+
+    private final LocalDateTime createdDate;
+    private final String transactionId;
+
+    public StatementCursor(LocalDateTime createdDate, String transactionId) {
+        this.createdDate = createdDate;
+        this.transactionId = transactionId;
+    }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public String getTransactionId() { return transactionId; }
+
+    public String encode() {
+        String raw = createdDate + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StatementCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new StatementCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
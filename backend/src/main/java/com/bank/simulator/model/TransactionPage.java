@@ -0,0 +1,21 @@
+package com.bank.simulator.model;
+
+import java.util.List;
+
+public class TransactionPage {
+    private List<Transaction> transactions;
+    private String nextCursor;
+
+    public TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() { return transactions; }
+    public void setTransactions(List<Transaction> transactions) { this.transactions = transactions; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,79 @@
+package com.bank.simulator.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Everything the transfer path needs about both parties, loaded with a single
+ * joined query and reused for validation, the balance update and notifications.
+ */
+public class TransferSnapshot {
+
+    private Party sender;
+    private Party receiver;
+
+    public TransferSnapshot() {}
+
+    public TransferSnapshot(Party sender, Party receiver) {
+        this.sender = sender;
+        this.receiver = receiver;
+    }
+
+    public Party getSender() { return sender; }
+    public void setSender(Party sender) { this.sender = sender; }
+
+    public Party getReceiver() { return receiver; }
+    public void setReceiver(Party receiver) { this.receiver = receiver; }
+
+    public static class Party {
+        private String accountId;
+        private String accountNumber;
+        private BigDecimal balance;
+        private String accountStatus;
+        private String bankName;
+        private String customerId;
+        private String customerName;
+        private String customerEmail;
+        private String customerPin;
+        private Boolean userActive;
+
+        public Party() {}
+
+        public String getAccountId() { return accountId; }
+        public void setAccountId(String accountId) { this.accountId = accountId; }
+
+        public String getAccountNumber() { return accountNumber; }
+        public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+
+        public BigDecimal getBalance() { return balance; }
+        public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+        public String getAccountStatus() { return accountStatus; }
+        public void setAccountStatus(String accountStatus) { this.accountStatus = accountStatus; }
+
+        public String getBankName() { return bankName; }
+        public void setBankName(String bankName) { this.bankName = bankName; }
+
+        public String getCustomerId() { return customerId; }
+        public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+        public String getCustomerName() { return customerName; }
+        public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+        public String getCustomerEmail() { return customerEmail; }
+        public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
+
+        public String getCustomerPin() { return customerPin; }
+        public void setCustomerPin(String customerPin) { this.customerPin = customerPin; }
+
+        public Boolean getUserActive() { return userActive; }
+        public void setUserActive(Boolean userActive) { this.userActive = userActive; }
+
+        public boolean isAccountActive() {
+            return accountStatus != null && accountStatus.equalsIgnoreCase("ACTIVE");
+        }
+
+        public boolean hasCustomer() {
+            return customerId != null;
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.bank.simulator.service;
 
 import com.bank.simulator.model.Account;
+import com.bank.simulator.model.BatchResult;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
+import java.sql.SQLException;
 import java.util.List;
 
 public interface AccountService {
    
     String createAccount(Account account);
+    BatchResult createAccounts(List<Account> accounts, BatchResult result);
     Account getAccountById(String accountId);
     Account getAccountByCustomerId(String customerId);
     Account getAccountByAccountNumber(String accountNumber);
+    String getAccountVersion(String accountNumber);
     boolean updateAccount(String accountId, Account account);
     boolean deleteAccount(String accountId);  
     boolean isAccountNumberExists(String accountNumber);
     String getCustomerPhoneNumber(String customerId);
     String generateAccountId();
      List<Account> getAllAccounts();
+    ListingPage listAccounts(PageRequest request) throws SQLException;
 }
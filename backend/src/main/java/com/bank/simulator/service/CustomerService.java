@@ -1,19 +1,26 @@
 package com.bank.simulator.service;
 
+import com.bank.simulator.model.BatchResult;
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
+import java.sql.SQLException;
 import java.util.List;
 
 public interface CustomerService {
     
     String createCustomer(Customer customer); 
+    BatchResult createCustomers(List<Customer> customers, BatchResult result);
     String generateCustomerId();  
     Customer getCustomerById(String customerId); 
     Customer getCustomerByAadharNumber(String aadharNumber);  
+    String getCustomerVersion(String aadharNumber);
     Customer getCustomerByPhoneNumber(String phoneNumber); 
     boolean updateCustomer(String customerId, Customer customer); 
     boolean deleteCustomer(String customerId);
     boolean deleteCustomerByAadhar(String aadharNumber);
     List<Customer> getAllCustomers();
+    ListingPage listCustomers(PageRequest request) throws SQLException;
     boolean isPhoneNumberExists(String phoneNumber);
     boolean isEmailExists(String email);
     boolean isAadharNumberExists(String aadharNumber);
@@ -2,51 +2,95 @@ package com.bank.simulator.service;
 
 import com.bank.simulator.model.Transaction;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 public class ExcelGeneratorService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm a");
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_ROWS_PER_SHEET = 1_048_575;
+    // Sender, Receiver, Amount, Type, Description, Created Date (in characters)
+    private static final int[] COLUMN_WIDTHS = {22, 22, 16, 18, 40, 24};
 
-    public ByteArrayOutputStream generateTransactionsExcel(List<Transaction> transactions) throws IOException {
-        
-        System.out.println("\n=== GENERATING EXCEL FILE ===");
-        System.out.println("Total transactions to export: " + transactions.size());
-        
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Transactions");
-        
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        
-        CellStyle dateCellStyle = createDateCellStyle(workbook);
-        
-        CellStyle currencyStyle = createCurrencyStyle(workbook);
-        
-        CellStyle centerStyle = createCenterAlignedStyle(workbook);
-        
-        CellStyle defaultStyle = createDefaultCellStyle(workbook);
-        
-        createHeaderRow(sheet, headerStyle);
-        
-        populateDataRows(sheet, transactions, dateCellStyle, currencyStyle, centerStyle, defaultStyle);
-        
-        autoSizeColumns(sheet, 6);
-        
-        sheet.createFreezePane(0, 1);
-        
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
-        
-        System.out.println("Excel file generated successfully");
-        System.out.println("File size: " + outputStream.size() + " bytes");
-        
-        return outputStream;
+    public TransactionExcelWriter openWriter(OutputStream out) {
+        System.out.println("\n=== STREAMING EXCEL EXPORT STARTED ===");
+        return new TransactionExcelWriter(out);
+    }
+
+    /**
+     * Writes transactions into an .xlsx as they arrive. Backed by SXSSFWorkbook,
+     * so only the last {@link #ROW_WINDOW} rows stay in memory; older rows are
+     * flushed to a compressed temp file and the whole workbook is zipped straight
+     * into the target stream on {@link #finish()}. Column widths are fixed because
+     * auto-sizing has to measure every cell.
+     */
+    public class TransactionExcelWriter implements AutoCloseable {
+
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook;
+        private final CellStyle headerStyle;
+        private final CellStyle dateCellStyle;
+        private final CellStyle currencyStyle;
+        private final CellStyle centerStyle;
+        private final CellStyle defaultStyle;
+
+        private Sheet sheet;
+        private int sheetCount;
+        private int rowNum;
+        private long rowsWritten;
+
+        private TransactionExcelWriter(OutputStream out) {
+            this.out = out;
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            this.workbook.setCompressTempFiles(true);
+            this.headerStyle = createHeaderStyle(workbook);
+            this.dateCellStyle = createDateCellStyle(workbook);
+            this.currencyStyle = createCurrencyStyle(workbook);
+            this.centerStyle = createCenterAlignedStyle(workbook);
+            this.defaultStyle = createDefaultCellStyle(workbook);
+            startSheet();
+        }
+
+        public void append(Transaction transaction) {
+            if (rowNum > MAX_ROWS_PER_SHEET) {
+                startSheet();
+            }
+            populateDataRow(sheet.createRow(rowNum++), transaction,
+                dateCellStyle, currencyStyle, centerStyle, defaultStyle);
+            rowsWritten++;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        public void finish() throws IOException {
+            workbook.write(out);
+            out.flush();
+            System.out.println("Excel export finished: " + rowsWritten + " rows in " + sheetCount + " sheet(s)");
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Removes the temp files backing the flushed rows.
+            workbook.dispose();
+            workbook.close();
+        }
+
+        private void startSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? "Transactions" : "Transactions (" + sheetCount + ")");
+            createHeaderRow(sheet, headerStyle);
+            for (int i = 0; i < COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+            }
+            sheet.createFreezePane(0, 1);
+            rowNum = 1;
+        }
     }
     
     private CellStyle createHeaderStyle(Workbook workbook) {
@@ -145,46 +189,33 @@ public class ExcelGeneratorService {
         headerRow.setHeightInPoints(25);
     }
     
-    private void populateDataRows(Sheet sheet, List<Transaction> transactions, 
-                                  CellStyle dateCellStyle, CellStyle currencyStyle, 
-                                  CellStyle centerStyle, CellStyle defaultStyle) {
-        int rowNum = 1;
-        
-        for (Transaction transaction : transactions) {
-            Row row = sheet.createRow(rowNum++);
-            
-            Cell cell0 = row.createCell(0);
-            cell0.setCellValue(transaction.getSenderAccountNumber());
-            cell0.setCellStyle(defaultStyle);
-            
-            Cell cell1 = row.createCell(1);
-            cell1.setCellValue(transaction.getReceiverAccountNumber());
-            cell1.setCellStyle(defaultStyle);
-            
-            Cell cell2 = row.createCell(2);
-            cell2.setCellValue(transaction.getAmount().doubleValue());
-            cell2.setCellStyle(currencyStyle);
-            
-            Cell cell3 = row.createCell(3);
-            cell3.setCellValue(transaction.getTransactionType());
-            cell3.setCellStyle(centerStyle);
-            
-            Cell cell4 = row.createCell(4);
-            String description = transaction.getDescription();
-            cell4.setCellValue(description != null && !description.trim().isEmpty() ? description : "N/A");
-            cell4.setCellStyle(defaultStyle);
-            
-            Cell cell5 = row.createCell(5);
-            String formattedDate = transaction.getCreatedDate().format(DATE_FORMATTER);
-            cell5.setCellValue(formattedDate);
-            cell5.setCellStyle(dateCellStyle);
-        }
-    }
-    
-    private void autoSizeColumns(Sheet sheet, int numberOfColumns) {
-        for (int i = 0; i < numberOfColumns; i++) {
-            sheet.autoSizeColumn(i);
-            sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 1000);
-        }
+    private void populateDataRow(Row row, Transaction transaction,
+                                 CellStyle dateCellStyle, CellStyle currencyStyle,
+                                 CellStyle centerStyle, CellStyle defaultStyle) {
+        Cell cell0 = row.createCell(0);
+        cell0.setCellValue(transaction.getSenderAccountNumber());
+        cell0.setCellStyle(defaultStyle);
+        
+        Cell cell1 = row.createCell(1);
+        cell1.setCellValue(transaction.getReceiverAccountNumber());
+        cell1.setCellStyle(defaultStyle);
+        
+        Cell cell2 = row.createCell(2);
+        cell2.setCellValue(transaction.getAmount().doubleValue());
+        cell2.setCellStyle(currencyStyle);
+        
+        Cell cell3 = row.createCell(3);
+        cell3.setCellValue(transaction.getTransactionType());
+        cell3.setCellStyle(centerStyle);
+        
+        Cell cell4 = row.createCell(4);
+        String description = transaction.getDescription();
+        cell4.setCellValue(description != null && !description.trim().isEmpty() ? description : "N/A");
+        cell4.setCellStyle(defaultStyle);
+        
+        Cell cell5 = row.createCell(5);
+        String formattedDate = transaction.getCreatedDate().format(DATE_FORMATTER);
+        cell5.setCellValue(formattedDate);
+        cell5.setCellStyle(dateCellStyle);
     }
 }
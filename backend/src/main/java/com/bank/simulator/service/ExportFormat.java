@@ -0,0 +1,47 @@
+package com.bank.simulator.service;
+
+import java.util.List;
+
+public enum ExportFormat {
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() { return mediaType; }
+    public String getExtension() { return extension; }
+
+    /**
+     * Picks the format from an explicit {@code ?format=} value first, then from the
+     * Accept header's media types in order. Returns null when neither names a
+     * known export format.
+     */
+    public static ExportFormat resolve(String formatParam, List<String> acceptedMediaTypes) {
+        if (formatParam != null && !formatParam.trim().isEmpty()) {
+            String wanted = formatParam.trim();
+            for (ExportFormat format : values()) {
+                if (format.extension.equalsIgnoreCase(wanted) || format.name().equalsIgnoreCase(wanted)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + formatParam);
+        }
+        if (acceptedMediaTypes != null) {
+            for (String accepted : acceptedMediaTypes) {
+                for (ExportFormat format : values()) {
+                    if (format.mediaType.equalsIgnoreCase(accepted)) {
+                        return format;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,29 +1,32 @@
 package com.bank.simulator.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public interface NotificationService {
     
     
-    void sendTransactionNotificationToSender(
+    boolean sendTransactionNotificationToSender(
         String senderEmail, 
         String senderName,
         String senderBankName,  
         String senderAccountNumber, 
         String receiverAccountNumber,
         BigDecimal amount,
-        String transactionId
+        String transactionId,
+        LocalDateTime transactionTime
     );
     
     
-    void sendTransactionNotificationToReceiver(
+    boolean sendTransactionNotificationToReceiver(
         String receiverEmail,
         String receiverName,
         String receiverBankName, 
         String receiverAccountNumber, 
         String senderAccountNumber,
         BigDecimal amount,
-        String transactionId
+        String transactionId,
+        LocalDateTime transactionTime
     );
     
     boolean sendNotification(String to, String subject, String body);
@@ -0,0 +1,187 @@
+package com.bank.simulator.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Plain-text ledger exports (CSV and newline-delimited JSON). Column values are
+ * copied from the streamed result set as the driver's text, so a row costs a few
+ * string writes instead of a Transaction object plus a POI cell model.
+ */
+public class TransactionExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] COLUMNS = {
+        "transaction_id", "sender_account_number", "receiver_account_number",
+        "amount", "transaction_type", "description", "created_date"
+    };
+    private static final String[] JSON_FIELDS = {
+        "transactionId", "senderAccountNumber", "receiverAccountNumber",
+        "amount", "transactionType", "description", "createdDate"
+    };
+    private static final int AMOUNT = 3;
+    private static final int CREATED_DATE = 6;
+
+    public RowWriter openWriter(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        switch (format) {
+            case CSV:
+                return new CsvRowWriter(writer);
+            case NDJSON:
+                return new NdjsonRowWriter(writer);
+            default:
+                throw new IllegalArgumentException("Not a text export format: " + format);
+        }
+    }
+
+    /** Drops any fractional seconds the driver appends ("2026-10-17 09:30:00.0"). */
+    private static String toSeconds(String timestamp) {
+        return timestamp != null && timestamp.length() > 19 ? timestamp.substring(0, 19) : timestamp;
+    }
+
+    public abstract static class RowWriter implements TransactionRowSink {
+        protected final Writer writer;
+        private long rows;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void accept(ResultSet row) throws SQLException, IOException {
+            writeRow(row);
+            rows++;
+        }
+
+        protected abstract void writeRow(ResultSet row) throws SQLException, IOException;
+
+        public long getRowsWritten() {
+            return rows;
+        }
+
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    static class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) throws IOException {
+            super(writer);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        protected void writeRow(ResultSet row) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = row.getString(COLUMNS[i]);
+                if (i == CREATED_DATE) {
+                    value = toSeconds(value);
+                } else if (i != AMOUNT) {
+                    value = neutraliseFormula(value);
+                }
+                writeCsvValue(value);
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Spreadsheets evaluate a cell starting with =, +, -, @ (or a tab or CR
+         * before one) as a formula, so a description like "=HYPERLINK(...)" would
+         * run when the export is opened. A leading ' makes it plain text. The
+         * amount column is left alone: a negative number is not a formula.
+         */
+        static String neutraliseFormula(String value) {
+            if (value == null || value.isEmpty()) {
+                return value;
+            }
+            char first = value.charAt(0);
+            boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r';
+            return formula ? "'" + value : value;
+        }
+
+        private void writeCsvValue(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    static class NdjsonRowWriter extends RowWriter {
+
+        NdjsonRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        protected void writeRow(ResultSet row) throws SQLException, IOException {
+            writer.write('{');
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write('"');
+                writer.write(JSON_FIELDS[i]);
+                writer.write("\":");
+
+                String value = row.getString(COLUMNS[i]);
+                if (value == null) {
+                    writer.write("null");
+                } else if (i == AMOUNT) {
+                    writer.write(value);
+                } else if (i == CREATED_DATE) {
+                    // Same shape as the JSON API: yyyy-MM-dd'T'HH:mm:ss
+                    writeJsonString(toSeconds(value).replace(' ', 'T'));
+                } else {
+                    writeJsonString(value);
+                }
+            }
+            writer.write("}\n");
+        }
+
+        private void writeJsonString(String value) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': writer.write("\\\""); break;
+                    case '\\': writer.write("\\\\"); break;
+                    case '\n': writer.write("\\n"); break;
+                    case '\r': writer.write("\\r"); break;
+                    case '\t': writer.write("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            writer.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            writer.write(c);
+                        }
+                }
+            }
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.bank.simulator.service;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Receives the current row of a streamed Transaction result set, for exporters
+ * that copy column values straight to the output without building a
+ * {@link com.bank.simulator.model.Transaction} per row.
+ */
+@FunctionalInterface
+public interface TransactionRowSink {
+    void accept(ResultSet row) throws SQLException, IOException;
+}
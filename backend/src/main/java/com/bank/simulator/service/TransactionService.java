@@ -1,14 +1,53 @@
 package com.bank.simulator.service;
 
+import com.bank.simulator.model.BatchResult;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionPage;
+import com.bank.simulator.model.TransferSnapshot;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface TransactionService {
     
     String createTransaction(Transaction transaction);
+
+    String createTransaction(Transaction transaction, TransferSnapshot snapshot);
+
+    TransferSnapshot loadTransferSnapshot(String senderAccountNumber, String receiverAccountNumber);
+
+    /** The same party details as {@link #loadTransferSnapshot}, for many accounts at once, keyed by account number. */
+    Map<String, TransferSnapshot.Party> loadParties(Collection<String> accountNumbers) throws SQLException;
+
+    /** Applies every pending row of {@code result} as one netted, batched database transaction. */
+    BatchResult createTransactions(List<Transaction> transactions, Map<String, TransferSnapshot.Party> parties,
+                                   BatchResult result);
     
     List<Transaction> getTransactionsByAccountNumber(String accountNumber);
+    String getTransactionsVersion(String accountNumber);
+
+    TransactionPage getStatementPage(String accountNumber, String cursor, int limit);
     
     String generateTransactionId();
     List<Transaction> getAllTransactions();
+
+    ListingPage listTransactions(PageRequest request) throws SQLException;
+
+    boolean hasAnyTransactions();
+
+    String getExportWatermark(String accountNumber) throws SQLException;
+
+    boolean hasTransactionsForAccount(String accountNumber);
+
+    long streamAllTransactions(TransactionSink sink) throws SQLException, IOException;
+
+    long streamTransactionsByAccountNumber(String accountNumber, TransactionSink sink) throws SQLException, IOException;
+
+    long streamAllTransactionRows(TransactionRowSink sink) throws SQLException, IOException;
+
+    long streamTransactionRowsByAccountNumber(String accountNumber, TransactionRowSink sink) throws SQLException, IOException;
 }
\ No newline at end of file
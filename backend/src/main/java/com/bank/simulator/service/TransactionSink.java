@@ -0,0 +1,11 @@
+package com.bank.simulator.service;
+
+import com.bank.simulator.model.Transaction;
+
+import java.io.IOException;
+
+/** Receives transactions one at a time while a result set is being streamed. */
+@FunctionalInterface
+public interface TransactionSink {
+    void accept(Transaction transaction) throws IOException;
+}
@@ -1,6 +1,9 @@
 package com.bank.simulator.service;
 
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
 import com.bank.simulator.model.User;
+import java.sql.SQLException;
 
 public interface UserService {
     
@@ -11,4 +14,5 @@ public interface UserService {
     String generateUserId();
     boolean updateUserStatus(String email, boolean active);
     User getUserById(String userId);
+    ListingPage listUsers(PageRequest request) throws SQLException;
 }
@@ -0,0 +1,157 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.model.Account;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of the rarely-changing part of an account (ids, customer
+ * link, IFSC, bank, name, status), keyed by account number. Entries expire
+ * after {@code account.cache.ttl.ms}, which also bounds how long another
+ * instance's update can go unnoticed; writes on this instance invalidate
+ * explicitly.
+ *
+ * <p>The balance is never cached: entries are stored without an amount and
+ * callers re-read it from the database on every hit.
+ */
+public class AccountCache {
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final LongSupplier clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private static class Entry {
+        private final Account account;
+        private final long expiresAt;
+
+        Entry(Account account, long expiresAt) {
+            this.account = account;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public AccountCache() {
+        this(AppConfig.getInt("account.cache.max.entries", 10_000),
+             AppConfig.getLong("account.cache.ttl.ms", 60_000),
+             System::currentTimeMillis);
+    }
+
+    AccountCache(int maxEntries, long ttlMs, LongSupplier clock) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > AccountCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** A copy of the cached account without its balance, or null on a miss. */
+    public Account get(String accountNumber) {
+        synchronized (entries) {
+            Entry entry = entries.get(accountNumber);
+            if (entry != null && entry.expiresAt <= clock.getAsLong()) {
+                entries.remove(accountNumber);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return copyWithoutBalance(entry.account);
+        }
+    }
+
+    public void put(Account account) {
+        if (account == null || account.getAccountNumber() == null) {
+            return;
+        }
+        Entry entry = new Entry(copyWithoutBalance(account), clock.getAsLong() + ttlMs);
+        synchronized (entries) {
+            entries.put(account.getAccountNumber(), entry);
+        }
+    }
+
+    public void invalidate(String accountNumber) {
+        if (accountNumber == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(accountNumber) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /** Drops the entry for an account id, whatever number it is cached under (the number itself can change). */
+    public void invalidateAccountId(String accountId) {
+        if (accountId == null) {
+            return;
+        }
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (accountId.equals(iterator.next().account.getAccountId())) {
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 1000.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private static Account copyWithoutBalance(Account source) {
+        return new Account(source.getAccountId(), source.getCustomerId(), source.getAccountNumber(),
+            source.getAadharNumber(), source.getIfscCode(), source.getPhoneNumberLinked(), null,
+            source.getBankName(), source.getNameOnAccount(), source.getStatus(),
+            source.getCreated(), source.getModified());
+    }
+}
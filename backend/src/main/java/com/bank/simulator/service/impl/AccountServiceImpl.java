@@ -2,46 +2,72 @@ package com.bank.simulator.service.impl;
 
 import com.bank.simulator.config.DBConfig;
 import com.bank.simulator.model.Account;
+import com.bank.simulator.model.BatchResult;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
 import com.bank.simulator.service.AccountService;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 
 
 public class AccountServiceImpl implements AccountService {
-    private static final AtomicInteger accountCounter;
-    
-    static {
-        accountCounter = new AtomicInteger(getMaxAccountIdFromDB() + 1);
-        System.out.println("=== ACCOUNT SERVICE INITIALIZED ===");
-        System.out.println("Starting account counter at: " + accountCounter.get());
+
+    /** Same fields the legacy /account/all returned; internal ids stay hidden. */
+    static final KeysetListing LISTING = new KeysetListing("Account", "account_id")
+        .field("accountNumber", "account_number", KeysetListing.Type.STRING)
+        .field("aadharNumber", "aadhar_number", KeysetListing.Type.STRING)
+        .field("ifscCode", "ifsc_code", KeysetListing.Type.STRING)
+        .field("phoneNumberLinked", "phone_number_linked", KeysetListing.Type.STRING)
+        .field("amount", "amount", KeysetListing.Type.DECIMAL)
+        .field("bankName", "bank_name", KeysetListing.Type.STRING)
+        .field("nameOnAccount", "name_on_account", KeysetListing.Type.STRING)
+        .field("status", "status", KeysetListing.Type.STRING)
+        .field("created", "created", KeysetListing.Type.TIMESTAMP)
+        .field("modified", "modified", KeysetListing.Type.TIMESTAMP)
+        .sortable("created")
+        .sortable("accountNumber")
+        .defaultSort("-created");
+
+    private static final String INSERT_ACCOUNT = """
+            INSERT INTO Account (account_id, customer_id, account_number, aadhar_number, 
+                               ifsc_code, phone_number_linked, amount, bank_name, 
+                               name_on_account, status) 
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final IdAllocator idAllocator;
+    private final AccountCache accountCache;
+    private final UniquenessIndex uniquenessIndex;
+    private final LedgerEngine ledger;
+
+    public AccountServiceImpl() {
+        this(new IdAllocator());
     }
-    
-   
-    private static int getMaxAccountIdFromDB() {
-        String query = "SELECT MAX(CAST(SUBSTRING(account_id, 5) AS UNSIGNED)) as max_id FROM Account";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                int maxId = rs.getInt("max_id");
-                System.out.println(" Loaded max account ID from database: " + maxId);
-                return maxId;
-            }
-        } catch (SQLException e) {
-            System.err.println("Warning: Could not load max account ID from database");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Starting counter from 0 (first ID will be ACC_1)");
-        }
-        
-        return 0;
+
+    public AccountServiceImpl(IdAllocator idAllocator) {
+        this(idAllocator, new AccountCache());
+    }
+
+    public AccountServiceImpl(IdAllocator idAllocator, AccountCache accountCache) {
+        this(idAllocator, accountCache, new UniquenessIndex());
+    }
+
+    public AccountServiceImpl(IdAllocator idAllocator, AccountCache accountCache, UniquenessIndex uniquenessIndex) {
+        this(idAllocator, accountCache, uniquenessIndex, new LedgerEngine());
+    }
+
+    public AccountServiceImpl(IdAllocator idAllocator, AccountCache accountCache, UniquenessIndex uniquenessIndex,
+                              LedgerEngine ledger) {
+        this.idAllocator = idAllocator;
+        this.accountCache = accountCache;
+        this.uniquenessIndex = uniquenessIndex;
+        this.ledger = ledger;
     }
 
     @Override
@@ -80,28 +106,14 @@ public class AccountServiceImpl implements AccountService {
             return "ACCOUNT_NUMBER_EXISTS";
         }
         
-        String query = """
-            INSERT INTO Account (account_id, customer_id, account_number, aadhar_number, 
-                               ifsc_code, phone_number_linked, amount, bank_name, 
-                               name_on_account, status) 
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-        """;
-        
+        uniquenessIndex.add(UniquenessIndex.Key.ACCOUNT_NUMBER, account.getAccountNumber());
+
         try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_ACCOUNT)) {
             
             System.out.println("=== INSERTING ACCOUNT RECORD ===");
             
-            stmt.setString(1, account.getAccountId());
-            stmt.setString(2, account.getCustomerId());
-            stmt.setString(3, account.getAccountNumber());
-            stmt.setString(4, account.getAadharNumber());
-            stmt.setString(5, account.getIfscCode());
-            stmt.setString(6, account.getPhoneNumberLinked());
-            stmt.setBigDecimal(7, account.getAmount());
-            stmt.setString(8, account.getBankName());
-            stmt.setString(9, account.getNameOnAccount());
-            stmt.setString(10, account.getStatus());
+            bindInsert(stmt, account);
             
             int result = stmt.executeUpdate();
             
@@ -135,6 +147,76 @@ public class AccountServiceImpl implements AccountService {
         }
     }
 
+    /**
+     * Creates every row of {@code result} not already rejected. Customers are
+     * linked by Aadhar and account numbers checked for the whole batch with IN
+     * queries, then the rows are inserted with JDBC batching.
+     */
+    @Override
+    public BatchResult createAccounts(List<Account> accounts, BatchResult result) {
+        long started = System.nanoTime();
+
+        try (Connection conn = DBConfig.getConnection()) {
+            linkCustomers(conn, accounts, result);
+            OnboardingBatch.rejectDuplicates(conn, accounts, result, Account::getAccountNumber,
+                "Account", "account_number", uniquenessIndex, UniquenessIndex.Key.ACCOUNT_NUMBER,
+                "ACCOUNT_NUMBER_EXISTS", "Account number");
+
+            if (result.isAtomic() && result.hasFailures()) {
+                result.skipPending();
+            } else {
+                for (int index : result.pendingIndexes()) {
+                    Account account = accounts.get(index);
+                    account.setAccountId(generateAccountId());
+                    uniquenessIndex.add(UniquenessIndex.Key.ACCOUNT_NUMBER, account.getAccountNumber());
+                }
+                OnboardingBatch.insertPending(conn, INSERT_ACCOUNT, accounts, result,
+                    Account::getAccountId, AccountServiceImpl::bindInsert);
+            }
+        } catch (SQLException e) {
+            System.err.println("Database error during account batch: " + e.getMessage());
+            result.rejectPending("DB_ERROR", "Database error: " + e.getMessage());
+        }
+
+        System.out.println("Account batch: " + result.getTotal() + " rows, " + result.getCreated() + " created, "
+            + result.getFailed() + " failed, " + result.getSkipped() + " skipped ("
+            + (System.nanoTime() - started) / 1_000_000 + " ms)");
+        return result;
+    }
+
+    /** Batch form of findAndLinkCustomerByAadhar + getCustomerPhoneByCustomerId. */
+    private static void linkCustomers(Connection conn, List<Account> accounts, BatchResult result) throws SQLException {
+        Map<String, List<Integer>> byAadhar = OnboardingBatch.pendingByValue(accounts, result, Account::getAadharNumber);
+        OnboardingBatch.selectIn(conn, "SELECT aadhar_number, customer_id, phone_number FROM Customer WHERE aadhar_number",
+            new ArrayList<>(byAadhar.keySet()), rs -> {
+                List<Integer> indexes = byAadhar.remove(UniquenessIndex.normalize(rs.getString("aadhar_number")));
+                if (indexes != null) {
+                    for (int index : indexes) {
+                        accounts.get(index).setCustomerId(rs.getString("customer_id"));
+                        accounts.get(index).setPhoneNumberLinked(rs.getString("phone_number"));
+                    }
+                }
+            });
+        for (List<Integer> unmatched : byAadhar.values()) {
+            for (int index : unmatched) {
+                result.reject(index, "AADHAR_NOT_FOUND", "Aadhar number is not linked with any customer");
+            }
+        }
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Account account) throws SQLException {
+        stmt.setString(1, account.getAccountId());
+        stmt.setString(2, account.getCustomerId());
+        stmt.setString(3, account.getAccountNumber());
+        stmt.setString(4, account.getAadharNumber());
+        stmt.setString(5, account.getIfscCode());
+        stmt.setString(6, account.getPhoneNumberLinked());
+        stmt.setBigDecimal(7, account.getAmount());
+        stmt.setString(8, account.getBankName());
+        stmt.setString(9, account.getNameOnAccount());
+        stmt.setString(10, account.getStatus());
+    }
+
     private String findAndLinkCustomerByAadhar(String aadharNumber) {
         String query = "SELECT customer_id FROM Customer WHERE aadhar_number = ?";
         
@@ -264,8 +346,93 @@ public class AccountServiceImpl implements AccountService {
         return null;
     }
 
+    /**
+     * Read-through on {@link AccountCache}. A hit still reads the balance (and
+     * modified time, which every balance change bumps) by primary key, so money
+     * is always current; if that row is gone the entry is dropped and the full
+     * lookup decides.
+     */
     @Override
     public Account getAccountByAccountNumber(String accountNumber) {
+        Account cached = accountCache.get(accountNumber);
+        if (cached != null) {
+            if (loadBalance(cached)) {
+                cached.setAmount(currentBalance(cached.getAccountId(), cached.getAmount()));
+                return cached;
+            }
+            accountCache.invalidate(accountNumber);
+        }
+
+        Account account = loadAccountByAccountNumber(accountNumber);
+        accountCache.put(account);
+        if (account != null) {
+            account.setAmount(currentBalance(account.getAccountId(), account.getAmount()));
+        }
+        return account;
+    }
+
+    /**
+     * While the in-memory ledger is on, its balance is the current one and the
+     * stored amount trails it by the persist lag, so reads report the ledger's.
+     */
+    private BigDecimal currentBalance(String accountId, BigDecimal stored) {
+        if (!ledger.isEnabled()) {
+            return stored;
+        }
+        BigDecimal live = ledger.getBalance(accountId);
+        return live != null ? live : stored;
+    }
+
+    /**
+     * Cheap version of the account for conditional GETs: one indexed row read
+     * of the balance and the modified time, which changes on every update,
+     * plus the ledger's balance while it is on, since that is what the GET
+     * reports. Null when the account does not exist or cannot be read.
+     */
+    @Override
+    public String getAccountVersion(String accountNumber) {
+        String query = "SELECT account_id, amount, modified FROM Account WHERE account_number = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    String accountId = rs.getString("account_id");
+                    BigDecimal stored = rs.getBigDecimal("amount");
+                    return accountId + "|" + stored.toPlainString() + "|" + rs.getTimestamp("modified")
+                        + "|" + currentBalance(accountId, stored).toPlainString();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading version of account: " + accountNumber + " - " + e.getMessage());
+        }
+        return null;
+    }
+
+    private boolean loadBalance(Account account) {
+        String query = "SELECT amount, modified FROM Account WHERE account_id = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, account.getAccountId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    account.setAmount(rs.getBigDecimal("amount"));
+                    account.setModified(rs.getTimestamp("modified").toLocalDateTime());
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading balance for account: " + account.getAccountId());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    private Account loadAccountByAccountNumber(String accountNumber) {
         String query = """
             SELECT a.*, c.phone_number as customer_phone 
             FROM Account a 
@@ -326,11 +493,18 @@ public class AccountServiceImpl implements AccountService {
         System.out.println("Auto-linked Customer ID: " + customerId);
         System.out.println("Auto-linked Phone Number: " + customerPhone);
         
+        // Drop the cached entry before and after: a lookup racing the write may
+        // re-cache the old row in between.
+        accountCache.invalidateAccountId(accountId);
+        uniquenessIndex.add(UniquenessIndex.Key.ACCOUNT_NUMBER, account.getAccountNumber());
+
+        // While the in-memory ledger is on it owns balances, so the amount column is left to it.
+        boolean writeAmount = !ledger.isEnabled();
         String query = """
             UPDATE Account SET account_number = ?, aadhar_number = ?, ifsc_code = ?, phone_number_linked = ?, 
-                             amount = ?, bank_name = ?, name_on_account = ?, status = ? 
+                             %s bank_name = ?, name_on_account = ?, status = ? 
             WHERE account_id = ?
-        """;
+        """.formatted(writeAmount ? "amount = ?," : "");
         
         try (Connection conn = DBConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -342,13 +516,17 @@ public class AccountServiceImpl implements AccountService {
             stmt.setString(2, account.getAadharNumber());
             stmt.setString(3, account.getIfscCode());
             stmt.setString(4, account.getPhoneNumberLinked());
-            stmt.setBigDecimal(5, account.getAmount());
-            stmt.setString(6, account.getBankName());
-            stmt.setString(7, account.getNameOnAccount());
-            stmt.setString(8, account.getStatus());
-            stmt.setString(9, accountId);
+            int index = 5;
+            if (writeAmount) {
+                stmt.setBigDecimal(index++, account.getAmount());
+            }
+            stmt.setString(index++, account.getBankName());
+            stmt.setString(index++, account.getNameOnAccount());
+            stmt.setString(index++, account.getStatus());
+            stmt.setString(index, accountId);
             
             int result = stmt.executeUpdate();
+            accountCache.invalidateAccountId(accountId);
             
             if (result > 0) {
                 System.out.println("\n");
@@ -431,6 +609,8 @@ public class AccountServiceImpl implements AccountService {
                     
                     if (result > 0) {
                         conn.commit();
+                        accountCache.invalidateAccountId(accountId);
+                        ledger.forgetAccount(accountId);
                         System.out.println("\n");
                         System.out.println("=== ACCOUNT DELETED SUCCESSFULLY ===");
                         System.out.println("Account ID: " + accountId);
@@ -480,6 +660,9 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public boolean isAccountNumberExists(String accountNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.ACCOUNT_NUMBER, accountNumber)) {
+            return false;
+        }
         String query = "SELECT COUNT(*) FROM Account WHERE account_number = ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -511,7 +694,7 @@ public class AccountServiceImpl implements AccountService {
 
     @Override
     public String generateAccountId() {
-        return "ACC_" + accountCounter.getAndIncrement();
+        return "ACC_" + idAllocator.next(IdAllocator.ACCOUNT);
     }
 
     @Override
@@ -537,7 +720,7 @@ public List<Account> getAllAccounts() {
             account.setAadharNumber(rs.getString("aadhar_number"));
             account.setIfscCode(rs.getString("ifsc_code"));
             account.setPhoneNumberLinked(rs.getString("phone_number_linked"));
-            account.setAmount(rs.getBigDecimal("amount"));
+            account.setAmount(currentBalance(account.getAccountId(), rs.getBigDecimal("amount")));
             account.setBankName(rs.getString("bank_name"));
             account.setNameOnAccount(rs.getString("name_on_account"));
             account.setStatus(rs.getString("status"));
@@ -557,4 +740,15 @@ public List<Account> getAllAccounts() {
     }
 }
 
+    @Override
+    public ListingPage listAccounts(PageRequest request) throws SQLException {
+        if (!ledger.isEnabled()) {
+            return LISTING.fetch(DBConfig::getConnection, request);
+        }
+        return LISTING.fetch(DBConfig::getConnection, request, (accountId, item) -> {
+            if (item.get("amount") instanceof BigDecimal stored) {
+                item.put("amount", currentBalance(accountId, stored));
+            }
+        });
+    }
 }
@@ -1,7 +1,10 @@
 package com.bank.simulator.service.impl;
 
 import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.BatchResult;
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
 import com.bank.simulator.service.CustomerService;
 
 import java.sql.*;
@@ -10,26 +13,50 @@ import java.util.List;
 
 public class CustomerServiceImpl implements CustomerService {
 
+    /** Same fields the legacy /customer/all returned; the id and PIN stay hidden. */
+    static final KeysetListing LISTING = new KeysetListing("Customer", "customer_id")
+        .field("name", "name", KeysetListing.Type.STRING)
+        .field("phoneNumber", "phone_number", KeysetListing.Type.STRING)
+        .field("email", "email", KeysetListing.Type.STRING)
+        .field("address", "address", KeysetListing.Type.STRING)
+        .field("aadharNumber", "aadhar_number", KeysetListing.Type.STRING)
+        .field("dob", "dob", KeysetListing.Type.DATE)
+        .field("status", "status", KeysetListing.Type.STRING)
+        .sortable("email")
+        .sortable("phoneNumber")
+        .sortable("aadharNumber")
+        .defaultSort("email");
+
+    private static final String INSERT_CUSTOMER = "INSERT INTO Customer (customer_id, name, phone_number, email, address, " +
+                      "customer_pin, aadhar_number, dob, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final IdAllocator idAllocator;
+    private final UniquenessIndex uniquenessIndex;
+
+    public CustomerServiceImpl() {
+        this(new IdAllocator());
+    }
+
+    public CustomerServiceImpl(IdAllocator idAllocator) {
+        this(idAllocator, new UniquenessIndex());
+    }
+
+    public CustomerServiceImpl(IdAllocator idAllocator, UniquenessIndex uniquenessIndex) {
+        this.idAllocator = idAllocator;
+        this.uniquenessIndex = uniquenessIndex;
+    }
+
     @Override
     public String createCustomer(Customer customer) {
         String customerId = generateCustomerId();
         customer.setCustomerId(customerId);
 
-        String query = "INSERT INTO Customer (customer_id, name, phone_number, email, address, " +
-                      "customer_pin, aadhar_number, dob, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        recordUniqueValues(customer);
 
         try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(INSERT_CUSTOMER)) {
 
-            stmt.setString(1, customer.getCustomerId());
-            stmt.setString(2, customer.getName());
-            stmt.setString(3, customer.getPhoneNumber());
-            stmt.setString(4, customer.getEmail());
-            stmt.setString(5, customer.getAddress());
-            stmt.setString(6, customer.getCustomerPin());
-            stmt.setString(7, customer.getAadharNumber());
-            stmt.setDate(8, Date.valueOf(customer.getDob()));
-            stmt.setString(9, customer.getStatus());
+            bindInsert(stmt, customer);
 
             int result = stmt.executeUpdate();
 
@@ -56,42 +83,65 @@ public class CustomerServiceImpl implements CustomerService {
         }
     }
 
+    /**
+     * Creates every row of {@code result} not already rejected. Uniqueness is
+     * checked for the whole batch with one IN query per column, then the rows
+     * are inserted with JDBC batching.
+     */
     @Override
-    public String generateCustomerId() {
-        String query = "SELECT customer_id FROM Customer " +
-                      "WHERE customer_id LIKE 'CUST_%' " +
-                      "ORDER BY CAST(SUBSTRING(customer_id, 6) AS UNSIGNED) DESC " +
-                      "LIMIT 1";
-
-        try (Connection conn = DBConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            if (rs.next()) {
-                String lastId = rs.getString("customer_id");
-                System.out.println("Last customer ID in database: " + lastId);
-
-                String numberPart = lastId.substring(5);
-                int lastNumber = Integer.parseInt(numberPart);
-                int nextNumber = lastNumber + 1;
-
-                String newId = "CUST_" + nextNumber;
-                System.out.println("Generated new customer ID: " + newId);
-                return newId;
-
+    public BatchResult createCustomers(List<Customer> customers, BatchResult result) {
+        long started = System.nanoTime();
+
+        try (Connection conn = DBConfig.getConnection()) {
+            OnboardingBatch.rejectDuplicates(conn, customers, result, Customer::getPhoneNumber,
+                "Customer", "phone_number", uniquenessIndex, UniquenessIndex.Key.CUSTOMER_PHONE,
+                "PHONE_EXISTS", "Phone number");
+            OnboardingBatch.rejectDuplicates(conn, customers, result, Customer::getEmail,
+                "Customer", "email", uniquenessIndex, null,
+                "EMAIL_EXISTS", "Email");
+            OnboardingBatch.rejectDuplicates(conn, customers, result, Customer::getAadharNumber,
+                "Customer", "aadhar_number", uniquenessIndex, UniquenessIndex.Key.CUSTOMER_AADHAR,
+                "AADHAR_EXISTS", "Aadhar number");
+
+            if (result.isAtomic() && result.hasFailures()) {
+                result.skipPending();
             } else {
-                System.out.println("No existing customers found. Starting with CUST_1");
-                return "CUST_1";
+                for (int index : result.pendingIndexes()) {
+                    Customer customer = customers.get(index);
+                    customer.setCustomerId("CUST_" + idAllocator.next(IdAllocator.CUSTOMER));
+                    recordUniqueValues(customer);
+                }
+                OnboardingBatch.insertPending(conn, INSERT_CUSTOMER, customers, result,
+                    Customer::getCustomerId, CustomerServiceImpl::bindInsert);
             }
-
         } catch (SQLException e) {
-            System.err.println("Error generating customer ID: " + e.getMessage());
-            e.printStackTrace();
-            long timestamp = System.currentTimeMillis();
-            String fallbackId = "CUST_" + timestamp;
-            System.err.println("Using fallback ID: " + fallbackId);
-            return fallbackId;
+            System.err.println("Database error during customer batch: " + e.getMessage());
+            result.rejectPending("DB_ERROR", "Database error: " + e.getMessage());
         }
+
+        System.out.println("Customer batch: " + result.getTotal() + " rows, " + result.getCreated() + " created, "
+            + result.getFailed() + " failed, " + result.getSkipped() + " skipped ("
+            + (System.nanoTime() - started) / 1_000_000 + " ms)");
+        return result;
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Customer customer) throws SQLException {
+        stmt.setString(1, customer.getCustomerId());
+        stmt.setString(2, customer.getName());
+        stmt.setString(3, customer.getPhoneNumber());
+        stmt.setString(4, customer.getEmail());
+        stmt.setString(5, customer.getAddress());
+        stmt.setString(6, customer.getCustomerPin());
+        stmt.setString(7, customer.getAadharNumber());
+        stmt.setDate(8, Date.valueOf(customer.getDob()));
+        stmt.setString(9, customer.getStatus());
+    }
+
+    @Override
+    public String generateCustomerId() {
+        String newId = "CUST_" + idAllocator.next(IdAllocator.CUSTOMER);
+        System.out.println("Generated new customer ID: " + newId);
+        return newId;
     }
 
     @Override
@@ -190,10 +240,38 @@ public class CustomerServiceImpl implements CustomerService {
         return null;
     }
 
+    /** Must run before the INSERT/UPDATE so a concurrent check never misses the row. */
+    private void recordUniqueValues(Customer customer) {
+        uniquenessIndex.add(UniquenessIndex.Key.CUSTOMER_PHONE, customer.getPhoneNumber());
+        uniquenessIndex.add(UniquenessIndex.Key.CUSTOMER_AADHAR, customer.getAadharNumber());
+    }
+
+    /** The customer's id and update counter, or null when there is no such customer. */
+    @Override
+    public String getCustomerVersion(String aadharNumber) {
+        String query = "SELECT customer_id, version FROM Customer WHERE aadhar_number = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, aadharNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("customer_id") + "|" + rs.getLong("version");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading customer version: " + e.getMessage());
+        }
+        return null;
+    }
+
     @Override
     public boolean updateCustomer(String customerId, Customer customer) {
+        recordUniqueValues(customer);
+
         String query = "UPDATE Customer SET name = ?, phone_number = ?, email = ?, " +
-                      "address = ?, customer_pin = ?, aadhar_number = ?, dob = ?, status = ? " +
+                      "address = ?, customer_pin = ?, aadhar_number = ?, dob = ?, status = ?, version = version + 1 " +
                       "WHERE customer_id = ?";
 
         try (Connection conn = DBConfig.getConnection();
@@ -313,8 +391,16 @@ public class CustomerServiceImpl implements CustomerService {
         return customers;
     }
 
+    @Override
+    public ListingPage listCustomers(PageRequest request) throws SQLException {
+        return LISTING.fetch(DBConfig::getConnection, request);
+    }
+
     @Override
     public boolean isPhoneNumberExists(String phoneNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, phoneNumber)) {
+            return false;
+        }
         String query = "SELECT COUNT(*) FROM Customer WHERE phone_number = ?";
 
         try (Connection conn = DBConfig.getConnection();
@@ -359,6 +445,9 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public boolean isAadharNumberExists(String aadharNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.CUSTOMER_AADHAR, aadharNumber)) {
+            return false;
+        }
         String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ?";
 
         try (Connection conn = DBConfig.getConnection();
@@ -388,7 +477,7 @@ public class CustomerServiceImpl implements CustomerService {
     public boolean isCustomerExistsByEmail(String email) {
         System.out.println("\n=== CHECKING CUSTOMER EXISTS BY EMAIL ===");
         System.out.println("Email: " + email);
-        
+
         String query = "SELECT COUNT(*) FROM Customer WHERE email = ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -0,0 +1,247 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.model.ExportJob;
+import com.bank.simulator.service.ExcelGeneratorService;
+import com.bank.simulator.service.ExportFormat;
+import com.bank.simulator.service.TransactionExportService;
+import com.bank.simulator.service.TransactionService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background transaction exports. A bounded worker pool writes each export to a
+ * file under {@code export.jobs.dir}; finished files are cached under
+ * (account, format, watermark of the account rows), so asking again before any
+ * transaction is added or deleted returns the existing artifact instead of rescanning the
+ * ledger. Artifacts expire after {@code export.jobs.retention.ms}.
+ */
+public class ExportJobService {
+
+    private final TransactionService transactionService;
+    private final ExcelGeneratorService excelService;
+    private final TransactionExportService textExportService;
+    private final Path directory;
+    private final int workers;
+    private final int queueCapacity;
+    private final long retentionMs;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    public ExportJobService(TransactionService transactionService, ExcelGeneratorService excelService,
+                            TransactionExportService textExportService) {
+        this(transactionService, excelService, textExportService,
+             Paths.get(AppConfig.get("export.jobs.dir",
+                 Paths.get(System.getProperty("java.io.tmpdir"), "bank-simulator-exports").toString())),
+             AppConfig.getInt("export.jobs.workers", 2),
+             AppConfig.getInt("export.jobs.queue.capacity", 20),
+             AppConfig.getLong("export.jobs.retention.ms", 3_600_000));
+    }
+
+    public ExportJobService(TransactionService transactionService, ExcelGeneratorService excelService,
+                            TransactionExportService textExportService, Path directory,
+                            int workers, int queueCapacity, long retentionMs) {
+        this.transactionService = transactionService;
+        this.excelService = excelService;
+        this.textExportService = textExportService;
+        this.directory = directory;
+        this.workers = Math.max(1, workers);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.retentionMs = retentionMs;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            System.err.println("Could not create export directory " + directory + ": " + e.getMessage());
+        }
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "export-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "export-cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, retentionMs / 4);
+        cleaner.scheduleWithFixedDelay(this::removeExpired, period, period, TimeUnit.MILLISECONDS);
+        System.out.println("✓ Export job workers started (" + workers + " workers, dir " + directory + ")");
+    }
+
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        cleaner = null;
+        System.out.println("Export job workers stopped.");
+    }
+
+    /**
+     * Returns the cached or in-flight job for the current ledger state, or queues
+     * a new one. Throws RejectedExecutionException when the queue is full.
+     */
+    public ExportJob submit(String accountNumber, ExportFormat format) throws SQLException {
+        String watermark = transactionService.getExportWatermark(accountNumber);
+        String key = cacheKey(accountNumber, format, watermark);
+
+        ExportJob job = new ExportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setAccountNumber(accountNumber);
+        job.setFormat(format.name());
+        job.setWatermark(watermark);
+        job.setCacheKey(key);
+
+        ExportJob winner = jobsByKey.compute(key, (k, current) ->
+            current != null && !ExportJob.STATUS_FAILED.equals(current.getStatus()) ? current : job);
+        if (winner != job) {
+            System.out.println("Export " + key + " served from job " + winner.getJobId() + " (" + winner.getStatus() + ")");
+            return winner;
+        }
+
+        jobs.put(job.getJobId(), job);
+        try {
+            ThreadPoolExecutor pool = executor;
+            if (pool == null) {
+                throw new RejectedExecutionException("Export workers are not running");
+            }
+            pool.execute(() -> run(job, format));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            jobsByKey.remove(key, job);
+            throw e;
+        }
+        System.out.println("Export job " + job.getJobId() + " queued for " + key);
+        return job;
+    }
+
+    public ExportJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /** A finished artifact matching the ledger as it is right now, if one is cached. */
+    public ExportJob findReady(String accountNumber, ExportFormat format) throws SQLException {
+        String watermark = transactionService.getExportWatermark(accountNumber);
+        ExportJob job = jobsByKey.get(cacheKey(accountNumber, format, watermark));
+        return job != null && job.isReady() && Files.exists(job.getFile()) ? job : null;
+    }
+
+    /** Writes one export straight to {@code out}; returns the number of rows. */
+    public long writeExport(ExportFormat format, String accountNumber, OutputStream out) throws IOException, SQLException {
+        if (format == ExportFormat.XLSX) {
+            try (ExcelGeneratorService.TransactionExcelWriter writer = excelService.openWriter(out)) {
+                if (accountNumber == null) {
+                    transactionService.streamAllTransactions(writer::append);
+                } else {
+                    transactionService.streamTransactionsByAccountNumber(accountNumber, writer::append);
+                }
+                writer.finish();
+                return writer.getRowsWritten();
+            }
+        }
+
+        TransactionExportService.RowWriter writer = textExportService.openWriter(format, out);
+        if (accountNumber == null) {
+            transactionService.streamAllTransactionRows(writer);
+        } else {
+            transactionService.streamTransactionRowsByAccountNumber(accountNumber, writer);
+        }
+        writer.finish();
+        System.out.println(format + " export finished: " + writer.getRowsWritten() + " rows");
+        return writer.getRowsWritten();
+    }
+
+    private void run(ExportJob job, ExportFormat format) {
+        job.setStatus(ExportJob.STATUS_RUNNING);
+        Path partial = directory.resolve(job.getJobId() + ".part");
+        Path target = directory.resolve(job.getJobId() + "." + format.getExtension());
+        try {
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                rows = writeExport(format, job.getAccountNumber(), out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setFile(target);
+            job.setRowCount(rows);
+            job.setSizeBytes(Files.size(target));
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(ExportJob.STATUS_READY);
+            System.out.println("Export job " + job.getJobId() + " ready: " + rows + " rows, " + job.getSizeBytes() + " bytes");
+
+        } catch (Exception e) {
+            System.err.println("Export job " + job.getJobId() + " failed: " + e.getMessage());
+            deleteQuietly(partial);
+            job.setError(e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            job.setStatus(ExportJob.STATUS_FAILED);
+            jobsByKey.remove(job.getCacheKey(), job);
+        }
+    }
+
+    void removeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(retentionMs));
+        for (ExportJob job : jobs.values()) {
+            if (job.isFinished() && job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff)) {
+                discard(job);
+            }
+        }
+    }
+
+    private void discard(ExportJob job) {
+        jobs.remove(job.getJobId());
+        jobsByKey.remove(job.getCacheKey(), job);
+        if (job.getFile() != null) {
+            deleteQuietly(job.getFile());
+        }
+    }
+
+    private static String cacheKey(String accountNumber, ExportFormat format, String watermark) {
+        return (accountNumber == null ? "ALL" : accountNumber) + "|" + format.name() + "|"
+            + (watermark == null ? "EMPTY" : watermark);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.config.ConnectionPool;
+import com.bank.simulator.config.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hi/lo id allocation backed by the IdSequence table. Each instance reserves a
+ * block of numbers per sequence with one short row-locked transaction and then
+ * hands them out from memory, so creating a row never scans the target table and
+ * several nodes can allocate from the same sequence without overlapping.
+ *
+ * <p>A sequence row is seeded on first use from the highest number already present
+ * in its table, so ids continue where the old MAX()-based counters left off.
+ */
+public class IdAllocator {
+
+    public static final String ACCOUNT = "ACCOUNT";
+    public static final String CUSTOMER = "CUSTOMER";
+    public static final String USER = "USER";
+
+    private static final Map<String, String> SEED_QUERIES = Map.of(
+        ACCOUNT, "SELECT MAX(CAST(SUBSTRING(account_id, 5) AS UNSIGNED)) FROM Account WHERE account_id LIKE 'ACC\\_%'",
+        CUSTOMER, "SELECT MAX(CAST(SUBSTRING(customer_id, 6) AS UNSIGNED)) FROM Customer WHERE customer_id LIKE 'CUST\\_%'",
+        USER, "SELECT MAX(CAST(SUBSTRING(id, 6) AS UNSIGNED)) FROM User WHERE id LIKE 'USER\\_%'"
+    );
+
+    /** Reserves {@code size} consecutive values of a sequence and returns the first one. */
+    interface BlockSource {
+        long reserve(String sequence, int size) throws SQLException;
+    }
+
+    private final BlockSource blockSource;
+    private final int blockSize;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public IdAllocator() {
+        this(new DatabaseBlockSource(DBConfig::getConnection), AppConfig.getInt("id.allocator.block.size", 50));
+    }
+
+    IdAllocator(BlockSource blockSource, int blockSize) {
+        this.blockSource = blockSource;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public long next(String sequenceName) {
+        Sequence sequence = sequences.computeIfAbsent(sequenceName, name -> new Sequence());
+        while (true) {
+            Block block = sequence.block;
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+            }
+            // A lock rather than synchronized: the reservation is a database round
+            // trip, and a virtual thread blocked inside a monitor pins its carrier.
+            sequence.lock.lock();
+            try {
+                if (sequence.block == block) {
+                    sequence.block = reserveBlock(sequenceName);
+                }
+            } finally {
+                sequence.lock.unlock();
+            }
+        }
+    }
+
+    private Block reserveBlock(String sequenceName) {
+        try {
+            long start = blockSource.reserve(sequenceName, blockSize);
+            System.out.println("Reserved " + sequenceName + " ids " + start + ".." + (start + blockSize - 1));
+            return new Block(start, start + blockSize);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not reserve " + sequenceName + " ids: " + e.getMessage(), e);
+        }
+    }
+
+    private static class Sequence {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Block block;
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+
+    static class DatabaseBlockSource implements BlockSource {
+
+        private final ConnectionPool.ConnectionFactory connections;
+
+        DatabaseBlockSource(ConnectionPool.ConnectionFactory connections) {
+            this.connections = connections;
+        }
+
+        @Override
+        public long reserve(String sequence, int size) throws SQLException {
+            try (Connection conn = connections.create()) {
+                conn.setAutoCommit(false);
+                try {
+                    Long next = lockNextValue(conn, sequence);
+                    if (next == null) {
+                        seed(conn, sequence);
+                        next = lockNextValue(conn, sequence);
+                    }
+
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "UPDATE IdSequence SET next_value = next_value + ? WHERE name = ?")) {
+                        stmt.setInt(1, size);
+                        stmt.setString(2, sequence);
+                        stmt.executeUpdate();
+                    }
+
+                    conn.commit();
+                    return next;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+
+        private Long lockNextValue(Connection conn, String sequence) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT next_value FROM IdSequence WHERE name = ? FOR UPDATE")) {
+                stmt.setString(1, sequence);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getLong("next_value") : null;
+                }
+            }
+        }
+
+        private void seed(Connection conn, String sequence) throws SQLException {
+            long max = 0;
+            String seedQuery = SEED_QUERIES.get(sequence);
+            if (seedQuery != null) {
+                try (PreparedStatement stmt = conn.prepareStatement(seedQuery);
+                     ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        max = rs.getLong(1);
+                    }
+                }
+            }
+            // INSERT IGNORE: another node may have seeded the row concurrently.
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT IGNORE INTO IdSequence (name, next_value) VALUES (?, ?)")) {
+                stmt.setString(1, sequence);
+                stmt.setLong(2, max + 1);
+                stmt.executeUpdate();
+            }
+            System.out.println("Seeded id sequence " + sequence + " at " + (max + 1));
+        }
+    }
+}
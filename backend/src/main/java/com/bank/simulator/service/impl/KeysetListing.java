@@ -0,0 +1,279 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.ConnectionPool;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset-paginated listing over one table. Each listing whitelists the fields a
+ * client may see (by JSON name) and the subset it may sort on - only columns
+ * with an index whose order is (column, primary key), so every page is a short
+ * index range scan no matter how deep the client has paged.
+ *
+ * <p>Only the projected columns (plus the sort key and primary key, needed for
+ * the next cursor) are selected. Totals are computed only when asked for:
+ * {@code exact} runs COUNT(*), {@code estimate} reads InnoDB's table statistics.
+ */
+public class KeysetListing {
+
+    public enum Type { STRING, TIMESTAMP, DATE, DECIMAL, BOOLEAN }
+
+    /** Adjusts a listed item before it is returned, given the row's primary key. */
+    public interface ItemHook {
+        void apply(String id, Map<String, Object> item);
+    }
+
+    private static final DateTimeFormatter JSON_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static class Field {
+        private final String column;
+        private final Type type;
+
+        Field(String column, Type type) {
+            this.column = column;
+            this.type = type;
+        }
+    }
+
+    private final String table;
+    private final String idColumn;
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    private final Set<String> sortable = new LinkedHashSet<>();
+    private String defaultSort;
+
+    /**
+     * {@code idColumn} is the primary key used to break ties between equal sort
+     * values. It is always selected but only returned if registered as a field.
+     */
+    public KeysetListing(String table, String idColumn) {
+        this.table = table;
+        this.idColumn = idColumn;
+    }
+
+    public KeysetListing field(String name, String column, Type type) {
+        fields.put(name, new Field(column, type));
+        return this;
+    }
+
+    /** Marks a field sortable. It must be backed by an index on (column, primary key). */
+    public KeysetListing sortable(String name) {
+        if (!fields.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown field " + name);
+        }
+        sortable.add(name);
+        return this;
+    }
+
+    public KeysetListing defaultSort(String sort) {
+        this.defaultSort = sort;
+        return this;
+    }
+
+    // ---------------------------------------------------------------- query
+
+    public ListingPage fetch(ConnectionPool.ConnectionFactory connections, PageRequest request) throws SQLException {
+        return fetch(connections, request, null);
+    }
+
+    public ListingPage fetch(ConnectionPool.ConnectionFactory connections, PageRequest request, ItemHook hook)
+            throws SQLException {
+        String sort = request.getSort() != null ? request.getSort() : defaultSort;
+        boolean descending = sort.startsWith("-");
+        String sortField = descending ? sort.substring(1) : sort;
+        if (!sortable.contains(sortField)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortField + "; sortable fields: " + sortable);
+        }
+        List<String> projection = projection(request.getFields());
+        Cursor after = request.getCursor() != null ? Cursor.decode(request.getCursor(), sort) : null;
+        if (after != null && fields.get(sortField).type == Type.TIMESTAMP) {
+            try {
+                LocalDateTime.parse(after.sortValue);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+
+        String query = buildQuery(projection, sortField, descending, after != null);
+        List<Map<String, Object>> items = new ArrayList<>();
+        String nextCursor = null;
+
+        try (Connection conn = connections.create()) {
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                int index = 1;
+                if (after != null) {
+                    Field sortColumn = fields.get(sortField);
+                    bind(stmt, index++, sortColumn.type, after.sortValue);
+                    bind(stmt, index++, sortColumn.type, after.sortValue);
+                    stmt.setString(index++, after.id);
+                }
+                stmt.setInt(index, request.getLimit() + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    String lastSortValue = null;
+                    String lastId = null;
+                    while (rs.next()) {
+                        if (items.size() == request.getLimit()) {
+                            nextCursor = new Cursor(sort, lastSortValue, lastId).encode();
+                            break;
+                        }
+                        Map<String, Object> item = new LinkedHashMap<>();
+                        for (String name : projection) {
+                            Field field = fields.get(name);
+                            item.put(name, read(rs, field));
+                        }
+                        lastSortValue = cursorValue(rs, fields.get(sortField));
+                        lastId = rs.getString(idColumn);
+                        if (hook != null) {
+                            hook.apply(lastId, item);
+                        }
+                        items.add(item);
+                    }
+                }
+            }
+
+            Long total = null;
+            if (PageRequest.TOTAL_EXACT.equals(request.getTotal())) {
+                total = count(conn, "SELECT COUNT(*) FROM " + table, false);
+            } else if (PageRequest.TOTAL_ESTIMATE.equals(request.getTotal())) {
+                total = count(conn, "SELECT table_rows FROM information_schema.tables "
+                    + "WHERE table_schema = DATABASE() AND table_name = ?", true);
+            }
+            return new ListingPage(items, nextCursor, total, PageRequest.TOTAL_ESTIMATE.equals(request.getTotal()));
+        }
+    }
+
+    String buildQuery(List<String> projection, String sortField, boolean descending, boolean afterCursor) {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String name : projection) {
+            columns.add(fields.get(name).column);
+        }
+        String sortColumn = fields.get(sortField).column;
+        columns.add(sortColumn);
+        columns.add(idColumn);
+
+        String direction = descending ? "DESC" : "ASC";
+        String comparison = descending ? "<" : ">";
+        StringBuilder query = new StringBuilder("SELECT ")
+            .append(String.join(", ", columns))
+            .append(" FROM ").append(table);
+        if (afterCursor) {
+            query.append(" WHERE (").append(sortColumn).append(' ').append(comparison).append(" ? OR (")
+                .append(sortColumn).append(" = ? AND ").append(idColumn).append(' ').append(comparison).append(" ?))");
+        }
+        query.append(" ORDER BY ").append(sortColumn).append(' ').append(direction);
+        if (!sortColumn.equals(idColumn)) {
+            query.append(", ").append(idColumn).append(' ').append(direction);
+        }
+        query.append(" LIMIT ?");
+        return query.toString();
+    }
+
+    List<String> projection(List<String> requested) {
+        if (requested.isEmpty()) {
+            return new ArrayList<>(fields.keySet());
+        }
+        for (String name : requested) {
+            if (!fields.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field " + name + "; available fields: " + fields.keySet());
+            }
+        }
+        return new ArrayList<>(new LinkedHashSet<>(requested));
+    }
+
+    private long count(Connection conn, String query, boolean byTable) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            if (byTable) {
+                stmt.setString(1, table);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static Object read(ResultSet rs, Field field) throws SQLException {
+        switch (field.type) {
+            case TIMESTAMP: {
+                Timestamp value = rs.getTimestamp(field.column);
+                return value == null ? null : value.toLocalDateTime().format(JSON_TIMESTAMP);
+            }
+            case DATE: {
+                java.sql.Date value = rs.getDate(field.column);
+                return value == null ? null : value.toLocalDate().toString();
+            }
+            case DECIMAL:
+                return rs.getBigDecimal(field.column);
+            case BOOLEAN:
+                return rs.getBoolean(field.column);
+            default:
+                return rs.getString(field.column);
+        }
+    }
+
+    private static String cursorValue(ResultSet rs, Field field) throws SQLException {
+        if (field.type == Type.TIMESTAMP) {
+            Timestamp value = rs.getTimestamp(field.column);
+            return value == null ? null : value.toLocalDateTime().toString();
+        }
+        return rs.getString(field.column);
+    }
+
+    private static void bind(PreparedStatement stmt, int index, Type type, String value) throws SQLException {
+        if (type == Type.TIMESTAMP) {
+            stmt.setTimestamp(index, Timestamp.valueOf(LocalDateTime.parse(value)));
+        } else {
+            stmt.setString(index, value);
+        }
+    }
+
+    /** Last (sort value, id) returned, tied to the sort it was produced under. */
+    static class Cursor {
+        private final String sort;
+        private final String sortValue;
+        private final String id;
+
+        Cursor(String sort, String sortValue, String id) {
+            this.sort = sort;
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = sort + "\n" + sortValue + "\n" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token, String expectedSort) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\n", -1);
+                if (parts.length != 3 || parts[1].isEmpty() || parts[2].isEmpty()) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                if (!parts[0].equals(expectedSort)) {
+                    throw new IllegalArgumentException("Cursor was issued for sort " + parts[0]);
+                }
+                return new Cursor(parts[0], parts[1], parts[2]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
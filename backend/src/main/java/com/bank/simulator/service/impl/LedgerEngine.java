@@ -0,0 +1,652 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.config.ConnectionPool;
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferSnapshot;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional in-memory ledger for load tests (off unless {@code ledger.enabled}).
+ * Balances live in memory as long cents, one slot per account in paged
+ * {@code long[]} arrays, and transfers are applied under striped locks instead
+ * of database row locks. Every applied transfer is journaled to the
+ * {@link LedgerWal} before the caller is answered, so the journal, not the
+ * database, is what makes a transfer durable.
+ *
+ * <p>A background persister drains durable entries to the database in batches:
+ * one netted {@code amount = amount + ?} per account (stamping {@code modified}), the Transaction rows and
+ * the notification outbox rows, plus the {@code LedgerCheckpoint} sequence,
+ * all in one transaction. On startup the balances are loaded from the Account
+ * table (which reflects exactly the entries up to the checkpoint) and the
+ * journal entries after the checkpoint are replayed and persisted again.
+ *
+ * <p>While the ledger is on it is the only writer of balances: the database
+ * copy lags by up to one persist interval, so account reads report the
+ * ledger's balance and account updates leave the amount column alone.
+ */
+public class LedgerEngine {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int MAX_PAGES = 1 << 14;
+
+    /** Where balances and the persisted checkpoint come from and where entries go. */
+    interface Store {
+        long loadCheckpoint() throws SQLException;
+
+        void loadBalances(BalanceSink sink) throws SQLException;
+
+        /** Balance in cents, or null if the account does not exist. */
+        Long loadBalance(String accountId) throws SQLException;
+
+        /** Writes the entries and advances the checkpoint to the last one, atomically. */
+        void persist(List<LedgerWal.Entry> entries) throws SQLException;
+
+        /** Those of {@code accountIds} that still exist. */
+        Set<String> existingAccounts(Set<String> accountIds) throws SQLException;
+    }
+
+    interface BalanceSink {
+        void accept(String accountId, long cents);
+    }
+
+    private final boolean enabled;
+    private final Store store;
+    private final LedgerWal wal;
+    private final long persistIntervalMs;
+    private final int persistBatchSize;
+    private final ReentrantLock[] stripes;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final long[][] pages = new long[MAX_PAGES][];
+    private int nextSlot;
+
+    private final ConcurrentLinkedQueue<LedgerWal.Entry> unpersisted = new ConcurrentLinkedQueue<>();
+    private final List<LedgerWal.Entry> inFlight = new ArrayList<>();
+    private final ReentrantLock persistLock = new ReentrantLock();
+    private final AtomicLong transfers = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long persistedSeq;
+    private volatile boolean running;
+    private ScheduledExecutorService persister;
+
+    /** A ledger that is never started; callers use the database transfer path. */
+    public LedgerEngine() {
+        this(false, null, null, 0, 1, 1);
+    }
+
+    public static LedgerEngine fromConfig(NotificationOutbox notificationOutbox) {
+        return new LedgerEngine(
+            AppConfig.getBoolean("ledger.enabled", false),
+            new DatabaseStore(DBConfig::getConnection, notificationOutbox),
+            Paths.get(AppConfig.get("ledger.wal.dir", "ledger-wal")),
+            AppConfig.getLong("ledger.persist.interval.ms", 100),
+            AppConfig.getInt("ledger.persist.batch.size", 5000),
+            AppConfig.getInt("ledger.lock.stripes", 1024),
+            AppConfig.getLong("ledger.wal.segment.bytes", 64L * 1024 * 1024),
+            AppConfig.getBoolean("ledger.wal.fsync", true));
+    }
+
+    LedgerEngine(boolean enabled, Store store, Path walDirectory, long persistIntervalMs, int persistBatchSize,
+                 int lockStripes) {
+        this(enabled, store, walDirectory, persistIntervalMs, persistBatchSize, lockStripes, 64L * 1024 * 1024, true);
+    }
+
+    LedgerEngine(boolean enabled, Store store, Path walDirectory, long persistIntervalMs, int persistBatchSize,
+                 int lockStripes, long segmentBytes, boolean fsync) {
+        this.enabled = enabled;
+        this.store = store;
+        this.wal = walDirectory == null ? null : new LedgerWal(walDirectory, segmentBytes, fsync, unpersisted::addAll);
+        this.persistIntervalMs = Math.max(1, persistIntervalMs);
+        this.persistBatchSize = Math.max(1, persistBatchSize);
+        this.stripes = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Loads balances, replays the journal past the persisted checkpoint and
+     * starts the journal writer and the persister. If this fails the ledger stays
+     * stopped and transfers are refused rather than sent around it.
+     */
+    public synchronized void start() throws SQLException, IOException {
+        if (!enabled || running) {
+            return;
+        }
+        long started = System.nanoTime();
+        slots.clear();
+        nextSlot = 0;
+        unpersisted.clear();
+        long checkpoint = store.loadCheckpoint();
+        store.loadBalances(this::allocate);
+
+        List<LedgerWal.Entry> replay = wal.recover(checkpoint);
+        for (LedgerWal.Entry entry : replay) {
+            // An account deleted since the entry was written is skipped, as its UPDATE will be.
+            Integer sender = slots.get(entry.getSenderAccountId());
+            Integer receiver = slots.get(entry.getReceiverAccountId());
+            if (sender != null) {
+                addCents(sender, -entry.getAmountCents());
+            }
+            if (receiver != null) {
+                addCents(receiver, entry.getAmountCents());
+            }
+        }
+        unpersisted.addAll(replay);
+        persistedSeq = checkpoint;
+
+        wal.start();
+        persister = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ledger-persister");
+            t.setDaemon(true);
+            return t;
+        });
+        persister.scheduleWithFixedDelay(this::persistPending, persistIntervalMs, persistIntervalMs,
+            TimeUnit.MILLISECONDS);
+        running = true;
+
+        System.out.println("✓ Ledger started: " + slots.size() + " accounts, " + replay.size()
+            + " journal entries replayed after checkpoint " + checkpoint
+            + " (" + (System.nanoTime() - started) / 1_000_000 + " ms)");
+    }
+
+    /** Stops taking transfers, flushes the journal and makes a last attempt to persist what is left. */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wal.stop();
+        persister.shutdown();
+        try {
+            persister.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        persistPending();
+        if (persistedSeq < wal.getDurableSeq()) {
+            System.err.println("Ledger stopped with entries " + (persistedSeq + 1) + ".." + wal.getDurableSeq()
+                + " not yet persisted; they will be replayed from the journal on the next start");
+        }
+    }
+
+    /**
+     * Moves {@code transaction.getAmount()} from its sender account to
+     * {@code receiverAccountId} and returns once the transfer is journaled.
+     * The transaction's id, account id and created date must already be set.
+     */
+    public TransferEngine.Outcome transfer(Transaction transaction, String receiverAccountId) throws SQLException {
+        String senderAccountId = transaction.getAccountId();
+        if (senderAccountId.equals(receiverAccountId)) {
+            throw new IllegalArgumentException("Sender and receiver must be different accounts");
+        }
+        checkRunning();
+        long cents = toCents(transaction.getAmount());
+        int sender = slotFor(senderAccountId);
+        int receiver = slotFor(receiverAccountId);
+        if (sender < 0 || receiver < 0) {
+            rejected.incrementAndGet();
+            return TransferEngine.Outcome.ACCOUNT_NOT_FOUND;
+        }
+
+        CompletableFuture<Void> durable;
+        int first = Math.min(stripe(sender), stripe(receiver));
+        int second = Math.max(stripe(sender), stripe(receiver));
+        stripes[first].lock();
+        stripes[second].lock();
+        try {
+            if (balance(sender) < cents) {
+                rejected.incrementAndGet();
+                return TransferEngine.Outcome.INSUFFICIENT_BALANCE;
+            }
+            addCents(sender, -cents);
+            addCents(receiver, cents);
+            durable = wal.append(new LedgerWal.Entry(transaction, receiverAccountId, cents));
+        } finally {
+            stripes[second].unlock();
+            stripes[first].unlock();
+        }
+
+        awaitDurable(durable);
+        transfers.incrementAndGet();
+        return TransferEngine.Outcome.COMPLETED;
+    }
+
+    /**
+     * Bulk form of {@link #transfer}, with the same per-leg semantics as
+     * {@link TransferEngine#transferAll}: legs are checked in order against the
+     * balances left by the legs before them, and with {@code atomic} any leg
+     * that cannot be applied leaves every balance untouched.
+     * {@code transactions.get(i)} is the ledger row for {@code legs.get(i)}.
+     */
+    public TransferEngine.BatchOutcome transferAll(List<TransferEngine.Leg> legs, List<Transaction> transactions,
+                                                   boolean atomic) throws SQLException {
+        checkRunning();
+        int[] senders = new int[legs.size()];
+        int[] receivers = new int[legs.size()];
+        long[] cents = new long[legs.size()];
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (int i = 0; i < legs.size(); i++) {
+            TransferEngine.Leg leg = legs.get(i);
+            if (leg.getSenderAccountId().equals(leg.getReceiverAccountId())) {
+                throw new IllegalArgumentException("Sender and receiver must be different accounts");
+            }
+            senders[i] = slotFor(leg.getSenderAccountId());
+            receivers[i] = slotFor(leg.getReceiverAccountId());
+            cents[i] = toCents(leg.getAmount());
+            if (senders[i] >= 0 && receivers[i] >= 0) {
+                stripeIndexes.add(stripe(senders[i]));
+                stripeIndexes.add(stripe(receivers[i]));
+            }
+        }
+
+        List<TransferEngine.Outcome> outcomes = new ArrayList<>(legs.size());
+        List<LedgerWal.Entry> entries = new ArrayList<>();
+        CompletableFuture<Void> durable = null;
+        for (int index : stripeIndexes) {
+            stripes[index].lock();
+        }
+        try {
+            Map<Integer, Long> balances = new HashMap<>();
+            for (int i = 0; i < legs.size(); i++) {
+                if (senders[i] < 0 || receivers[i] < 0) {
+                    outcomes.add(TransferEngine.Outcome.ACCOUNT_NOT_FOUND);
+                    continue;
+                }
+                long senderBalance = balances.computeIfAbsent(senders[i], this::balance);
+                if (senderBalance < cents[i]) {
+                    outcomes.add(TransferEngine.Outcome.INSUFFICIENT_BALANCE);
+                    continue;
+                }
+                balances.put(senders[i], senderBalance - cents[i]);
+                balances.put(receivers[i], balances.computeIfAbsent(receivers[i], this::balance) + cents[i]);
+                entries.add(new LedgerWal.Entry(transactions.get(i), legs.get(i).getReceiverAccountId(), cents[i]));
+                outcomes.add(TransferEngine.Outcome.COMPLETED);
+            }
+
+            if (entries.isEmpty() || (atomic && entries.size() < legs.size())) {
+                rejected.addAndGet(legs.size());
+                return new TransferEngine.BatchOutcome(outcomes, false);
+            }
+            for (Map.Entry<Integer, Long> balance : balances.entrySet()) {
+                setCents(balance.getKey(), balance.getValue());
+            }
+            durable = wal.appendAll(entries);
+        } finally {
+            for (int index : stripeIndexes.descendingSet()) {
+                stripes[index].unlock();
+            }
+        }
+
+        awaitDurable(durable);
+        transfers.addAndGet(entries.size());
+        rejected.addAndGet(legs.size() - entries.size());
+        return new TransferEngine.BatchOutcome(outcomes, true);
+    }
+
+    /** Current in-memory balance, or null if the account is not loaded. */
+    public BigDecimal getBalance(String accountId) {
+        Integer slot = slots.get(accountId);
+        if (slot == null) {
+            return null;
+        }
+        ReentrantLock lock = stripes[stripe(slot)];
+        lock.lock();
+        try {
+            return BigDecimal.valueOf(balance(slot), 2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running);
+        stats.put("accounts", slots.size());
+        stats.put("transfers", transfers.get());
+        stats.put("rejected", rejected.get());
+        stats.put("droppedForDeletedAccounts", dropped.get());
+        if (wal != null) {
+            stats.put("journaledSeq", wal.getDurableSeq());
+            stats.put("persistedSeq", persistedSeq);
+            stats.put("persistLag", wal.getDurableSeq() - persistedSeq);
+            stats.put("journalFailed", wal.isFailed());
+        }
+        return stats;
+    }
+
+    /**
+     * Drops a deleted account's slot so later transfers load it again (and find
+     * it gone). Entries of its own already journaled are dropped at persist time.
+     */
+    public void forgetAccount(String accountId) {
+        Integer slot = slots.get(accountId);
+        if (slot == null) {
+            return;
+        }
+        ReentrantLock lock = stripes[stripe(slot)];
+        lock.lock();
+        try {
+            slots.remove(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drains durable entries to the store until caught up or a write fails (retried next tick). */
+    void persistPending() {
+        persistLock.lock();
+        try {
+            while (true) {
+                if (inFlight.isEmpty()) {
+                    for (LedgerWal.Entry entry; inFlight.size() < persistBatchSize
+                            && (entry = unpersisted.poll()) != null; ) {
+                        inFlight.add(entry);
+                    }
+                }
+                if (inFlight.isEmpty()) {
+                    return;
+                }
+                long lastSeq = inFlight.get(inFlight.size() - 1).getSeq();
+                try {
+                    store.persist(inFlight);
+                } catch (SQLException | RuntimeException e) {
+                    if (dropEntriesOfDeletedSenders()) {
+                        if (inFlight.isEmpty()) {
+                            persistedSeq = lastSeq;
+                        }
+                        continue;
+                    }
+                    System.err.println("Ledger persist of " + inFlight.size() + " entries failed, will retry: "
+                        + e.getMessage());
+                    return;
+                }
+                persistedSeq = lastSeq;
+                inFlight.clear();
+                wal.deleteSegmentsUpTo(persistedSeq);
+            }
+        } finally {
+            persistLock.unlock();
+        }
+    }
+
+    long getPersistedSeq() { return persistedSeq; }
+
+    /**
+     * A Transaction row cannot be written once its sender account is deleted
+     * (foreign key), and retrying such a batch would stall persistence for every
+     * account. Those entries are dropped, as the account's persisted rows were
+     * deleted with it; the receiver keeps the credit, as with a database
+     * transfer followed by a deletion. Returns whether anything was dropped.
+     */
+    private boolean dropEntriesOfDeletedSenders() {
+        Set<String> senders = new HashSet<>();
+        for (LedgerWal.Entry entry : inFlight) {
+            senders.add(entry.getSenderAccountId());
+        }
+        Set<String> existing;
+        try {
+            existing = store.existingAccounts(senders);
+        } catch (SQLException | RuntimeException e) {
+            return false;
+        }
+        List<LedgerWal.Entry> orphans = new ArrayList<>();
+        for (LedgerWal.Entry entry : inFlight) {
+            if (!existing.contains(entry.getSenderAccountId())) {
+                orphans.add(entry);
+            }
+        }
+        if (orphans.isEmpty()) {
+            return false;
+        }
+        for (LedgerWal.Entry orphan : orphans) {
+            System.err.println("Ledger dropping transaction " + orphan.getTransaction().getTransactionId()
+                + " (seq " + orphan.getSeq() + "): sender account " + orphan.getSenderAccountId() + " was deleted");
+        }
+        inFlight.removeAll(orphans);
+        dropped.addAndGet(orphans.size());
+        return true;
+    }
+
+    private void checkRunning() throws SQLException {
+        if (!running) {
+            throw new SQLException("Ledger is not running");
+        }
+        if (wal.isFailed()) {
+            throw new SQLException("Ledger journal failed; transfers are refused until restart");
+        }
+    }
+
+    private void awaitDurable(CompletableFuture<Void> durable) throws SQLException {
+        try {
+            durable.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the ledger journal", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Ledger journal write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /** Slot of a loaded account, loading it on first use; -1 if it does not exist. */
+    private int slotFor(String accountId) throws SQLException {
+        Integer slot = slots.get(accountId);
+        if (slot != null) {
+            return slot;
+        }
+        Long cents = store.loadBalance(accountId);
+        return cents == null ? -1 : allocate(accountId, cents);
+    }
+
+    /**
+     * Gives an account a slot holding {@code cents}, unless it already has one.
+     * The slot is published through the map after the balance is written, so a
+     * thread that finds the slot also sees its balance.
+     */
+    private synchronized int allocate(String accountId, long cents) {
+        Integer existing = slots.get(accountId);
+        if (existing != null) {
+            return existing;
+        }
+        int slot = nextSlot;
+        int page = slot >>> PAGE_BITS;
+        if (page >= MAX_PAGES) {
+            throw new IllegalStateException("Ledger is full (" + slot + " accounts)");
+        }
+        if (pages[page] == null) {
+            pages[page] = new long[PAGE_SIZE];
+        }
+        pages[page][slot & (PAGE_SIZE - 1)] = cents;
+        nextSlot++;
+        slots.put(accountId, slot);
+        return slot;
+    }
+
+    private int stripe(int slot) {
+        return slot % stripes.length;
+    }
+
+    private long balance(int slot) {
+        return pages[slot >>> PAGE_BITS][slot & (PAGE_SIZE - 1)];
+    }
+
+    private void setCents(int slot, long cents) {
+        pages[slot >>> PAGE_BITS][slot & (PAGE_SIZE - 1)] = cents;
+    }
+
+    private void addCents(int slot, long cents) {
+        pages[slot >>> PAGE_BITS][slot & (PAGE_SIZE - 1)] += cents;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /** Reads balances and the checkpoint from, and persists entries to, the bank's own tables. */
+    static class DatabaseStore implements Store {
+
+        static final String APPLY_NET_QUERY =
+            "UPDATE Account SET amount = amount + ?, modified = CURRENT_TIMESTAMP(6) WHERE account_id = ?";
+
+        private final ConnectionPool.ConnectionFactory connections;
+        private final NotificationOutbox notificationOutbox;
+
+        DatabaseStore(ConnectionPool.ConnectionFactory connections, NotificationOutbox notificationOutbox) {
+            this.connections = connections;
+            this.notificationOutbox = notificationOutbox;
+        }
+
+        @Override
+        public long loadCheckpoint() throws SQLException {
+            try (Connection conn = connections.create();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT last_seq FROM LedgerCheckpoint WHERE id = 1");
+                 ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong("last_seq") : 0;
+            }
+        }
+
+        @Override
+        public void loadBalances(BalanceSink sink) throws SQLException {
+            try (Connection conn = connections.create();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT account_id, amount FROM Account",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        sink.accept(rs.getString("account_id"), toCents(rs.getBigDecimal("amount")));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Long loadBalance(String accountId) throws SQLException {
+            try (Connection conn = connections.create();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT amount FROM Account WHERE account_id = ?")) {
+                stmt.setString(1, accountId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? toCents(rs.getBigDecimal("amount")) : null;
+                }
+            }
+        }
+
+        @Override
+        public Set<String> existingAccounts(Set<String> accountIds) throws SQLException {
+            Set<String> existing = new HashSet<>();
+            try (Connection conn = connections.create()) {
+                OnboardingBatch.selectIn(conn, "SELECT account_id FROM Account WHERE account_id",
+                    new ArrayList<>(accountIds), rs -> existing.add(rs.getString("account_id")));
+            }
+            return existing;
+        }
+
+        /**
+         * Batches one update per account, including those whose entries net to
+         * zero: modified is set explicitly because ON UPDATE only fires when the
+         * amount changes, and the transaction-list ETag and export watermark
+         * read it to notice the new Transaction rows.
+         */
+        static void addNetMovements(PreparedStatement stmt, Map<String, Long> net) throws SQLException {
+            for (Map.Entry<String, Long> delta : net.entrySet()) {
+                stmt.setBigDecimal(1, BigDecimal.valueOf(delta.getValue(), 2));
+                stmt.setString(2, delta.getKey());
+                stmt.addBatch();
+            }
+        }
+
+        @Override
+        public void persist(List<LedgerWal.Entry> entries) throws SQLException {
+            Map<String, Long> net = new TreeMap<>();
+            Set<String> accountNumbers = new HashSet<>();
+            for (LedgerWal.Entry entry : entries) {
+                net.merge(entry.getSenderAccountId(), -entry.getAmountCents(), Long::sum);
+                net.merge(entry.getReceiverAccountId(), entry.getAmountCents(), Long::sum);
+                accountNumbers.add(entry.getTransaction().getSenderAccountNumber());
+                accountNumbers.add(entry.getTransaction().getReceiverAccountNumber());
+            }
+
+            try (Connection conn = connections.create()) {
+                Map<String, TransferSnapshot.Party> parties = new HashMap<>();
+                OnboardingBatch.selectIn(conn, TransactionServiceImpl.PARTY_SELECT, new ArrayList<>(accountNumbers), rs -> {
+                    TransferSnapshot.Party party = TransactionServiceImpl.mapParty(rs);
+                    parties.put(party.getAccountNumber(), party);
+                });
+
+                conn.setAutoCommit(false);
+                try {
+                    try (PreparedStatement stmt = conn.prepareStatement(APPLY_NET_QUERY)) {
+                        addNetMovements(stmt, net);
+                        stmt.executeBatch();
+                    }
+
+                    List<NotificationOutbox.TransferNotice> notices = new ArrayList<>(entries.size());
+                    try (PreparedStatement stmt = conn.prepareStatement(TransactionServiceImpl.INSERT_TRANSACTION)) {
+                        int batched = 0;
+                        for (LedgerWal.Entry entry : entries) {
+                            Transaction transaction = entry.getTransaction();
+                            TransactionServiceImpl.bindTransaction(stmt, transaction);
+                            stmt.addBatch();
+                            if (++batched % OnboardingBatch.INSERT_CHUNK == 0) {
+                                stmt.executeBatch();
+                            }
+                            TransferSnapshot.Party sender = parties.get(transaction.getSenderAccountNumber());
+                            TransferSnapshot.Party receiver = parties.get(transaction.getReceiverAccountNumber());
+                            if (sender != null && receiver != null) {
+                                notices.add(new NotificationOutbox.TransferNotice(
+                                    sender, receiver, transaction.getAmount(), transaction.getTransactionId()));
+                            }
+                        }
+                        stmt.executeBatch();
+                    }
+                    notificationOutbox.enqueueTransferNotifications(conn, notices);
+
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "UPDATE LedgerCheckpoint SET last_seq = ? WHERE id = 1")) {
+                        stmt.setLong(1, entries.get(entries.size() - 1).getSeq());
+                        stmt.executeUpdate();
+                    }
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal behind {@link LedgerEngine}. Callers hand entries to
+ * {@link #append}, which numbers them and queues them; a single writer thread
+ * writes whatever has queued up and makes it durable with one {@code fsync}
+ * for the whole group, then completes every entry's future. Sequence numbers,
+ * file order and completion order are therefore the same, so a durable entry
+ * implies every entry before it is durable too.
+ *
+ * <p>The journal is split into segment files named after their first sequence
+ * number. Each record is {@code [length][crc32][payload]}; on recovery a torn
+ * or corrupt tail in the last segment (a crash mid-write) is cut off, anywhere
+ * else it is an error. Segments whose entries are all persisted to the database
+ * are deleted by {@link #deleteSegmentsUpTo}.
+ */
+class LedgerWal {
+
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int MAX_GROUP = 4096;
+
+    /** One applied transfer: the ledger row to insert and the balance move it made. */
+    static class Entry {
+        private long seq;
+        private final Transaction transaction;
+        private final String receiverAccountId;
+        private final long amountCents;
+
+        Entry(Transaction transaction, String receiverAccountId, long amountCents) {
+            this.transaction = transaction;
+            this.receiverAccountId = receiverAccountId;
+            this.amountCents = amountCents;
+        }
+
+        long getSeq() { return seq; }
+        Transaction getTransaction() { return transaction; }
+        String getSenderAccountId() { return transaction.getAccountId(); }
+        String getReceiverAccountId() { return receiverAccountId; }
+        long getAmountCents() { return amountCents; }
+    }
+
+    private static class Pending {
+        private final Entry entry;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        Pending(Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final Consumer<List<Entry>> onDurable;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private long lastSeq;
+    private volatile long durableSeq;
+    private volatile boolean running;
+    private volatile IOException failure;
+    private FileChannel channel;
+    private long segmentSize;
+    private Thread writer;
+
+    LedgerWal(Path directory, long segmentBytes, boolean fsync, Consumer<List<Entry>> onDurable) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.onDurable = onDurable;
+    }
+
+    /**
+     * Reads every entry after {@code afterSeq} in order, truncating a torn tail.
+     * Must be called before {@link #start}; the next appended entry follows the
+     * highest sequence number found (or {@code afterSeq}).
+     */
+    List<Entry> recover(long afterSeq) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        List<Entry> entries = new ArrayList<>();
+        long maxSeq = afterSeq;
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            for (Entry entry : readSegment(segments.get(i), last)) {
+                maxSeq = Math.max(maxSeq, entry.seq);
+                if (entry.seq > afterSeq) {
+                    entries.add(entry);
+                }
+            }
+        }
+        lastSeq = maxSeq;
+        durableSeq = maxSeq;
+        return entries;
+    }
+
+    /** Opens a fresh segment and starts the writer thread. */
+    synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        openSegment(lastSeq + 1);
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-wal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Writes out everything already appended, then closes the journal. */
+    void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = writer;
+            writer = null;
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeChannel();
+    }
+
+    /**
+     * Numbers and queues one entry. Callers append while still holding the
+     * locks of the accounts it touches, so entries that depend on each other are
+     * journaled in the order they were applied.
+     */
+    synchronized CompletableFuture<Void> append(Entry entry) {
+        return appendAll(List.of(entry));
+    }
+
+    /** Queues entries with consecutive sequence numbers; the future completes when the last is durable. */
+    synchronized CompletableFuture<Void> appendAll(List<Entry> entries) {
+        if (failure != null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IOException("Ledger journal is not running"));
+        }
+        Pending pending = null;
+        for (Entry entry : entries) {
+            entry.seq = ++lastSeq;
+            pending = new Pending(entry);
+            queue.add(pending);
+        }
+        return pending == null ? CompletableFuture.completedFuture(null) : pending.durable;
+    }
+
+    long getDurableSeq() { return durableSeq; }
+
+    synchronized long getLastSeq() { return lastSeq; }
+
+    boolean isFailed() { return failure != null; }
+
+    /** Deletes segments that only hold entries up to {@code seq}. The newest segment is always kept. */
+    void deleteSegmentsUpTo(long seq) {
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                if (firstSeq(segments.get(i + 1)) - 1 <= seq) {
+                    Files.deleteIfExists(segments.get(i));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clean up ledger journal: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> group = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                buffer = writeGroup(group, buffer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                System.err.println("Ledger journal write failed, refusing further transfers: " + e.getMessage());
+                failure = e;
+                for (Pending pending : group) {
+                    pending.durable.completeExceptionally(e);
+                }
+                for (Pending pending; (pending = queue.poll()) != null; ) {
+                    pending.durable.completeExceptionally(e);
+                }
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private ByteBuffer writeGroup(List<Pending> group, ByteBuffer buffer) throws IOException {
+        if (segmentSize >= segmentBytes) {
+            closeChannel();
+            openSegment(group.get(0).entry.seq);
+        }
+
+        buffer.clear();
+        for (Pending pending : group) {
+            byte[] payload = encode(pending.entry);
+            if (buffer.remaining() < payload.length + 8) {
+                buffer = flush(buffer, payload.length + 8);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.putInt(payload.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(payload);
+        }
+        flush(buffer, 0);
+        if (fsync) {
+            channel.force(false);
+        }
+
+        List<Entry> entries = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            entries.add(pending.entry);
+        }
+        durableSeq = group.get(group.size() - 1).entry.seq;
+        onDurable.accept(entries);
+        for (Pending pending : group) {
+            pending.durable.complete(null);
+        }
+        return buffer;
+    }
+
+    /** Writes out the buffer; returns it cleared, or a bigger one if {@code needed} does not fit. */
+    private ByteBuffer flush(ByteBuffer buffer, int needed) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segmentSize += channel.write(buffer);
+        }
+        buffer.clear();
+        return needed > buffer.capacity() ? ByteBuffer.allocate(Integer.highestOneBit(needed) << 1) : buffer;
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing ledger journal: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long firstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static List<Entry> readSegment(Path segment, boolean last) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long valid = 0;
+        try (InputStream raw = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int expectedCrc;
+                byte[] payload;
+                try {
+                    expectedCrc = in.readInt();
+                    if (length < 0 || length > (1 << 20)) {
+                        throw new IOException("Bad record length " + length);
+                    }
+                    payload = in.readNBytes(length);
+                    if (payload.length < length) {
+                        throw new EOFException();
+                    }
+                } catch (IOException e) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                entries.add(decode(payload));
+                valid += 8 + length;
+            }
+        }
+
+        long size = Files.size(segment);
+        if (valid < size) {
+            if (!last) {
+                throw new IOException("Corrupt ledger journal segment " + segment + " at offset " + valid);
+            }
+            System.err.println("Truncating torn ledger journal tail: " + segment + " at offset " + valid
+                + " (" + (size - valid) + " bytes)");
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(false);
+            }
+        }
+        return entries;
+    }
+
+    static byte[] encode(Entry entry) throws IOException {
+        Transaction transaction = entry.transaction;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(entry.seq);
+            out.writeLong(entry.amountCents);
+            out.writeUTF(entry.receiverAccountId);
+            out.writeUTF(transaction.getTransactionId());
+            out.writeUTF(transaction.getAccountId());
+            out.writeUTF(transaction.getSenderAccountNumber());
+            out.writeUTF(transaction.getReceiverAccountNumber());
+            out.writeUTF(transaction.getTransactionType());
+            writeNullable(out, transaction.getDescription());
+            out.writeUTF(transaction.getCreatedDate().toString());
+        }
+        return bytes.toByteArray();
+    }
+
+    static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long seq = in.readLong();
+        long amountCents = in.readLong();
+        String receiverAccountId = in.readUTF();
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(in.readUTF());
+        transaction.setAccountId(in.readUTF());
+        transaction.setSenderAccountNumber(in.readUTF());
+        transaction.setReceiverAccountNumber(in.readUTF());
+        transaction.setTransactionType(in.readUTF());
+        transaction.setDescription(in.readBoolean() ? in.readUTF() : null);
+        transaction.setCreatedDate(LocalDateTime.parse(in.readUTF()));
+        transaction.setAmount(BigDecimal.valueOf(amountCents, 2));
+
+        Entry entry = new Entry(transaction, receiverAccountId, amountCents);
+        entry.seq = seq;
+        return entry;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
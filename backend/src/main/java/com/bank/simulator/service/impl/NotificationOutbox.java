@@ -0,0 +1,398 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.TransferSnapshot;
+import com.bank.simulator.service.NotificationService;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox for transfer emails. Rows are written on the transfer's own
+ * connection, so they commit or roll back with it, and a background dispatcher
+ * delivers them with retries, exponential backoff and dead-lettering.
+ */
+public class NotificationOutbox {
+
+    static final String TYPE_DEBIT = "DEBIT";
+    static final String TYPE_CREDIT = "CREDIT";
+    static final String STATUS_PENDING = "PENDING";
+    static final String STATUS_SENDING = "SENDING";
+    static final String STATUS_SENT = "SENT";
+    static final String STATUS_DEAD = "DEAD";
+
+    private static final String INSERT_QUERY = "INSERT INTO NotificationOutbox (transaction_id, notification_type, recipient_email, " +
+                        "recipient_name, bank_name, account_number, counterparty_account_number, amount, " +
+                        "status, attempts, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+    private static final int INSERT_CHUNK = 1000;
+
+    /** One completed transfer to notify both parties about. */
+    public static class TransferNotice {
+        private final TransferSnapshot.Party sender;
+        private final TransferSnapshot.Party receiver;
+        private final BigDecimal amount;
+        private final String transactionId;
+
+        public TransferNotice(TransferSnapshot.Party sender, TransferSnapshot.Party receiver,
+                              BigDecimal amount, String transactionId) {
+            this.sender = sender;
+            this.receiver = receiver;
+            this.amount = amount;
+            this.transactionId = transactionId;
+        }
+    }
+
+    /** Where claimed rows come from and where their outcome is recorded. */
+    interface Store {
+        /**
+         * Leases up to {@code limit} rows that are due at {@code now}: pending ones,
+         * and claimed ones whose lease ran out. They become SENDING until {@code leaseUntil}.
+         */
+        List<OutboxEntry> claim(long now, long leaseUntil, int limit) throws SQLException;
+
+        void markSent(long id) throws SQLException;
+
+        void markFailed(long id, String status, int attempts, long nextAttemptAt, String error) throws SQLException;
+    }
+
+    private final NotificationService notificationService;
+    private final Store store;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long leaseMs;
+    private final int workers;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService senders;
+
+    public NotificationOutbox(NotificationService notificationService) {
+        this(notificationService, new DatabaseStore(),
+            AppConfig.getLong("notification.outbox.poll.interval.ms", 1000),
+            AppConfig.getInt("notification.outbox.batch.size", 50),
+            AppConfig.getInt("notification.outbox.max.attempts", 8),
+            AppConfig.getLong("notification.outbox.backoff.base.ms", 2000),
+            AppConfig.getLong("notification.outbox.backoff.max.ms", 600_000),
+            AppConfig.getLong("notification.outbox.lease.ms", 120_000),
+            AppConfig.getInt("notification.outbox.workers", 2));
+    }
+
+    NotificationOutbox(NotificationService notificationService, Store store, long pollIntervalMs, int batchSize,
+                       int maxAttempts, long backoffBaseMs, long backoffMaxMs, long leaseMs, int workers) {
+        this.notificationService = notificationService;
+        this.store = store;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.leaseMs = leaseMs;
+        this.workers = Math.max(1, workers);
+    }
+
+    public void enqueueTransferNotifications(
+            Connection conn,
+            TransferSnapshot.Party sender,
+            TransferSnapshot.Party receiver,
+            BigDecimal amount,
+            String transactionId
+    ) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_QUERY)) {
+            int queued = 0;
+            queued += addRow(stmt, TYPE_DEBIT, sender, receiver, amount, transactionId);
+            queued += addRow(stmt, TYPE_CREDIT, receiver, sender, amount, transactionId);
+
+            if (queued > 0) {
+                stmt.executeBatch();
+            }
+            System.out.println("Queued " + queued + " notification(s) for transaction " + transactionId);
+        }
+    }
+
+    /**
+     * Bulk form of {@link #enqueueTransferNotifications}: queues the debit and
+     * credit emails of many transfers on the caller's connection, sent to the
+     * database {@value #INSERT_CHUNK} rows per batch.
+     */
+    public void enqueueTransferNotifications(Connection conn, List<TransferNotice> notices) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_QUERY)) {
+            int queued = 0;
+            int batched = 0;
+            for (TransferNotice notice : notices) {
+                batched += addRow(stmt, TYPE_DEBIT, notice.sender, notice.receiver, notice.amount, notice.transactionId);
+                batched += addRow(stmt, TYPE_CREDIT, notice.receiver, notice.sender, notice.amount, notice.transactionId);
+                if (batched >= INSERT_CHUNK) {
+                    stmt.executeBatch();
+                    queued += batched;
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                stmt.executeBatch();
+                queued += batched;
+            }
+            System.out.println("Queued " + queued + " notification(s) for " + notices.size() + " transactions");
+        }
+    }
+
+    private int addRow(
+            PreparedStatement stmt,
+            String type,
+            TransferSnapshot.Party recipient,
+            TransferSnapshot.Party counterparty,
+            BigDecimal amount,
+            String transactionId
+    ) throws SQLException {
+        String email = recipient.getCustomerEmail();
+        if (email == null || email.trim().isEmpty() || recipient.getCustomerName() == null) {
+            System.err.println(type + " recipient email not found or invalid. Skipping notification.");
+            return 0;
+        }
+
+        stmt.setString(1, transactionId);
+        stmt.setString(2, type);
+        stmt.setString(3, email);
+        stmt.setString(4, recipient.getCustomerName());
+        stmt.setString(5, recipient.getBankName() != null ? recipient.getBankName() : "Bank");
+        stmt.setString(6, recipient.getAccountNumber());
+        stmt.setString(7, counterparty.getAccountNumber());
+        stmt.setBigDecimal(8, amount);
+        stmt.setString(9, STATUS_PENDING);
+        stmt.setTimestamp(10, new Timestamp(System.currentTimeMillis()));
+        stmt.addBatch();
+        return 1;
+    }
+
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        senders = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "notification-sender");
+            t.setDaemon(true);
+            return t;
+        });
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::drainSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        System.out.println("✓ Notification outbox dispatcher started (poll every " + pollIntervalMs + "ms)");
+    }
+
+    public synchronized void stop() {
+        if (poller == null) {
+            return;
+        }
+        poller.shutdownNow();
+        senders.shutdown();
+        try {
+            senders.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        poller = null;
+        senders = null;
+        System.out.println("Notification outbox dispatcher stopped.");
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Exception e) {
+            System.err.println("Notification outbox dispatch failed: " + e.getMessage());
+        }
+    }
+
+    int drain() throws SQLException {
+        List<OutboxEntry> entries = claimBatch();
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> pending = new ArrayList<>();
+        for (OutboxEntry entry : entries) {
+            pending.add(senders.submit(() -> deliver(entry)));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                System.err.println("Notification delivery task failed: " + e.getMessage());
+            }
+        }
+        return entries.size();
+    }
+
+    // A claimed row that is never acknowledged (e.g. the node died) becomes due again once the lease expires.
+    List<OutboxEntry> claimBatch() throws SQLException {
+        long now = System.currentTimeMillis();
+        return store.claim(now, now + leaseMs, batchSize);
+    }
+
+    private void deliver(OutboxEntry entry) {
+        boolean sent;
+        String error = null;
+        try {
+            if (TYPE_DEBIT.equals(entry.type)) {
+                sent = notificationService.sendTransactionNotificationToSender(
+                    entry.email, entry.name, entry.bankName, entry.accountNumber,
+                    entry.counterpartyAccountNumber, entry.amount, entry.transactionId, entry.createdAt);
+            } else {
+                sent = notificationService.sendTransactionNotificationToReceiver(
+                    entry.email, entry.name, entry.bankName, entry.accountNumber,
+                    entry.counterpartyAccountNumber, entry.amount, entry.transactionId, entry.createdAt);
+            }
+        } catch (Exception e) {
+            sent = false;
+            error = e.getMessage();
+        }
+
+        try {
+            if (sent) {
+                markSent(entry);
+            } else {
+                markFailed(entry, error != null ? error : "Delivery failed");
+            }
+        } catch (SQLException e) {
+            System.err.println("Could not update outbox entry " + entry.id + ": " + e.getMessage());
+        }
+    }
+
+    private void markSent(OutboxEntry entry) throws SQLException {
+        store.markSent(entry.id);
+    }
+
+    private void markFailed(OutboxEntry entry, String error) throws SQLException {
+        int attempts = entry.attempts + 1;
+        boolean dead = attempts >= maxAttempts;
+        store.markFailed(entry.id, dead ? STATUS_DEAD : STATUS_PENDING, attempts,
+            System.currentTimeMillis() + backoffDelayMs(attempts), error);
+
+        if (dead) {
+            System.err.println("Notification " + entry.id + " for " + entry.transactionId +
+                               " moved to dead letter after " + attempts + " attempts: " + error);
+        } else {
+            System.err.println("Notification " + entry.id + " failed (attempt " + attempts + "), will retry: " + error);
+        }
+    }
+
+    long backoffDelayMs(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        long delay = backoffBaseMs << exponent;
+        return delay <= 0 || delay > backoffMaxMs ? backoffMaxMs : delay;
+    }
+
+    static class OutboxEntry {
+        long id;
+        String transactionId;
+        String type;
+        String email;
+        String name;
+        String bankName;
+        String accountNumber;
+        String counterpartyAccountNumber;
+        BigDecimal amount;
+        int attempts;
+        /** When the transfer committed; the emails show this, not the time they happen to go out. */
+        LocalDateTime createdAt;
+    }
+
+    static class DatabaseStore implements Store {
+
+        @Override
+        public List<OutboxEntry> claim(long now, long leaseUntil, int limit) throws SQLException {
+            String selectQuery = "SELECT id, transaction_id, notification_type, recipient_email, recipient_name, " +
+                                "bank_name, account_number, counterparty_account_number, amount, attempts, created_at " +
+                                "FROM NotificationOutbox " +
+                                "WHERE status IN (?, ?) AND next_attempt_at <= ? " +
+                                "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED";
+            String leaseQuery = "UPDATE NotificationOutbox SET status = ?, next_attempt_at = ? WHERE id = ?";
+
+            List<OutboxEntry> entries = new ArrayList<>();
+            try (Connection conn = DBConfig.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    try (PreparedStatement stmt = conn.prepareStatement(selectQuery)) {
+                        stmt.setString(1, STATUS_PENDING);
+                        stmt.setString(2, STATUS_SENDING);
+                        stmt.setTimestamp(3, new Timestamp(now));
+                        stmt.setInt(4, limit);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                OutboxEntry entry = new OutboxEntry();
+                                entry.id = rs.getLong("id");
+                                entry.transactionId = rs.getString("transaction_id");
+                                entry.type = rs.getString("notification_type");
+                                entry.email = rs.getString("recipient_email");
+                                entry.name = rs.getString("recipient_name");
+                                entry.bankName = rs.getString("bank_name");
+                                entry.accountNumber = rs.getString("account_number");
+                                entry.counterpartyAccountNumber = rs.getString("counterparty_account_number");
+                                entry.amount = rs.getBigDecimal("amount");
+                                entry.attempts = rs.getInt("attempts");
+                                Timestamp createdAt = rs.getTimestamp("created_at");
+                                entry.createdAt = createdAt != null ? createdAt.toLocalDateTime() : LocalDateTime.now();
+                                entries.add(entry);
+                            }
+                        }
+                    }
+
+                    try (PreparedStatement stmt = conn.prepareStatement(leaseQuery)) {
+                        for (OutboxEntry entry : entries) {
+                            stmt.setString(1, STATUS_SENDING);
+                            stmt.setTimestamp(2, new Timestamp(leaseUntil));
+                            stmt.setLong(3, entry.id);
+                            stmt.addBatch();
+                        }
+                        if (!entries.isEmpty()) {
+                            stmt.executeBatch();
+                        }
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            return entries;
+        }
+
+        @Override
+        public void markSent(long id) throws SQLException {
+            String query = "UPDATE NotificationOutbox SET status = ?, attempts = attempts + 1, last_error = NULL WHERE id = ?";
+            try (Connection conn = DBConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, STATUS_SENT);
+                stmt.setLong(2, id);
+                stmt.executeUpdate();
+            }
+        }
+
+        @Override
+        public void markFailed(long id, String status, int attempts, long nextAttemptAt, String error) throws SQLException {
+            String query = "UPDATE NotificationOutbox SET status = ?, attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+            try (Connection conn = DBConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, status);
+                stmt.setInt(2, attempts);
+                stmt.setTimestamp(3, new Timestamp(nextAttemptAt));
+                stmt.setString(4, error);
+                stmt.setLong(5, id);
+                stmt.executeUpdate();
+            }
+        }
+    }
+}
@@ -1,12 +1,11 @@
 package com.bank.simulator.service.impl;
 
+import com.bank.simulator.config.AppConfig;
 import com.bank.simulator.service.NotificationService;
 import jakarta.mail.*;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -20,21 +19,15 @@ public class NotificationServiceImpl implements NotificationService {
     private final String username;
     private final String password;
     private final boolean requiresAuth;
+    private final Session session;
+    private final SmtpTransportPool transportPool;
 
     public NotificationServiceImpl() {
+        this(AppConfig.getProperties());
+    }
+
+    public NotificationServiceImpl(Properties appProps) {
         emailProperties = new Properties();
-        
-        Properties appProps = new Properties();
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("application.properties")) {
-            if (input != null) {
-                appProps.load(input);
-            } else {
-                System.err.println("application.properties not found!");
-            }
-        } catch (IOException e) {
-            System.err.println("Could not load application.properties for email config");
-            e.printStackTrace();
-        }
 
         String smtpHost = appProps.getProperty("email.smtp.host", "smtp.gmail.com");
         String smtpPort = appProps.getProperty("email.smtp.port", "587");
@@ -48,12 +41,25 @@ public class NotificationServiceImpl implements NotificationService {
         emailProperties.put("mail.smtp.starttls.enable", smtpStartTls);
         emailProperties.put("mail.smtp.ssl.trust", smtpSslTrust);
         emailProperties.put("mail.smtp.ssl.protocols", "TLSv1.2");
+        emailProperties.put("mail.smtp.connectiontimeout", appProps.getProperty("email.smtp.timeout.ms", "10000"));
+        emailProperties.put("mail.smtp.timeout", appProps.getProperty("email.smtp.timeout.ms", "10000"));
         
         this.fromEmail = appProps.getProperty("email.from", "noreply@banksimulator.com");
         this.username = appProps.getProperty("email.username", "");
         this.password = appProps.getProperty("email.password", "");
         this.requiresAuth = Boolean.parseBoolean(smtpAuth);
         this.emailEnabled = Boolean.parseBoolean(appProps.getProperty("email.enabled", "true"));
+        this.session = createSession();
+        this.transportPool = new SmtpTransportPool(
+            session,
+            username,
+            password,
+            requiresAuth,
+            Integer.parseInt(appProps.getProperty("email.smtp.pool.size", "2")),
+            Long.parseLong(appProps.getProperty("email.smtp.pool.idle.timeout.ms", "60000")),
+            Integer.parseInt(appProps.getProperty("email.smtp.pool.max.messages.per.connection", "100")),
+            Long.parseLong(appProps.getProperty("email.smtp.pool.borrow.timeout.ms", "30000"))
+        );
 
         System.out.println("\n=== EMAIL SERVICE INITIALIZED ===");
         System.out.println("SMTP Host: " + smtpHost);
@@ -65,19 +71,41 @@ public class NotificationServiceImpl implements NotificationService {
         System.out.println("=====================================\n");
     }
 
+    private Session createSession() {
+        Session mailSession;
+        if (requiresAuth) {
+            mailSession = Session.getInstance(emailProperties, new Authenticator() {
+                @Override
+                protected PasswordAuthentication getPasswordAuthentication() {
+                    return new PasswordAuthentication(username, password);
+                }
+            });
+        } else {
+            mailSession = Session.getInstance(emailProperties);
+        }
+        mailSession.setDebug(false);
+        return mailSession;
+    }
+
+    public void close() {
+        transportPool.shutdown();
+        System.out.println("Email service SMTP connections closed.");
+    }
+
     @Override
-    public void sendTransactionNotificationToSender(
+    public boolean sendTransactionNotificationToSender(
             String senderEmail,
             String senderName,
             String senderBankName,
             String senderAccountNumber,
             String receiverAccountNumber,
             BigDecimal amount,
-            String transactionId
+            String transactionId,
+            LocalDateTime transactionTime
     ) {
         if (!emailEnabled) {
             System.out.println("Email notifications are disabled. Skipping sender email.");
-            return;
+            return true;
         }
 
         String subject = "Transaction Alert  Amount Debited";
@@ -87,25 +115,27 @@ public class NotificationServiceImpl implements NotificationService {
             senderAccountNumber,
             receiverAccountNumber,
             amount, 
-            transactionId
+            transactionId,
+            transactionTime
         );
 
-        sendNotification(senderEmail, subject, body);
+        return sendNotification(senderEmail, subject, body);
     }
 
     @Override
-    public void sendTransactionNotificationToReceiver(
+    public boolean sendTransactionNotificationToReceiver(
             String receiverEmail,
             String receiverName,
             String receiverBankName,
             String receiverAccountNumber,
             String senderAccountNumber,
             BigDecimal amount,
-            String transactionId
+            String transactionId,
+            LocalDateTime transactionTime
     ) {
         if (!emailEnabled) {
             System.out.println("Email notifications are disabled. Skipping receiver email.");
-            return;
+            return true;
         }
 
         String subject = "Transaction Alert  Amount Credited";
@@ -115,10 +145,11 @@ public class NotificationServiceImpl implements NotificationService {
             receiverAccountNumber,
             senderAccountNumber,
             amount,
-            transactionId
+            transactionId,
+            transactionTime
         );
 
-        sendNotification(receiverEmail, subject, body);
+        return sendNotification(receiverEmail, subject, body);
     }
 
     @Override
@@ -129,28 +160,13 @@ public class NotificationServiceImpl implements NotificationService {
             System.out.println("Subject: " + subject);
             System.out.println("From: " + fromEmail);
 
-            Session session;
-            
-            if (requiresAuth) {
-                session = Session.getInstance(emailProperties, new Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(username, password);
-                    }
-                });
-            } else {
-                session = Session.getInstance(emailProperties);
-            }
-
-            session.setDebug(false);
-
             Message message = new MimeMessage(session);
             message.setFrom(new InternetAddress(fromEmail));
             message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
             message.setSubject(subject);
             message.setContent(body, "text/html; charset=utf-8");
 
-            Transport.send(message);
+            transportPool.send(message);
 
             System.out.println(" Email sent successfully to: " + toEmail);
             System.out.println("========================\n");
@@ -174,11 +190,11 @@ private String buildSenderEmailTemplate(
         String senderAccount,
         String receiverAccount, 
         BigDecimal amount,
-        String transactionId  
+        String transactionId,
+        LocalDateTime transactionTime
 ) {
-    LocalDateTime now = LocalDateTime.now();
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm a");
-    String transactionDate = now.format(formatter);
+    String transactionDate = transactionTime.format(formatter);
 
     return """
         <!DOCTYPE html>
@@ -351,11 +367,11 @@ private String buildReceiverEmailTemplate(
         String receiverAccount,
         String senderAccount,
         BigDecimal amount,
-        String transactionId  
+        String transactionId,
+        LocalDateTime transactionTime
 ) {
-    LocalDateTime now = LocalDateTime.now();
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm a");
-    String transactionDate = now.format(formatter);
+    String transactionDate = transactionTime.format(formatter);
 
     return """
         <!DOCTYPE html>
@@ -0,0 +1,195 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.BatchResult;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Set-based checks and batched inserts shared by the customer and account batch
+ * onboarding paths. Existence checks run one {@code WHERE column IN (...)} query
+ * per {@value #IN_CHUNK} values instead of one query per row, and inserts go out
+ * through {@code addBatch}/{@code executeBatch} (rewritten into multi-row
+ * INSERTs by the driver's {@code rewriteBatchedStatements}).
+ *
+ * <p>Values are matched with {@link UniquenessIndex#normalize}, the same folding
+ * MySQL's collation applies, so "A@x.com" in a batch collides with "a@x.com" in
+ * the table exactly as the unique key would.
+ */
+final class OnboardingBatch {
+
+    static final int IN_CHUNK = 1000;
+    static final int INSERT_CHUNK = 500;
+
+    private static final int ER_DUP_ENTRY = 1062;
+
+    interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    private OnboardingBatch() {
+    }
+
+    /**
+     * Rejects pending rows whose value repeats an earlier row of the batch or is
+     * already stored in {@code table.column}. Values the uniqueness filter proves
+     * absent are left out of the IN list; with a null {@code key} every value is
+     * queried.
+     */
+    static <T> void rejectDuplicates(Connection conn, List<T> items, BatchResult result,
+                                     Function<T, String> value, String table, String column,
+                                     UniquenessIndex uniquenessIndex, UniquenessIndex.Key key,
+                                     String errorCode, String label) throws SQLException {
+        Set<String> seen = new HashSet<>();
+        List<String> candidates = new ArrayList<>();
+        for (int index : result.pendingIndexes()) {
+            String raw = value.apply(items.get(index));
+            if (raw == null) {
+                continue;
+            }
+            if (!seen.add(UniquenessIndex.normalize(raw))) {
+                result.reject(index, errorCode, label + " appears more than once in the batch");
+            } else if (key == null || uniquenessIndex.mightContain(key, raw)) {
+                candidates.add(raw);
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        selectIn(conn, "SELECT " + column + " FROM " + table + " WHERE " + column, candidates,
+            rs -> existing.add(UniquenessIndex.normalize(rs.getString(1))));
+        if (existing.isEmpty()) {
+            return;
+        }
+        for (int index : result.pendingIndexes()) {
+            String raw = value.apply(items.get(index));
+            if (raw != null && existing.contains(UniquenessIndex.normalize(raw))) {
+                result.reject(index, errorCode, label + " already exists");
+            }
+        }
+    }
+
+    /** Runs {@code select + " IN (?, ...)"} over {@code values} in chunks of {@value #IN_CHUNK}. */
+    static void selectIn(Connection conn, String select, List<String> values, RowHandler handler) throws SQLException {
+        for (int from = 0; from < values.size(); from += IN_CHUNK) {
+            List<String> chunk = values.subList(from, Math.min(from + IN_CHUNK, values.size()));
+            String query = select + " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Pending row indexes grouped by normalized value, for joining lookup results back to rows. */
+    static <T> Map<String, List<Integer>> pendingByValue(List<T> items, BatchResult result, Function<T, String> value) {
+        Map<String, List<Integer>> byValue = new HashMap<>();
+        for (int index : result.pendingIndexes()) {
+            String raw = value.apply(items.get(index));
+            if (raw != null) {
+                byValue.computeIfAbsent(UniquenessIndex.normalize(raw), k -> new ArrayList<>()).add(index);
+            }
+        }
+        return byValue;
+    }
+
+    /**
+     * Inserts every pending row. Atomic batches run in one transaction and are
+     * rolled back as a whole on any error. Partial batches commit every
+     * {@value #INSERT_CHUNK} rows; a chunk that fails (typically a unique key
+     * raced by another writer) is rolled back and retried row by row so only the
+     * offending rows are reported as failed.
+     */
+    static <T> void insertPending(Connection conn, String sql, List<T> items, BatchResult result,
+                                  Function<T, String> idOf, RowBinder<T> binder) throws SQLException {
+        List<Integer> pending = result.pendingIndexes();
+        if (pending.isEmpty()) {
+            return;
+        }
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int from = 0; from < pending.size(); from += INSERT_CHUNK) {
+                List<Integer> chunk = pending.subList(from, Math.min(from + INSERT_CHUNK, pending.size()));
+                for (int index : chunk) {
+                    binder.bind(stmt, items.get(index));
+                    stmt.addBatch();
+                }
+                try {
+                    stmt.executeBatch();
+                } catch (SQLException e) {
+                    stmt.clearBatch();
+                    conn.rollback();
+                    if (result.isAtomic()) {
+                        System.err.println("Batch insert rolled back: " + e.getMessage());
+                        result.rejectPending(errorCode(e), "Batch rolled back: " + e.getMessage());
+                        return;
+                    }
+                    insertOneByOne(conn, stmt, items, chunk, result, idOf, binder);
+                    continue;
+                }
+                if (!result.isAtomic()) {
+                    conn.commit();
+                    for (int index : chunk) {
+                        result.markCreated(index, idOf.apply(items.get(index)));
+                    }
+                }
+            }
+            if (result.isAtomic()) {
+                conn.commit();
+                for (int index : pending) {
+                    result.markCreated(index, idOf.apply(items.get(index)));
+                }
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private static <T> void insertOneByOne(Connection conn, PreparedStatement stmt, List<T> items, List<Integer> chunk,
+                                           BatchResult result, Function<T, String> idOf, RowBinder<T> binder)
+            throws SQLException {
+        for (int index : chunk) {
+            T item = items.get(index);
+            try {
+                binder.bind(stmt, item);
+                stmt.executeUpdate();
+                conn.commit();
+                result.markCreated(index, idOf.apply(item));
+            } catch (SQLException e) {
+                conn.rollback();
+                result.reject(index, errorCode(e), e.getMessage());
+            }
+        }
+    }
+
+    private static String errorCode(SQLException e) {
+        SQLException cause = e;
+        while (cause != null) {
+            if (cause.getErrorCode() == ER_DUP_ENTRY) {
+                return "DUPLICATE";
+            }
+            cause = cause.getNextException();
+        }
+        return "DB_ERROR";
+    }
+}
@@ -0,0 +1,155 @@
+package com.bank.simulator.service.impl;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small pool of connected SMTP transports sharing one mail {@link Session}, so a
+ * burst of notifications reuses a few authenticated (and STARTTLS'd) connections
+ * instead of doing a full handshake per message.
+ */
+class SmtpTransportPool {
+
+    private final Session session;
+    private final String username;
+    private final String password;
+    private final boolean requiresAuth;
+    private final long idleTimeoutMs;
+    private final int maxMessagesPerConnection;
+    private final long borrowTimeoutMs;
+
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    SmtpTransportPool(Session session, String username, String password, boolean requiresAuth,
+                      int maxSize, long idleTimeoutMs, int maxMessagesPerConnection, long borrowTimeoutMs) {
+        this.session = session;
+        this.username = username;
+        this.password = password;
+        this.requiresAuth = requiresAuth;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(Math.max(1, maxSize), true);
+    }
+
+    void send(Message message) throws MessagingException {
+        if (closed) {
+            throw new MessagingException("SMTP transport pool has been shut down");
+        }
+        acquirePermit();
+        PooledTransport pooled = null;
+        try {
+            message.saveChanges();
+            pooled = borrow();
+            try {
+                pooled.transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                if (pooled.transport.isConnected()) {
+                    // The server rejected this message; the connection itself is still usable.
+                    pooled.sent++;
+                    throw e;
+                }
+                // Connection dropped mid-send (server timeout, network blip): reconnect once and retry.
+                System.err.println("SMTP connection lost, reconnecting: " + e.getMessage());
+                closeQuietly(pooled);
+                // Cleared first so a failed reconnect does not hand the closed transport back to the pool.
+                pooled = null;
+                pooled = connectNew();
+                pooled.transport.sendMessage(message, message.getAllRecipients());
+            }
+            pooled.sent++;
+        } finally {
+            if (pooled != null) {
+                giveBack(pooled);
+            }
+            permits.release();
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isHealthy(pooled)) {
+                return pooled;
+            }
+            closeQuietly(pooled);
+        }
+        return connectNew();
+    }
+
+    private boolean isHealthy(PooledTransport pooled) {
+        if (idleTimeoutMs > 0 && System.currentTimeMillis() - pooled.lastUsedAt > idleTimeoutMs) {
+            return false;
+        }
+        // For SMTP, isConnected() issues a NOOP and reports whether the server answered.
+        return pooled.transport.isConnected();
+    }
+
+    private PooledTransport connectNew() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        if (requiresAuth) {
+            transport.connect(username, password);
+        } else {
+            transport.connect();
+        }
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport pooled) {
+        if (closed || (maxMessagesPerConnection > 0 && pooled.sent >= maxMessagesPerConnection)) {
+            closeQuietly(pooled);
+            return;
+        }
+        pooled.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(pooled);
+    }
+
+    private void closeQuietly(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            // already gone
+        }
+    }
+
+    void shutdown() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+
+    private static class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
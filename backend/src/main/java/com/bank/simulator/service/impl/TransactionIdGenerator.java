@@ -0,0 +1,95 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, time-sortable transaction ids in a Snowflake layout:
+ * 41 bits of milliseconds since 2024-01-01 UTC, 10 bits of node id and 12 bits
+ * of per-millisecond sequence. Rendered as {@code TXN_<yyyyMMdd><19 digits>}, so
+ * ids sort lexicographically in creation order and two instances configured with
+ * different {@code transaction.id.node} values can never collide.
+ *
+ * <p>The timestamp/sequence pair lives in one AtomicLong updated by CAS. When a
+ * millisecond's 4096 sequence values run out, or the wall clock steps backwards,
+ * the generator keeps counting on its own logical clock instead of waiting.
+ */
+public class TransactionIdGenerator {
+
+    static final long EPOCH_MS = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String PREFIX = "TXN_";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TransactionIdGenerator() {
+        this(resolveNodeId(AppConfig.get("transaction.id.node", "")), System::currentTimeMillis);
+    }
+
+    TransactionIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("transaction.id.node must be between 0 and " + MAX_NODE);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String nextId() {
+        long id = nextRawId();
+        long timestamp = (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+        LocalDate date = Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC).toLocalDate();
+        return PREFIX + date.format(DATE_FORMATTER) + String.format("%019d", id);
+    }
+
+    long nextRawId() {
+        while (true) {
+            long now = clock.getAsLong() - EPOCH_MS;
+            long previous = lastState.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+
+            long next;
+            if (now > previousTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) == SEQUENCE_MASK) {
+                // Sequence for this logical millisecond is exhausted: borrow the next one.
+                next = (previousTimestamp + 1) << SEQUENCE_BITS;
+            } else {
+                next = previous + 1;
+            }
+
+            if (lastState.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    long getNodeId() {
+        return nodeId;
+    }
+
+    static long resolveNodeId(String configured) {
+        if (configured != null && !configured.trim().isEmpty()) {
+            return Long.parseLong(configured.trim());
+        }
+        long derived = new SecureRandom().nextInt((int) MAX_NODE + 1);
+        System.out.println("transaction.id.node not set, using random node id " + derived
+            + " (set it explicitly when running more than one instance)");
+        return derived;
+    }
+}
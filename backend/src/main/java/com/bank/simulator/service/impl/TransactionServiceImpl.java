@@ -1,81 +1,244 @@
 package com.bank.simulator.service.impl;
 
 import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.BatchResult;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
+import com.bank.simulator.model.StatementCursor;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransactionPage;
+import com.bank.simulator.model.TransferSnapshot;
 import com.bank.simulator.service.TransactionService;
-import com.bank.simulator.service.NotificationService;
+import com.bank.simulator.service.TransactionRowSink;
+import com.bank.simulator.service.TransactionSink;
 import java.sql.Statement;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
 
 public class TransactionServiceImpl implements TransactionService {
     
-    private final NotificationService notificationService = new NotificationServiceImpl();
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
-    private static final AtomicInteger dailyCounter = new AtomicInteger(1);
-    private static volatile String lastDate = "";
+    static final KeysetListing LISTING = new KeysetListing("Transaction", "transaction_id")
+        .field("senderAccountNumber", "sender_account_number", KeysetListing.Type.STRING)
+        .field("receiverAccountNumber", "receiver_account_number", KeysetListing.Type.STRING)
+        .field("amount", "amount", KeysetListing.Type.DECIMAL)
+        .field("transactionType", "transaction_type", KeysetListing.Type.STRING)
+        .field("description", "description", KeysetListing.Type.STRING)
+        .field("createdDate", "created_date", KeysetListing.Type.TIMESTAMP)
+        .sortable("createdDate")
+        .defaultSort("-createdDate");
+
+    static final String PARTY_SELECT = "SELECT a.account_id, a.account_number, a.amount, a.status, a.bank_name, " +
+                      "c.customer_id, c.name, c.email, c.customer_pin, u.active AS user_active " +
+                      "FROM Account a " +
+                      "LEFT JOIN Customer c ON c.customer_id = a.customer_id " +
+                      "LEFT JOIN User u ON u.email = c.email " +
+                      "WHERE a.account_number";
+
+    static final String INSERT_TRANSACTION = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
+                           "receiver_account_number, amount, transaction_type, description, created_date) " +
+                           "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final NotificationOutbox notificationOutbox;
+    private final TransferEngine transferEngine;
+    private final TransactionIdGenerator idGenerator;
+    private final LedgerEngine ledger;
+    private final TransferBatcher batcher;
+
+    public TransactionServiceImpl() {
+        this(new NotificationOutbox(new NotificationServiceImpl()));
+    }
+
+    public TransactionServiceImpl(NotificationOutbox notificationOutbox) {
+        this(notificationOutbox, new TransferEngine(), new TransactionIdGenerator());
+    }
+
+    public TransactionServiceImpl(NotificationOutbox notificationOutbox, TransferEngine transferEngine,
+                                  TransactionIdGenerator idGenerator) {
+        this(notificationOutbox, transferEngine, idGenerator, new LedgerEngine(), new TransferBatcher());
+    }
+
+    /**
+     * With an enabled {@link LedgerEngine} balances are moved in memory and the
+     * ledger's persister writes the Transaction and outbox rows; otherwise every
+     * transfer is a database transaction through {@link TransferEngine}, shared
+     * with other concurrent transfers when the {@link TransferBatcher} is enabled.
+     */
+    public TransactionServiceImpl(NotificationOutbox notificationOutbox, TransferEngine transferEngine,
+                                  TransactionIdGenerator idGenerator, LedgerEngine ledger, TransferBatcher batcher) {
+        this.notificationOutbox = notificationOutbox;
+        this.transferEngine = transferEngine;
+        this.idGenerator = idGenerator;
+        this.ledger = ledger;
+        this.batcher = batcher;
+    }
 
     @Override
     public String generateTransactionId() {
-        String currentDate = LocalDateTime.now().format(DATE_FORMATTER);
-        
-        synchronized (TransactionServiceImpl.class) {
-            if (!currentDate.equals(lastDate)) {
-                lastDate = currentDate;
-                int maxCounter = getMaxDailyCounterFromDB(currentDate);
-                dailyCounter.set(maxCounter + 1);
-                System.out.println("=== NEW DAY DETECTED OR SERVER RESTART ===");
-                System.out.println("Date: " + currentDate);
-                System.out.println("Starting counter at: " + dailyCounter.get());
-            }
-            
-            int counter = dailyCounter.getAndIncrement();
-            String transactionId = String.format("TXN_%s%03d", currentDate, counter);
-            
-            System.out.println("Generated Transaction ID: " + transactionId);
-            return transactionId;
-        }
+        String transactionId = idGenerator.nextId();
+        System.out.println("Generated Transaction ID: " + transactionId);
+        return transactionId;
     }
 
-    private int getMaxDailyCounterFromDB(String dateStr) {
-        String query = "SELECT transaction_id FROM Transaction WHERE transaction_id LIKE ? ORDER BY transaction_id DESC LIMIT 1";
-        
+    @Override
+    public TransferSnapshot loadTransferSnapshot(String senderAccountNumber, String receiverAccountNumber) {
+        String query = PARTY_SELECT + " IN (?, ?)";
+
+        TransferSnapshot snapshot = new TransferSnapshot();
+
         try (Connection conn = DBConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, "TXN_" + dateStr + "%");
+
+            stmt.setString(1, senderAccountNumber);
+            stmt.setString(2, receiverAccountNumber);
             ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                String lastTxnId = rs.getString("transaction_id");
-                String counterPart = lastTxnId.substring(13);
-                int maxCounter = Integer.parseInt(counterPart);
-                
-                System.out.println("Loaded max transaction counter from database:");
-                System.out.println("  Last Transaction ID: " + lastTxnId);
-                System.out.println("  Max Counter: " + maxCounter);
-                
-                return maxCounter;
-            } else {
-                System.out.println("No transactions found for date: " + dateStr);
-                return 0;
+
+            while (rs.next()) {
+                TransferSnapshot.Party party = mapParty(rs);
+
+                if (party.getAccountNumber().equals(senderAccountNumber)) {
+                    snapshot.setSender(party);
+                } else {
+                    snapshot.setReceiver(party);
+                }
             }
-            
+
         } catch (SQLException e) {
-            System.err.println("Warning: Could not load max transaction counter from database");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Starting counter from 0 for date: " + dateStr);
-            return 0;
+            System.err.println("Error loading transfer snapshot: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+
+        return snapshot;
+    }
+
+    @Override
+    public Map<String, TransferSnapshot.Party> loadParties(Collection<String> accountNumbers) throws SQLException {
+        Map<String, TransferSnapshot.Party> parties = new HashMap<>();
+        try (Connection conn = DBConfig.getConnection()) {
+            OnboardingBatch.selectIn(conn, PARTY_SELECT, new ArrayList<>(accountNumbers), rs -> {
+                TransferSnapshot.Party party = mapParty(rs);
+                parties.put(party.getAccountNumber(), party);
+            });
+        }
+        return parties;
+    }
+
+    static TransferSnapshot.Party mapParty(ResultSet rs) throws SQLException {
+        TransferSnapshot.Party party = new TransferSnapshot.Party();
+        party.setAccountId(rs.getString("account_id"));
+        party.setAccountNumber(rs.getString("account_number"));
+        party.setBalance(rs.getBigDecimal("amount"));
+        party.setAccountStatus(rs.getString("status"));
+        party.setBankName(rs.getString("bank_name"));
+        party.setCustomerId(rs.getString("customer_id"));
+        party.setCustomerName(rs.getString("name"));
+        party.setCustomerEmail(rs.getString("email"));
+        party.setCustomerPin(rs.getString("customer_pin"));
+        boolean active = rs.getBoolean("user_active");
+        party.setUserActive(rs.wasNull() ? null : active);
+        return party;
+    }
+
+    /**
+     * Bulk transfers (payroll runs). All pending rows go through
+     * {@link TransferEngine#transferAll}: each involved account is locked and
+     * updated once with its net movement, the ledger rows are inserted with one
+     * batched statement and the notifications queued in bulk, all in the same
+     * database transaction. With the ledger enabled the legs are applied in
+     * memory by {@link LedgerEngine#transferAll} instead.
+     */
+    @Override
+    public BatchResult createTransactions(List<Transaction> transactions, Map<String, TransferSnapshot.Party> parties,
+                                          BatchResult result) {
+        long started = System.nanoTime();
+        List<Integer> pending = result.pendingIndexes();
+        List<TransferEngine.Leg> legs = new ArrayList<>(pending.size());
+        List<Transaction> legTransactions = new ArrayList<>(pending.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int index : pending) {
+            Transaction transaction = transactions.get(index);
+            TransferSnapshot.Party sender = parties.get(transaction.getSenderAccountNumber());
+            TransferSnapshot.Party receiver = parties.get(transaction.getReceiverAccountNumber());
+            transaction.setAccountId(sender.getAccountId());
+            transaction.setTransactionId(idGenerator.nextId());
+            transaction.setCreatedDate(now);
+            legs.add(new TransferEngine.Leg(sender.getAccountId(), receiver.getAccountId(), transaction.getAmount()));
+            legTransactions.add(transaction);
+        }
+
+        try {
+            TransferEngine.BatchOutcome outcome = ledger.isEnabled()
+                ? ledger.transferAll(legs, legTransactions, result.isAtomic())
+                : transferEngine.transferAll(legs, result.isAtomic(), (conn, completed) -> {
+                    List<NotificationOutbox.TransferNotice> notices = new ArrayList<>(completed.size());
+                    try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRANSACTION)) {
+                        int batched = 0;
+                        for (int leg : completed) {
+                            Transaction transaction = transactions.get(pending.get(leg));
+                            bindTransaction(stmt, transaction);
+                            stmt.addBatch();
+                            if (++batched % OnboardingBatch.INSERT_CHUNK == 0) {
+                                stmt.executeBatch();
+                            }
+                            notices.add(new NotificationOutbox.TransferNotice(
+                                parties.get(transaction.getSenderAccountNumber()),
+                                parties.get(transaction.getReceiverAccountNumber()),
+                                transaction.getAmount(), transaction.getTransactionId()));
+                        }
+                        stmt.executeBatch();
+                    }
+                    notificationOutbox.enqueueTransferNotifications(conn, notices);
+                });
+
+            for (int leg = 0; leg < legs.size(); leg++) {
+                int index = pending.get(leg);
+                switch (outcome.getOutcomes().get(leg)) {
+                    case INSUFFICIENT_BALANCE:
+                        result.reject(index, "INSUFFICIENT_BALANCE", "Insufficient balance for this transaction");
+                        break;
+                    case ACCOUNT_NOT_FOUND:
+                        result.reject(index, "ACCOUNT_NOT_FOUND", "Account no longer exists");
+                        break;
+                    default:
+                        if (outcome.isCommitted()) {
+                            result.markCreated(index, transactions.get(index).getTransactionId());
+                        }
+                }
+            }
+            result.skipPending();
+
+        } catch (SQLException e) {
+            System.err.println("Bulk transfer failed: " + e.getMessage());
+            e.printStackTrace();
+            result.rejectPending("DB_ERROR", "Database error: " + e.getMessage());
         }
+
+        System.out.println("Bulk transfer: " + result.getTotal() + " rows, " + result.getCreated() + " completed, "
+            + result.getFailed() + " failed, " + result.getSkipped() + " skipped ("
+            + (System.nanoTime() - started) / 1_000_000 + " ms)");
+        return result;
     }
 
     @Override
     public String createTransaction(Transaction transaction) {
+        TransferSnapshot snapshot = loadTransferSnapshot(
+            transaction.getSenderAccountNumber(), transaction.getReceiverAccountNumber());
+        if (snapshot == null) {
+            return null;
+        }
+        return createTransaction(transaction, snapshot);
+    }
+
+    @Override
+    public String createTransaction(Transaction transaction, TransferSnapshot snapshot) {
         System.out.println("\n");
         System.out.println("=== TRANSACTION CREATION STARTED ===");
         System.out.println("Sender Account Number: " + transaction.getSenderAccountNumber());
@@ -84,234 +247,109 @@ public class TransactionServiceImpl implements TransactionService {
         System.out.println("Transaction Type: " + transaction.getTransactionType());
         System.out.println("Description: " + (transaction.getDescription() != null ? transaction.getDescription() : "NULL"));
 
-        Connection conn = null;
-        try {
-            conn = DBConfig.getConnection();
-            conn.setAutoCommit(false);
-
-            String senderAccountId = getAccountIdByAccountNumber(conn, transaction.getSenderAccountNumber());
-            String receiverAccountId = getAccountIdByAccountNumber(conn, transaction.getReceiverAccountNumber());
-
-            if (senderAccountId == null) {
-                System.err.println("ERROR: Sender account not found");
-                return null;
-            }
-
-            if (receiverAccountId == null) {
-                System.err.println("ERROR: Receiver account not found");
-                return null;
-            }
-
-            transaction.setAccountId(senderAccountId);
+        TransferSnapshot.Party sender = snapshot.getSender();
+        TransferSnapshot.Party receiver = snapshot.getReceiver();
 
-            BigDecimal senderBalance = getAccountBalance(conn, senderAccountId);
-            System.out.println("Sender Current Balance: " + senderBalance);
-
-            if (senderBalance.compareTo(transaction.getAmount()) < 0) {
-                System.err.println("ERROR: Insufficient balance");
-                System.err.println("Available: " + senderBalance + ", Required: " + transaction.getAmount());
-                conn.rollback();
-                return "INSUFFICIENT_BALANCE";
-            }
-
-            String transactionId = generateTransactionId();
-            transaction.setTransactionId(transactionId);
-            transaction.setCreatedDate(LocalDateTime.now());
-
-            String insertQuery = "INSERT INTO Transaction (transaction_id, account_id, sender_account_number, " +
-                               "receiver_account_number, amount, transaction_type, description, created_date) " +
-                               "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-            try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
-                stmt.setString(1, transaction.getTransactionId());
-                stmt.setString(2, transaction.getAccountId());
-                stmt.setString(3, transaction.getSenderAccountNumber());
-                stmt.setString(4, transaction.getReceiverAccountNumber());
-                stmt.setBigDecimal(5, transaction.getAmount());
-                stmt.setString(6, transaction.getTransactionType());
-                stmt.setString(7, transaction.getDescription());
-                stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
-
-                int result = stmt.executeUpdate();
-                System.out.println("Transaction record inserted: " + result + " rows");
-            }
+        if (sender == null) {
+            System.err.println("ERROR: Sender account not found");
+            return null;
+        }
 
-            String deductQuery = "UPDATE Account SET amount = amount - ? WHERE account_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(deductQuery)) {
-                stmt.setBigDecimal(1, transaction.getAmount());
-                stmt.setString(2, senderAccountId);
-                int result = stmt.executeUpdate();
-                System.out.println("Sender balance updated: " + result + " rows");
-            }
+        if (receiver == null) {
+            System.err.println("ERROR: Receiver account not found");
+            return null;
+        }
 
-            String addQuery = "UPDATE Account SET amount = amount + ? WHERE account_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(addQuery)) {
-                stmt.setBigDecimal(1, transaction.getAmount());
-                stmt.setString(2, receiverAccountId);
-                int result = stmt.executeUpdate();
-                System.out.println("Receiver balance updated: " + result + " rows");
-            }
+        transaction.setAccountId(sender.getAccountId());
 
-            BigDecimal senderNewBalance = getAccountBalance(conn, senderAccountId);
-            BigDecimal receiverNewBalance = getAccountBalance(conn, receiverAccountId);
-            
-            System.out.println("\n");
-            System.out.println("=== BALANCE UPDATE SUMMARY ===");
-            System.out.println("Sender Previous Balance: " + senderBalance);
-            System.out.println("Sender New Balance: " + senderNewBalance);
-            System.out.println("Receiver New Balance: " + receiverNewBalance);
+        // Generated up front so no extra work happens while the account rows are locked.
+        String transactionId = generateTransactionId();
+        transaction.setTransactionId(transactionId);
+        transaction.setCreatedDate(LocalDateTime.now());
 
-            conn.commit();
-            System.out.println("\n");
-            System.out.println("=== TRANSACTION COMPLETED SUCCESSFULLY ===");
-            System.out.println("Transaction ID: " + transactionId);
-
-            try {
-                System.out.println("\n=== INITIATING EMAIL NOTIFICATIONS ===");
-                sendTransactionEmails(
-                    conn,
-                    senderAccountId,
-                    receiverAccountId,
-                    transaction.getSenderAccountNumber(),
-                    transaction.getReceiverAccountNumber(),
-                    transaction.getAmount(),
-                    transactionId
-                );
-            } catch (Exception emailEx) {
-                System.err.println("\nEMAIL NOTIFICATION FAILED (Transaction was successful)");
-                System.err.println("Error: " + emailEx.getMessage());
-                emailEx.printStackTrace();
+        try {
+            TransferEngine.Outcome outcome = ledger.isEnabled()
+                ? ledger.transfer(transaction, receiver.getAccountId())
+                : batcher.isEnabled()
+                ? batcher.transfer(transaction, sender, receiver)
+                : transferEngine.transfer(
+                    sender.getAccountId(), receiver.getAccountId(), transaction.getAmount(),
+                    conn -> {
+                        insertTransactionRecord(conn, transaction);
+                        notificationOutbox.enqueueTransferNotifications(
+                            conn, sender, receiver, transaction.getAmount(), transactionId);
+                    });
+
+            switch (outcome) {
+                case INSUFFICIENT_BALANCE:
+                    System.err.println("ERROR: Insufficient balance");
+                    System.err.println("Required: " + transaction.getAmount());
+                    return "INSUFFICIENT_BALANCE";
+                case ACCOUNT_NOT_FOUND:
+                    System.err.println("ERROR: Account no longer exists");
+                    return null;
+                default:
+                    System.out.println("\n");
+                    System.out.println("=== TRANSACTION COMPLETED SUCCESSFULLY ===");
+                    System.out.println("Transaction ID: " + transactionId);
+                    return transactionId;
             }
 
-            return transactionId;
-
         } catch (SQLException e) {
             System.out.println("\n");
             System.err.println("=== TRANSACTION FAILED ===");
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
-            
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                    System.out.println("Transaction rolled back successfully");
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Rollback failed: " + rollbackEx.getMessage());
-                }
-            }
             return null;
-            
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
-                }
-            }
         }
     }
 
-    private void sendTransactionEmails(
-            Connection conn,
-            String senderAccountId,
-            String receiverAccountId,
-            String senderAccountNumber,
-            String receiverAccountNumber,
-            BigDecimal amount,
-            String transactionId
-    ) throws SQLException {
-
-        String senderQuery = "SELECT c.name, c.email, a.bank_name, a.account_number FROM Customer c " +
-                            "JOIN Account a ON c.customer_id = a.customer_id " +
-                            "WHERE a.account_id = ?";
-        
-        String senderName = null;
-        String senderEmail = null;
-        String senderBankName = null;
-        String senderAccNum = null;
-        
-        try (PreparedStatement stmt = conn.prepareStatement(senderQuery)) {
-            stmt.setString(1, senderAccountId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                senderName = rs.getString("name");
-                senderEmail = rs.getString("email");
-                senderBankName = rs.getString("bank_name");
-                senderAccNum = rs.getString("account_number");
-            }
-        }
+    private void insertTransactionRecord(Connection conn, Transaction transaction) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_TRANSACTION)) {
+            bindTransaction(stmt, transaction);
 
-        String receiverQuery = "SELECT c.name, c.email, a.bank_name, a.account_number FROM Customer c " +
-                              "JOIN Account a ON c.customer_id = a.customer_id " +
-                              "WHERE a.account_id = ?";
-        
-        String receiverName = null;
-        String receiverEmail = null;
-        String receiverBankName = null;
-        String receiverAccNum = null;
-        
-        try (PreparedStatement stmt = conn.prepareStatement(receiverQuery)) {
-            stmt.setString(1, receiverAccountId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                receiverName = rs.getString("name");
-                receiverEmail = rs.getString("email");
-                receiverBankName = rs.getString("bank_name");
-                receiverAccNum = rs.getString("account_number");
-            }
+            int result = stmt.executeUpdate();
+            System.out.println("Transaction record inserted: " + result + " rows");
         }
+    }
 
-        System.out.println("--- Email Details ---");
-        System.out.println("Sender: " + senderName + " <" + senderEmail + ">");
-        System.out.println("Sender Bank: " + senderBankName);
-        System.out.println("Receiver: " + receiverName + " <" + receiverEmail + ">");
-        System.out.println("Receiver Bank: " + receiverBankName);
-
-        if (senderEmail != null && senderName != null && !senderEmail.trim().isEmpty()) {
-            System.out.println("\nSending DEBIT notification to sender: " + senderEmail);
-            try {
-                notificationService.sendTransactionNotificationToSender(
-                    senderEmail,
-                    senderName,
-                    senderBankName != null ? senderBankName : "Bank",  
-                    senderAccNum != null ? senderAccNum : senderAccountNumber,
-                    receiverAccountNumber,
-                    amount,
-                    transactionId
-                );
-                System.out.println("Sender email sent successfully");
-            } catch (Exception e) {
-                System.err.println("Failed to send email to sender: " + e.getMessage());
-                e.printStackTrace();
-            }
-        } else {
-            System.err.println("Sender email not found or invalid. Skipping sender notification.");
-        }
+    static void bindTransaction(PreparedStatement stmt, Transaction transaction) throws SQLException {
+        stmt.setString(1, transaction.getTransactionId());
+        stmt.setString(2, transaction.getAccountId());
+        stmt.setString(3, transaction.getSenderAccountNumber());
+        stmt.setString(4, transaction.getReceiverAccountNumber());
+        stmt.setBigDecimal(5, transaction.getAmount());
+        stmt.setString(6, transaction.getTransactionType());
+        stmt.setString(7, transaction.getDescription());
+        stmt.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedDate()));
+    }
+
+    /**
+     * Version of an account's transaction list for conditional GETs, read from
+     * the account row alone: the commit that inserts a transaction sets
+     * {@code modified} on both accounts' rows, even when a netted batch leaves
+     * an account's amount unchanged, and deleting one touches both rows too, so
+     * {@code modified} moves whenever the list does. Null when the account does
+     * not exist or cannot be read.
+     */
+    @Override
+    public String getTransactionsVersion(String accountNumber) {
+        String query = "SELECT account_id, amount, modified FROM Account WHERE account_number = ?";
 
-        if (receiverEmail != null && receiverName != null && !receiverEmail.trim().isEmpty()) {
-            System.out.println("\nSending CREDIT notification to receiver: " + receiverEmail);
-            try {
-                notificationService.sendTransactionNotificationToReceiver(
-                    receiverEmail,
-                    receiverName,
-                    receiverBankName != null ? receiverBankName : "Bank",  
-                    receiverAccNum != null ? receiverAccNum : receiverAccountNumber,
-                    senderAccountNumber,
-                    amount,
-                    transactionId
-                );
-                System.out.println("Receiver email sent successfully");
-            } catch (Exception e) {
-                System.err.println("Failed to send email to receiver: " + e.getMessage());
-                e.printStackTrace();
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("account_id") + "|" + rs.getBigDecimal("amount").toPlainString()
+                        + "|" + rs.getTimestamp("modified");
+                }
             }
-        } else {
-            System.err.println("Receiver email not found or invalid. Skipping receiver notification.");
+        } catch (SQLException e) {
+            System.err.println("Error reading transactions version: " + e.getMessage());
         }
-
-        System.out.println("=== EMAIL NOTIFICATIONS COMPLETED ===\n");
+        return null;
     }
 
     @Override
@@ -320,32 +358,15 @@ public class TransactionServiceImpl implements TransactionService {
         System.out.println("=== FETCHING TRANSACTIONS FOR ACCOUNT NUMBER: " + accountNumber + " ===");
         
         List<Transaction> transactions = new ArrayList<>();
-        
-        String query = "SELECT t.* FROM Account a " +
-                      "JOIN Transaction t ON a.account_id = t.account_id " +
-                      "WHERE t.sender_account_number = ? OR t.receiver_account_number = ? " +
-                      "ORDER BY t.created_date DESC";
 
         try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setString(1, accountNumber);
-            stmt.setString(2, accountNumber);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                Transaction transaction = new Transaction();
-                
-                transaction.setTransactionId(rs.getString("transaction_id"));
-                transaction.setSenderAccountNumber(rs.getString("sender_account_number"));
-                transaction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
-                transaction.setTransactionType(rs.getString("transaction_type"));
-                transaction.setDescription(rs.getString("description"));
-                transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
-                
-                transactions.add(transaction);
+             PreparedStatement stmt = conn.prepareStatement(buildStatementQuery(false, false))) {
+
+            bindStatementQuery(stmt, accountNumber, null, 0);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapTransaction(rs));
+                }
             }
             
             System.out.println("Found " + transactions.size() + " transactions");
@@ -358,34 +379,98 @@ public class TransactionServiceImpl implements TransactionService {
         return transactions;
     }
 
-    private String getAccountIdByAccountNumber(Connection conn, String accountNumber) throws SQLException {
-        String query = "SELECT account_id FROM Account WHERE account_number = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getString("account_id");
+    @Override
+    public TransactionPage getStatementPage(String accountNumber, String cursor, int limit) {
+        StatementCursor after = cursor == null || cursor.isEmpty() ? null : StatementCursor.decode(cursor);
+        List<Transaction> transactions = new ArrayList<>();
+
+        // One extra row tells us whether another page exists without a COUNT(*).
+        int fetchSize = limit + 1;
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(buildStatementQuery(after != null, true))) {
+
+            bindStatementQuery(stmt, accountNumber, after, fetchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapTransaction(rs));
+                }
             }
+
+        } catch (SQLException e) {
+            System.err.println("Error fetching statement page: " + e.getMessage());
+            e.printStackTrace();
+            return null;
         }
-        
-        return null;
+
+        String nextCursor = null;
+        if (transactions.size() > limit) {
+            transactions = new ArrayList<>(transactions.subList(0, limit));
+            Transaction last = transactions.get(limit - 1);
+            nextCursor = new StatementCursor(last.getCreatedDate(), last.getTransactionId()).encode();
+        }
+
+        System.out.println("Statement page for " + accountNumber + ": " + transactions.size()
+            + " rows" + (nextCursor != null ? " (more available)" : ""));
+        return new TransactionPage(transactions, nextCursor);
     }
 
-    private BigDecimal getAccountBalance(Connection conn, String accountId) throws SQLException {
-        String query = "SELECT amount FROM Account WHERE account_id = ?";
-        
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, accountId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getBigDecimal("amount");
+    /**
+     * Statement rows for one account, newest first. Each leg of the UNION ALL is a
+     * range scan on its own (account_number, created_date, transaction_id) index;
+     * an OR across both columns would force a full scan. The receiver leg skips
+     * rows already returned by the sender leg.
+     */
+    static String buildStatementQuery(boolean afterCursor, boolean limited) {
+        String seek = afterCursor
+            ? " AND (t.created_date < ? OR (t.created_date = ? AND t.transaction_id < ?))"
+            : "";
+        String order = " ORDER BY created_date DESC, transaction_id DESC";
+        String legLimit = limited ? " LIMIT ?" : "";
+
+        return "SELECT * FROM (" +
+               "(SELECT t.* FROM Transaction t WHERE t.sender_account_number = ?" + seek +
+               order + legLimit + ") " +
+               "UNION ALL " +
+               "(SELECT t.* FROM Transaction t WHERE t.receiver_account_number = ? " +
+               "AND t.sender_account_number <> ?" + seek +
+               order + legLimit + ")" +
+               ") statement" + order + legLimit;
+    }
+
+    static void bindStatementQuery(PreparedStatement stmt, String accountNumber,
+                                           StatementCursor after, int limit) throws SQLException {
+        int index = 1;
+        for (int leg = 0; leg < 2; leg++) {
+            stmt.setString(index++, accountNumber);
+            if (leg == 1) {
+                stmt.setString(index++, accountNumber);
+            }
+            if (after != null) {
+                Timestamp createdDate = Timestamp.valueOf(after.getCreatedDate());
+                stmt.setTimestamp(index++, createdDate);
+                stmt.setTimestamp(index++, createdDate);
+                stmt.setString(index++, after.getTransactionId());
+            }
+            if (limit > 0) {
+                stmt.setInt(index++, limit);
             }
         }
-        
-        return BigDecimal.ZERO;
+        if (limit > 0) {
+            stmt.setInt(index, limit);
+        }
+    }
+
+    private static Transaction mapTransaction(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(rs.getString("transaction_id"));
+        transaction.setSenderAccountNumber(rs.getString("sender_account_number"));
+        transaction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setTransactionType(rs.getString("transaction_type"));
+        transaction.setDescription(rs.getString("description"));
+        transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
+        return transaction;
     }
 
     @Override
@@ -401,17 +486,7 @@ public class TransactionServiceImpl implements TransactionService {
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
-                Transaction transaction = new Transaction();
-                
-                transaction.setTransactionId(rs.getString("transaction_id"));
-                transaction.setSenderAccountNumber(rs.getString("sender_account_number"));
-                transaction.setReceiverAccountNumber(rs.getString("receiver_account_number"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
-                transaction.setTransactionType(rs.getString("transaction_type"));
-                transaction.setDescription(rs.getString("description"));
-                transaction.setCreatedDate(rs.getTimestamp("created_date").toLocalDateTime());
-                
-                transactions.add(transaction);
+                transactions.add(mapTransaction(rs));
             }
             
             System.out.println("Total transactions fetched: " + transactions.size());
@@ -423,4 +498,113 @@ public class TransactionServiceImpl implements TransactionService {
         
         return transactions;
     }
+
+    @Override
+    public ListingPage listTransactions(PageRequest request) throws SQLException {
+        return LISTING.fetch(DBConfig::getConnection, request);
+    }
+
+    /**
+     * A value that changes with every committed transfer on one account
+     * (accountNumber non-null: that account row's amount and modified time) or
+     * on any account (a checksum over all account rows). The commit that
+     * inserts a transaction sets modified on both accounts' rows, even when a
+     * netted batch leaves an amount unchanged, and deleting one touches both
+     * rows too, whatever order transfers commit in. The newest
+     * transaction row is no watermark: its date and id are taken before the
+     * transfer waits for its row locks, so a later commit can sort earlier.
+     */
+    @Override
+    public String getExportWatermark(String accountNumber) throws SQLException {
+        String query = accountNumber == null
+            ? "SELECT COUNT(*), BIT_XOR(CRC32(CONCAT(account_id, '|', amount, '|', modified))) FROM Account"
+            : "SELECT COUNT(*), MAX(CONCAT(account_id, '|', amount, '|', modified)) FROM Account WHERE account_number = ?";
+
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            if (accountNumber != null) {
+                stmt.setString(1, accountNumber);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) + "|" + rs.getString(2) : null;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasAnyTransactions() {
+        return exists("SELECT EXISTS (SELECT 1 FROM Transaction)", null);
+    }
+
+    @Override
+    public boolean hasTransactionsForAccount(String accountNumber) {
+        return exists("SELECT EXISTS (SELECT 1 FROM Transaction WHERE sender_account_number = ?) " +
+                      "OR EXISTS (SELECT 1 FROM Transaction WHERE receiver_account_number = ?)", accountNumber);
+    }
+
+    private boolean exists(String query, String accountNumber) {
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            if (accountNumber != null) {
+                stmt.setString(1, accountNumber);
+                stmt.setString(2, accountNumber);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking for transactions: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public long streamAllTransactions(TransactionSink sink) throws SQLException, IOException {
+        return streamAllTransactionRows(rs -> sink.accept(mapTransaction(rs)));
+    }
+
+    @Override
+    public long streamTransactionsByAccountNumber(String accountNumber, TransactionSink sink)
+            throws SQLException, IOException {
+        return streamTransactionRowsByAccountNumber(accountNumber, rs -> sink.accept(mapTransaction(rs)));
+    }
+
+    @Override
+    public long streamAllTransactionRows(TransactionRowSink sink) throws SQLException, IOException {
+        return stream("SELECT * FROM Transaction ORDER BY created_date DESC, transaction_id DESC", null, sink);
+    }
+
+    @Override
+    public long streamTransactionRowsByAccountNumber(String accountNumber, TransactionRowSink sink)
+            throws SQLException, IOException {
+        return stream(buildStatementQuery(false, false), accountNumber, sink);
+    }
+
+    /**
+     * Forward-only, read-only scan handed to the sink row by row. With
+     * Connector/J a fetch size of Integer.MIN_VALUE switches the result set to
+     * streaming mode, so rows are read off the socket as they are consumed
+     * instead of being buffered in the driver.
+     */
+    private long stream(String query, String accountNumber, TransactionRowSink sink) throws SQLException, IOException {
+        long rows = 0;
+        try (Connection conn = DBConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            if (accountNumber != null) {
+                bindStatementQuery(stmt, accountNumber, null, 0);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(rs);
+                    rows++;
+                }
+            }
+        }
+        System.out.println("Streamed " + rows + " transactions");
+        return rows;
+    }
 }
@@ -0,0 +1,265 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferSnapshot;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group commit for single transfers. Concurrent callers of {@link #transfer}
+ * are queued and a few worker threads take them off the queue in micro-batches
+ * (up to {@code maxBatchSize}, waiting at most {@code maxWaitMs} for the batch
+ * to fill), each applied with one {@link TransferEngine#transferAll} call in
+ * non-atomic mode: one transaction and one commit, one netted update per
+ * account, batched ledger and outbox inserts. Under load a commit is shared by
+ * many transfers, so throughput grows with concurrency instead of stopping at
+ * the database's commit rate.
+ *
+ * <p>Transfers in a batch are isolated the same way the bulk endpoint isolates
+ * rows: an insufficient balance or a missing account only fails that transfer.
+ * If the batch as a whole fails with a database error, its transfers are retried
+ * one by one so a single bad row cannot fail its neighbours.
+ */
+public class TransferBatcher {
+
+    private static class Request {
+        private final Transaction transaction;
+        private final TransferSnapshot.Party sender;
+        private final TransferSnapshot.Party receiver;
+        private final CompletableFuture<TransferEngine.Outcome> result = new CompletableFuture<>();
+
+        Request(Transaction transaction, TransferSnapshot.Party sender, TransferSnapshot.Party receiver) {
+            this.transaction = transaction;
+            this.sender = sender;
+            this.receiver = receiver;
+        }
+    }
+
+    private final boolean enabled;
+    private final TransferEngine transferEngine;
+    private final NotificationOutbox notificationOutbox;
+    private final int workers;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedTransfers = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile boolean running;
+    private List<Thread> threads = List.of();
+
+    /** A batcher that is never started; every transfer commits on its own. */
+    public TransferBatcher() {
+        this(false, null, null, 1, 1, 0);
+    }
+
+    public static TransferBatcher fromConfig(TransferEngine transferEngine, NotificationOutbox notificationOutbox) {
+        return new TransferBatcher(
+            AppConfig.getBoolean("transfer.group.commit.enabled", true),
+            transferEngine, notificationOutbox,
+            AppConfig.getInt("transfer.group.commit.workers", 2),
+            AppConfig.getInt("transfer.group.commit.max.batch", 200),
+            AppConfig.getLong("transfer.group.commit.max.wait.ms", 2));
+    }
+
+    TransferBatcher(boolean enabled, TransferEngine transferEngine, NotificationOutbox notificationOutbox,
+                    int workers, int maxBatchSize, long maxWaitMs) {
+        this.enabled = enabled;
+        this.transferEngine = transferEngine;
+        this.notificationOutbox = notificationOutbox;
+        this.workers = Math.max(1, workers);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::workLoop, "transfer-batcher-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            started.add(thread);
+        }
+        threads = started;
+    }
+
+    /** Stops taking new transfers; the ones already queued are still committed. */
+    public void stop() {
+        List<Thread> stopping;
+        synchronized (this) {
+            running = false;
+            stopping = threads;
+            threads = List.of();
+        }
+        for (Thread thread : stopping) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Applies one transfer, sharing its commit with whatever else is queued.
+     * The transaction's id, account id and created date must already be set.
+     * Runs on the caller's thread when the batcher is not running.
+     */
+    public TransferEngine.Outcome transfer(Transaction transaction, TransferSnapshot.Party sender,
+                                           TransferSnapshot.Party receiver) throws SQLException {
+        Request request = new Request(transaction, sender, receiver);
+        boolean queued;
+        synchronized (this) {
+            // Workers drain the queue before exiting, so anything added while running is committed.
+            queued = running;
+            if (queued) {
+                queue.add(request);
+            }
+        }
+        if (!queued) {
+            return transferAlone(request);
+        }
+        try {
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for the transfer to commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Transfer failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.get();
+        stats.put("enabled", enabled);
+        stats.put("running", running);
+        stats.put("queued", queue.size());
+        stats.put("batches", batchCount);
+        stats.put("transfers", batchedTransfers.get());
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) batchedTransfers.get() / batchCount);
+        stats.put("oneByOneFallbacks", fallbacks.get());
+        return stats;
+    }
+
+    private void workLoop() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Request request : batch) {
+                    request.result.completeExceptionally(new SQLException("Transfer batcher interrupted", e));
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Takes whatever is already queued, then waits up to the max wait for the batch to fill. */
+    private void fill(List<Request> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void commit(List<Request> batch) {
+        batches.incrementAndGet();
+        batchedTransfers.addAndGet(batch.size());
+        if (batch.size() == 1) {
+            complete(batch.get(0));
+            return;
+        }
+
+        List<TransferEngine.Leg> legs = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            legs.add(new TransferEngine.Leg(request.sender.getAccountId(), request.receiver.getAccountId(),
+                request.transaction.getAmount()));
+        }
+        try {
+            TransferEngine.BatchOutcome outcome = transferEngine.transferAll(legs, false,
+                (conn, completed) -> insertRecords(conn, batch, completed));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(outcome.getOutcomes().get(i));
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Group commit of " + batch.size() + " transfers failed, retrying one by one: "
+                + e.getMessage());
+            fallbacks.incrementAndGet();
+            for (Request request : batch) {
+                complete(request);
+            }
+        }
+    }
+
+    private void complete(Request request) {
+        try {
+            request.result.complete(transferAlone(request));
+        } catch (SQLException | RuntimeException e) {
+            request.result.completeExceptionally(e);
+        }
+    }
+
+    private TransferEngine.Outcome transferAlone(Request request) throws SQLException {
+        return transferEngine.transfer(request.sender.getAccountId(), request.receiver.getAccountId(),
+            request.transaction.getAmount(), conn -> insertRecords(conn, List.of(request), List.of(0)));
+    }
+
+    private void insertRecords(Connection conn, List<Request> batch, List<Integer> completed) throws SQLException {
+        List<NotificationOutbox.TransferNotice> notices = new ArrayList<>(completed.size());
+        try (PreparedStatement stmt = conn.prepareStatement(TransactionServiceImpl.INSERT_TRANSACTION)) {
+            for (int index : completed) {
+                Request request = batch.get(index);
+                TransactionServiceImpl.bindTransaction(stmt, request.transaction);
+                stmt.addBatch();
+                notices.add(new NotificationOutbox.TransferNotice(request.sender, request.receiver,
+                    request.transaction.getAmount(), request.transaction.getTransactionId()));
+            }
+            stmt.executeBatch();
+        }
+        notificationOutbox.enqueueTransferNotifications(conn, notices);
+    }
+}
@@ -0,0 +1,353 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.config.ConnectionPool;
+import com.bank.simulator.config.DBConfig;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Moves money between two accounts inside one database transaction. Both account
+ * rows are locked with SELECT ... FOR UPDATE in ascending account_id order, so
+ * concurrent A->B and B->A transfers queue up behind each other instead of
+ * deadlocking, and the balance check runs against the locked (current) value.
+ * If the database still reports a deadlock or lock wait timeout, the whole
+ * transaction is retried with a short randomized backoff.
+ *
+ * <p>{@link #transferAll} does the same for many transfers in one transaction:
+ * every involved account is locked once (same ascending order), the transfers
+ * are replayed in order against the locked balances, and each account row is
+ * then updated once with its net movement.
+ */
+public class TransferEngine {
+
+    public enum Outcome {
+        COMPLETED,
+        INSUFFICIENT_BALANCE,
+        ACCOUNT_NOT_FOUND
+    }
+
+    /**
+     * Extra work that must commit atomically with the balance move (ledger row,
+     * outbox entries). Runs on the transfer's connection after both updates; it
+     * may run more than once if the transaction is retried.
+     */
+    public interface TransferWork {
+        void execute(Connection conn) throws SQLException;
+    }
+
+    /** Like {@link TransferWork}, given the positions of the transfers being committed. */
+    public interface BatchWork {
+        void execute(Connection conn, List<Integer> completed) throws SQLException;
+    }
+
+    public static class Leg {
+        private final String senderAccountId;
+        private final String receiverAccountId;
+        private final BigDecimal amount;
+
+        public Leg(String senderAccountId, String receiverAccountId, BigDecimal amount) {
+            this.senderAccountId = senderAccountId;
+            this.receiverAccountId = receiverAccountId;
+            this.amount = amount;
+        }
+
+        public String getSenderAccountId() { return senderAccountId; }
+        public String getReceiverAccountId() { return receiverAccountId; }
+        public BigDecimal getAmount() { return amount; }
+    }
+
+    public static class BatchOutcome {
+        private final List<Outcome> outcomes;
+        private final boolean committed;
+
+        BatchOutcome(List<Outcome> outcomes, boolean committed) {
+            this.outcomes = outcomes;
+            this.committed = committed;
+        }
+
+        /** Per transfer, in input order: whether it could be applied. */
+        public List<Outcome> getOutcomes() { return outcomes; }
+
+        /** False when nothing was written (an atomic batch with a failure, or no transfer applicable). */
+        public boolean isCommitted() { return committed; }
+    }
+
+    private interface Attempt<T> {
+        T run() throws SQLException;
+    }
+
+    private static final int MYSQL_DEADLOCK = 1213;
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+
+    private static final String LOCK_QUERY = "SELECT amount FROM Account WHERE account_id = ? FOR UPDATE";
+    // modified is set explicitly: ON UPDATE only fires when a value changes, and a
+    // netted batch can leave an account's amount where it was while adding its
+    // transactions. The conditional GET and export watermark key on this stamp.
+    private static final String DEBIT_QUERY =
+        "UPDATE Account SET amount = amount - ?, modified = CURRENT_TIMESTAMP(6) WHERE account_id = ?";
+    private static final String CREDIT_QUERY =
+        "UPDATE Account SET amount = amount + ?, modified = CURRENT_TIMESTAMP(6) WHERE account_id = ?";
+    private static final String LOCK_MANY_QUERY = "SELECT account_id, amount FROM Account WHERE account_id IN (%s) "
+        + "ORDER BY account_id FOR UPDATE";
+    private static final int LOCK_CHUNK = 1000;
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+
+    public TransferEngine() {
+        this(DBConfig::getConnection,
+             AppConfig.getInt("transfer.deadlock.max.retries", 3),
+             AppConfig.getLong("transfer.deadlock.backoff.ms", 20));
+    }
+
+    public TransferEngine(ConnectionPool.ConnectionFactory connections, int maxRetries, long retryBackoffMs) {
+        this.connections = connections;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+    }
+
+    public Outcome transfer(String senderAccountId, String receiverAccountId, BigDecimal amount,
+                            TransferWork work) throws SQLException {
+        if (senderAccountId.equals(receiverAccountId)) {
+            throw new IllegalArgumentException("Sender and receiver must be different accounts");
+        }
+
+        return withRetries(() -> attempt(senderAccountId, receiverAccountId, amount, work));
+    }
+
+    /**
+     * Applies {@code legs} in one transaction with one balance update per
+     * account. Each leg is checked against the sender's balance as left by the
+     * legs before it, exactly as if they had run one by one. With
+     * {@code atomic} any leg that cannot be applied rolls back the batch;
+     * otherwise those legs are skipped and the rest commit.
+     */
+    public BatchOutcome transferAll(List<Leg> legs, boolean atomic, BatchWork work) throws SQLException {
+        for (Leg leg : legs) {
+            if (leg.senderAccountId.equals(leg.receiverAccountId)) {
+                throw new IllegalArgumentException("Sender and receiver must be different accounts");
+            }
+        }
+        return withRetries(() -> attemptAll(legs, atomic, work));
+    }
+
+    private <T> T withRetries(Attempt<T> attempt) throws SQLException {
+        int retries = 0;
+        while (true) {
+            try {
+                return attempt.run();
+            } catch (SQLException e) {
+                if (!isRetryable(e) || retries >= maxRetries) {
+                    throw e;
+                }
+                retries++;
+                System.err.println("Transfer hit lock conflict (" + e.getErrorCode() + "), retry "
+                    + retries + "/" + maxRetries + ": " + e.getMessage());
+                backoff(retries);
+            }
+        }
+    }
+
+    private Outcome attempt(String senderAccountId, String receiverAccountId, BigDecimal amount,
+                            TransferWork work) throws SQLException {
+        Connection conn = connections.create();
+        try {
+            conn.setAutoCommit(false);
+
+            boolean senderFirst = senderAccountId.compareTo(receiverAccountId) < 0;
+            String firstId = senderFirst ? senderAccountId : receiverAccountId;
+            String secondId = senderFirst ? receiverAccountId : senderAccountId;
+
+            BigDecimal firstBalance = lockBalance(conn, firstId);
+            BigDecimal secondBalance = firstBalance == null ? null : lockBalance(conn, secondId);
+            if (firstBalance == null || secondBalance == null) {
+                conn.rollback();
+                return Outcome.ACCOUNT_NOT_FOUND;
+            }
+
+            BigDecimal senderBalance = senderFirst ? firstBalance : secondBalance;
+            if (senderBalance.compareTo(amount) < 0) {
+                conn.rollback();
+                return Outcome.INSUFFICIENT_BALANCE;
+            }
+
+            applyDelta(conn, DEBIT_QUERY, senderAccountId, amount);
+            applyDelta(conn, CREDIT_QUERY, receiverAccountId, amount);
+
+            if (work != null) {
+                work.execute(conn);
+            }
+
+            conn.commit();
+            return Outcome.COMPLETED;
+
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("Rollback failed: " + rollbackEx.getMessage());
+            }
+            throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private BatchOutcome attemptAll(List<Leg> legs, boolean atomic, BatchWork work) throws SQLException {
+        Connection conn = connections.create();
+        try {
+            conn.setAutoCommit(false);
+
+            TreeSet<String> accountIds = new TreeSet<>();
+            for (Leg leg : legs) {
+                accountIds.add(leg.senderAccountId);
+                accountIds.add(leg.receiverAccountId);
+            }
+            Map<String, BigDecimal> balances = lockBalances(conn, new ArrayList<>(accountIds));
+
+            List<Outcome> outcomes = new ArrayList<>(legs.size());
+            List<Integer> completed = new ArrayList<>();
+            Map<String, BigDecimal> net = new TreeMap<>();
+            for (int i = 0; i < legs.size(); i++) {
+                Leg leg = legs.get(i);
+                BigDecimal senderBalance = balances.get(leg.senderAccountId);
+                if (senderBalance == null || !balances.containsKey(leg.receiverAccountId)) {
+                    outcomes.add(Outcome.ACCOUNT_NOT_FOUND);
+                } else if (senderBalance.compareTo(leg.amount) < 0) {
+                    outcomes.add(Outcome.INSUFFICIENT_BALANCE);
+                } else {
+                    balances.put(leg.senderAccountId, senderBalance.subtract(leg.amount));
+                    balances.merge(leg.receiverAccountId, leg.amount, BigDecimal::add);
+                    net.merge(leg.senderAccountId, leg.amount.negate(), BigDecimal::add);
+                    net.merge(leg.receiverAccountId, leg.amount, BigDecimal::add);
+                    outcomes.add(Outcome.COMPLETED);
+                    completed.add(i);
+                }
+            }
+
+            if (completed.isEmpty() || (atomic && completed.size() < legs.size())) {
+                conn.rollback();
+                return new BatchOutcome(outcomes, false);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(CREDIT_QUERY)) {
+                // Accounts that net to zero are written too, so their modified stamp moves.
+                for (Map.Entry<String, BigDecimal> entry : net.entrySet()) {
+                    stmt.setBigDecimal(1, entry.getValue());
+                    stmt.setString(2, entry.getKey());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            if (work != null) {
+                work.execute(conn, Collections.unmodifiableList(completed));
+            }
+
+            conn.commit();
+            return new BatchOutcome(outcomes, true);
+
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("Rollback failed: " + rollbackEx.getMessage());
+            }
+            throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Locks the rows in ascending account_id order, chunk by chunk, and returns their balances. */
+    private Map<String, BigDecimal> lockBalances(Connection conn, List<String> sortedAccountIds) throws SQLException {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (int from = 0; from < sortedAccountIds.size(); from += LOCK_CHUNK) {
+            List<String> chunk = sortedAccountIds.subList(from, Math.min(from + LOCK_CHUNK, sortedAccountIds.size()));
+            String query = String.format(LOCK_MANY_QUERY, String.join(", ", Collections.nCopies(chunk.size(), "?")));
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        balances.put(rs.getString("account_id"), rs.getBigDecimal("amount"));
+                    }
+                }
+            }
+        }
+        return balances;
+    }
+
+    private BigDecimal lockBalance(Connection conn, String accountId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(LOCK_QUERY)) {
+            stmt.setString(1, accountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal("amount") : null;
+            }
+        }
+    }
+
+    private void applyDelta(Connection conn, String query, String accountId, BigDecimal amount) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setBigDecimal(1, amount);
+            stmt.setString(2, accountId);
+            if (stmt.executeUpdate() != 1) {
+                throw new SQLException("Locked account row disappeared: " + accountId);
+            }
+        }
+    }
+
+    static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                SQLException sqlEx = (SQLException) t;
+                if (sqlEx.getErrorCode() == MYSQL_DEADLOCK || sqlEx.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT) {
+                    return true;
+                }
+                // 40001 = serialization failure / deadlock victim in the SQL standard.
+                if ("40001".equals(sqlEx.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) throws SQLException {
+        if (retryBackoffMs == 0) {
+            return;
+        }
+        long ceiling = retryBackoffMs << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying transfer", e);
+        }
+    }
+}
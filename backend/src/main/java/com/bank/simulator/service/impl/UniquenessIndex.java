@@ -0,0 +1,273 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.config.AppConfig;
+import com.bank.simulator.config.ConnectionPool;
+import com.bank.simulator.config.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory Bloom filters over the UNIQUE columns onboarding checks for
+ * duplicates, so a value that was never stored is accepted as unique without a
+ * COUNT(*) round trip. A "maybe present" answer (including every answer before
+ * the filters are built) still goes to the database, which stays the authority.
+ *
+ * <p>The filters assume this instance is the only writer to these tables. Only
+ * writes made through {@link #add} are seen before the next rebuild, so a row
+ * inserted by another instance, a script or a manual fix can be reported absent
+ * for up to one rebuild interval. Every key therefore has to be backed by a
+ * UNIQUE constraint that rejects the duplicate the filter let through, and the
+ * filters must not answer existence checks ("is this aadhar linked to a
+ * customer?"), where a wrong "absent" would turn into a rejection.
+ *
+ * <p>Writers call {@link #add} <em>before</em> their INSERT/UPDATE so a
+ * concurrent check can never see "absent" for a committed row. Deletes are not
+ * tracked (a Bloom filter cannot forget); the periodic rebuild from a fresh scan
+ * clears them.
+ */
+public class UniquenessIndex {
+
+    public enum Key {
+        CUSTOMER_PHONE("Customer", "phone_number"),
+        CUSTOMER_AADHAR("Customer", "aadhar_number"),
+        ACCOUNT_NUMBER("Account", "account_number"),
+        USER_EMAIL("User", "email");
+
+        private final String table;
+        private final String column;
+
+        Key(String table, String column) {
+            this.table = table;
+            this.column = column;
+        }
+    }
+
+    /** Values added this recently are replayed into a rebuilt filter, covering inserts still in flight during the scan. */
+    private static final long JOURNAL_WINDOW_MS = 5 * 60 * 1000;
+
+    private final ConnectionPool.ConnectionFactory connections;
+    private final boolean enabled;
+    private final long minExpectedEntries;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMs;
+    private final LongSupplier clock;
+
+    private final Map<Key, BloomFilter> filters = new ConcurrentHashMap<>();
+    private final Map<Key, ConcurrentLinkedQueue<JournalEntry>> journals = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicLong> skipped = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicLong> fallThrough = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private ScheduledExecutorService scheduler;
+
+    private static class JournalEntry {
+        private final String value;
+        private final long addedAt;
+
+        JournalEntry(String value, long addedAt) {
+            this.value = value;
+            this.addedAt = addedAt;
+        }
+    }
+
+    /**
+     * Filters that are never built: every check falls through to the database.
+     * Used where no shared index is wired in.
+     */
+    public UniquenessIndex() {
+        this(DBConfig::getConnection, false, 1, 0.01, 0, System::currentTimeMillis);
+    }
+
+    public static UniquenessIndex fromConfig() {
+        return new UniquenessIndex(DBConfig::getConnection,
+            AppConfig.getBoolean("uniqueness.filter.enabled", true),
+            AppConfig.getLong("uniqueness.filter.expected.entries", 100_000),
+            Double.parseDouble(AppConfig.get("uniqueness.filter.false.positive.rate", "0.01")),
+            AppConfig.getLong("uniqueness.filter.rebuild.ms", 3_600_000),
+            System::currentTimeMillis);
+    }
+
+    UniquenessIndex(ConnectionPool.ConnectionFactory connections, boolean enabled, long minExpectedEntries,
+                    double falsePositiveRate, long rebuildIntervalMs, LongSupplier clock) {
+        this.connections = connections;
+        this.enabled = enabled;
+        this.minExpectedEntries = Math.max(1, minExpectedEntries);
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildIntervalMs = rebuildIntervalMs;
+        this.clock = clock;
+        for (Key key : Key.values()) {
+            journals.put(key, new ConcurrentLinkedQueue<>());
+            skipped.put(key, new AtomicLong());
+            fallThrough.put(key, new AtomicLong());
+        }
+    }
+
+    /** Builds the filters in the background and rebuilds them periodically. */
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "uniqueness-index");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = rebuildIntervalMs > 0 ? rebuildIntervalMs : Long.MAX_VALUE / 2;
+        scheduler.scheduleWithFixedDelay(this::rebuildAll, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * False only when {@code value} is definitely not stored, so the caller can
+     * skip its uniqueness query. True means "ask the database".
+     */
+    public boolean mightContain(Key key, String value) {
+        BloomFilter filter = filters.get(key);
+        if (filter == null || value == null || filter.mightContain(normalize(value))) {
+            fallThrough.get(key).incrementAndGet();
+            return true;
+        }
+        skipped.get(key).incrementAndGet();
+        return false;
+    }
+
+    /** Records a value about to be written. Call before the statement, not after. */
+    public void add(Key key, String value) {
+        if (!enabled || value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        long now = clock.getAsLong();
+        swapLock.readLock().lock();
+        try {
+            BloomFilter filter = filters.get(key);
+            if (filter != null) {
+                filter.add(normalized);
+            }
+            ConcurrentLinkedQueue<JournalEntry> journal = journals.get(key);
+            journal.add(new JournalEntry(normalized, now));
+            prune(journal, now - JOURNAL_WINDOW_MS);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady(Key key) {
+        return filters.containsKey(key);
+    }
+
+    void rebuildAll() {
+        for (Key key : Key.values()) {
+            try {
+                rebuild(key);
+            } catch (Exception e) {
+                System.err.println("Could not build uniqueness filter " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    void rebuild(Key key) throws SQLException {
+        long startedAt = clock.getAsLong();
+        long started = System.nanoTime();
+        long rows = 0;
+        BloomFilter rebuilt;
+
+        try (Connection conn = connections.create()) {
+            rebuilt = new BloomFilter(Math.max(minExpectedEntries, estimateRows(conn, key.table) * 2), falsePositiveRate);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT " + key.column + " FROM " + key.table,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String value = rs.getString(1);
+                        if (value != null) {
+                            rebuilt.add(normalize(value));
+                            rows++;
+                        }
+                    }
+                }
+            }
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            // Anything added since shortly before the scan may not be in it yet.
+            for (JournalEntry entry : journals.get(key)) {
+                if (entry.addedAt >= startedAt - JOURNAL_WINDOW_MS) {
+                    rebuilt.add(entry.value);
+                }
+            }
+            filters.put(key, rebuilt);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        System.out.println("✓ Uniqueness filter " + key + " built from " + rows + " rows ("
+            + rebuilt.getBitCount() / 8 / 1024 + " KB, " + rebuilt.getHashCount() + " hashes, "
+            + (System.nanoTime() - started) / 1_000_000 + " ms)");
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Key key : Key.values()) {
+            Map<String, Object> keyStats = new LinkedHashMap<>();
+            keyStats.put("ready", isReady(key));
+            keyStats.put("skipped", skipped.get(key).get());
+            keyStats.put("fellThrough", fallThrough.get(key).get());
+            stats.put(key.name(), keyStats);
+        }
+        return stats;
+    }
+
+    private static long estimateRows(Connection conn, String table) {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT table_rows FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    private static void prune(ConcurrentLinkedQueue<JournalEntry> journal, long cutoff) {
+        Iterator<JournalEntry> iterator = journal.iterator();
+        while (iterator.hasNext() && iterator.next().addedAt < cutoff) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Folds together values MySQL's default case- and accent-insensitive,
+     * pad-space collation treats as equal. Folding more than the database does
+     * only costs false positives; folding less would cause false negatives.
+     */
+    static String normalize(String value) {
+        String stripped = Normalizer.normalize(value.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+}
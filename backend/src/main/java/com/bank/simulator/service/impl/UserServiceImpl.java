@@ -1,43 +1,42 @@
 package com.bank.simulator.service.impl;
 
 import com.bank.simulator.config.DBConfig;
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
 import com.bank.simulator.model.User;
 import com.bank.simulator.service.UserService;
 
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class UserServiceImpl implements UserService {
     
-    private static final AtomicInteger userCounter;
-    
-    static {
-        userCounter = new AtomicInteger(getMaxUserIdFromDB() + 1);
-        System.out.println("=== USER SERVICE INITIALIZED ===");
-        System.out.println("Starting user counter at: " + userCounter.get());
+    /** Passwords are never listed. */
+    static final KeysetListing LISTING = new KeysetListing("User", "id")
+        .field("id", "id", KeysetListing.Type.STRING)
+        .field("fullName", "full_name", KeysetListing.Type.STRING)
+        .field("email", "email", KeysetListing.Type.STRING)
+        .field("active", "active", KeysetListing.Type.BOOLEAN)
+        .field("createdAt", "created_at", KeysetListing.Type.TIMESTAMP)
+        .field("updatedAt", "updated_at", KeysetListing.Type.TIMESTAMP)
+        .sortable("createdAt")
+        .sortable("email")
+        .defaultSort("-createdAt");
+
+    private final IdAllocator idAllocator;
+    private final UniquenessIndex uniquenessIndex;
+
+    public UserServiceImpl() {
+        this(new IdAllocator());
     }
-    
-    private static int getMaxUserIdFromDB() {
-        String query = "SELECT MAX(CAST(SUBSTRING(id, 6) AS UNSIGNED)) as max_id FROM User";
-        
-        try (Connection conn = DBConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                int maxId = rs.getInt("max_id");
-                System.out.println("Loaded max user ID from database: " + maxId);
-                return maxId;
-            }
-        } catch (SQLException e) {
-            System.err.println("Warning: Could not load max user ID from database");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Starting counter from 0 (first ID will be USER_1)");
-        }
-        
-        return 0;
+
+    public UserServiceImpl(IdAllocator idAllocator) {
+        this(idAllocator, new UniquenessIndex());
+    }
+
+    public UserServiceImpl(IdAllocator idAllocator, UniquenessIndex uniquenessIndex) {
+        this.idAllocator = idAllocator;
+        this.uniquenessIndex = uniquenessIndex;
     }
 
     @Override
@@ -51,6 +50,7 @@ public class UserServiceImpl implements UserService {
         user.setActive(true); 
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
+        uniquenessIndex.add(UniquenessIndex.Key.USER_EMAIL, user.getEmail());
         
         String query = """
             INSERT INTO User (id, full_name, email, password, active, created_at, updated_at) 
@@ -125,6 +125,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean isEmailExists(String email) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.USER_EMAIL, email)) {
+            System.out.println("Email is unique: " + email);
+            return false;
+        }
         String query = "SELECT COUNT(*) FROM User WHERE email = ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -269,6 +273,11 @@ public User validateLogin(String email, String password) {
     
     @Override
     public String generateUserId() {
-        return "USER_" + userCounter.getAndIncrement();
+        return "USER_" + idAllocator.next(IdAllocator.USER);
+    }
+
+    @Override
+    public ListingPage listUsers(PageRequest request) throws SQLException {
+        return LISTING.fetch(DBConfig::getConnection, request);
     }
 }
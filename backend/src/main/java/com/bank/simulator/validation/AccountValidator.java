@@ -2,6 +2,7 @@ package com.bank.simulator.validation;
 
 import com.bank.simulator.config.DBConfig;
 import com.bank.simulator.model.Account;
+import com.bank.simulator.service.impl.UniquenessIndex;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
@@ -17,6 +18,16 @@ public class AccountValidator {
     private static final Pattern AADHAR_PATTERN = Pattern.compile("^[0-9]{12}$");
     private static final Pattern ACCOUNT_NUMBER_PATTERN = Pattern.compile("^[0-9]{10,25}$");
 
+    private final UniquenessIndex uniquenessIndex;
+
+    public AccountValidator() {
+        this(new UniquenessIndex());
+    }
+
+    public AccountValidator(UniquenessIndex uniquenessIndex) {
+        this.uniquenessIndex = uniquenessIndex;
+    }
+
     
     public ValidationResult validateAccountForCreation(Account account) {
         System.out.println("=== ACCOUNT CREATION VALIDATION STARTED ===");
@@ -24,6 +35,39 @@ public class AccountValidator {
         System.out.println("Account Number: " + account.getAccountNumber());
         System.out.println("IFSC Code: " + account.getIfscCode());
         
+        ValidationResult result = validateAccountFields(account);
+        
+        if (result.isValid()) {
+            System.out.println("=== BASIC VALIDATIONS PASSED - CHECKING DATABASE CONSTRAINTS ===");
+            
+            ValidationResult aadharExistsValidation = validateAadharExistsInCustomer(account.getAadharNumber());
+            if (!aadharExistsValidation.isValid()) {
+                System.err.println("Error: Aadhar number not found");
+                result.addError("Aadhar number is not linked with any customer", "AADHAR_NOT_FOUND");
+            }
+            
+            ValidationResult accountNumberUniqueValidation = validateAccountNumberUniqueness(account.getAccountNumber());
+            if (!accountNumberUniqueValidation.isValid()) {
+                System.err.println("Error: Duplicate account creation attempted");
+                result.addError(accountNumberUniqueValidation.getFirstErrorMessage(), "ACCOUNT_NUMBER_EXISTS");
+            }
+        }
+        
+        System.out.println("=== ACCOUNT VALIDATION RESULT ===");
+        System.out.println("Valid: " + result.isValid());
+        if (!result.isValid()) {
+            System.err.println("Validation Errors: " + result.getAllErrorMessages());
+            System.err.println("Error Code: " + result.getErrorCode());
+        }
+        
+        return result;
+    }
+
+    /**
+     * Required-field and format checks only, no database access. Batch
+     * onboarding runs this per row and checks the database for the whole batch.
+     */
+    public ValidationResult validateAccountFields(Account account) {
         ValidationResult result = new ValidationResult();
         
         if (account.getAccountNumber() == null || account.getAccountNumber().trim().isEmpty()) {
@@ -87,29 +131,6 @@ public class AccountValidator {
             result.addError(nameOnAccountValidation.getFirstErrorMessage());
         }
         
-        if (result.isValid()) {
-            System.out.println("=== BASIC VALIDATIONS PASSED - CHECKING DATABASE CONSTRAINTS ===");
-            
-            ValidationResult aadharExistsValidation = validateAadharExistsInCustomer(account.getAadharNumber());
-            if (!aadharExistsValidation.isValid()) {
-                System.err.println("Error: Aadhar number not found");
-                result.addError("Aadhar number is not linked with any customer", "AADHAR_NOT_FOUND");
-            }
-            
-            ValidationResult accountNumberUniqueValidation = validateAccountNumberUniqueness(account.getAccountNumber());
-            if (!accountNumberUniqueValidation.isValid()) {
-                System.err.println("Error: Duplicate account creation attempted");
-                result.addError(accountNumberUniqueValidation.getFirstErrorMessage(), "ACCOUNT_NUMBER_EXISTS");
-            }
-        }
-        
-        System.out.println("=== ACCOUNT VALIDATION RESULT ===");
-        System.out.println("Valid: " + result.isValid());
-        if (!result.isValid()) {
-            System.err.println("Validation Errors: " + result.getAllErrorMessages());
-            System.err.println("Error Code: " + result.getErrorCode());
-        }
-        
         return result;
     }
 
@@ -396,6 +417,9 @@ public ValidationResult validateAccountNumberFormat(String accountNumber) {
 
  
     public ValidationResult validateAccountNumberUniqueness(String accountNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.ACCOUNT_NUMBER, accountNumber)) {
+            return ValidationResult.success();
+        }
         String query = "SELECT COUNT(*) FROM Account WHERE account_number = ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -421,6 +445,9 @@ public ValidationResult validateAccountNumberFormat(String accountNumber) {
 
     
     public ValidationResult validateAccountNumberUniquenessForUpdate(String currentAccountId, String accountNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.ACCOUNT_NUMBER, accountNumber)) {
+            return ValidationResult.success();
+        }
         String query = "SELECT COUNT(*) FROM Account WHERE account_number = ? AND account_id != ?";
         
         try (Connection conn = DBConfig.getConnection();
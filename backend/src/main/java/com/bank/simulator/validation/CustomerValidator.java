@@ -2,6 +2,7 @@ package com.bank.simulator.validation;
 
 import com.bank.simulator.config.DBConfig;
 import com.bank.simulator.model.Customer;
+import com.bank.simulator.service.impl.UniquenessIndex;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -22,12 +23,61 @@ public class CustomerValidator {
     private static final Pattern AADHAR_PATTERN = 
         Pattern.compile("^[0-9]{12}$");
 
+    private final UniquenessIndex uniquenessIndex;
+
+    public CustomerValidator() {
+        this(new UniquenessIndex());
+    }
+
+    public CustomerValidator(UniquenessIndex uniquenessIndex) {
+        this.uniquenessIndex = uniquenessIndex;
+    }
+
     public ValidationResult validateCustomerForCreation(Customer customer) {
         System.out.println("=== CUSTOMER CREATION VALIDATION STARTED ===");
         System.out.println("Customer Name: " + customer.getName());
         System.out.println("Phone Number: " + customer.getPhoneNumber());
         System.out.println("Email: " + customer.getEmail());
         
+        ValidationResult result = validateCustomerFields(customer);
+        
+        if (result.isValid()) {
+            System.out.println("=== BASIC VALIDATIONS PASSED - CHECKING UNIQUENESS ===");
+            
+            ValidationResult phoneUniqueValidation = validatePhoneNumberUniqueness(customer.getPhoneNumber());
+            if (!phoneUniqueValidation.isValid()) {
+                result.addError(phoneUniqueValidation.getFirstErrorMessage(), "PHONE_EXISTS");
+            }
+            
+            // ValidationResult emailUniqueValidation = validateEmailUniqueness(customer.getEmail());
+            // if (!emailUniqueValidation.isValid()) {
+            //     result.addError(emailUniqueValidation.getFirstErrorMessage(), "EMAIL_EXISTS");
+            // }
+            ValidationResult emailUniqueValidation = validateEmailUniqueness(customer.getEmail());
+            if (!emailUniqueValidation.isValid()) {
+                result.addError(emailUniqueValidation.getFirstErrorMessage(), "EMAIL_EXISTS");
+            }
+            
+            ValidationResult aadharUniqueValidation = validateAadharNumberUniqueness(customer.getAadharNumber());
+            if (!aadharUniqueValidation.isValid()) {
+                result.addError(aadharUniqueValidation.getFirstErrorMessage(), "AADHAR_EXISTS");
+            }
+        }
+        
+        System.out.println("=== CUSTOMER VALIDATION RESULT ===");
+        System.out.println("Valid: " + result.isValid());
+        if (!result.isValid()) {
+            System.out.println("Errors: " + result.getAllErrorMessages());
+        }
+        
+        return result;
+    }
+
+    /**
+     * Format checks only, no database access. Batch onboarding runs this per row
+     * and checks uniqueness for the whole batch at once.
+     */
+    public ValidationResult validateCustomerFields(Customer customer) {
         ValidationResult result = new ValidationResult();
         
         ValidationResult nameValidation = validateName(customer.getName());
@@ -65,35 +115,6 @@ public class CustomerValidator {
             result.addError(dobValidation.getFirstErrorMessage());
         }
         
-        if (result.isValid()) {
-            System.out.println("=== BASIC VALIDATIONS PASSED - CHECKING UNIQUENESS ===");
-            
-            ValidationResult phoneUniqueValidation = validatePhoneNumberUniqueness(customer.getPhoneNumber());
-            if (!phoneUniqueValidation.isValid()) {
-                result.addError(phoneUniqueValidation.getFirstErrorMessage(), "PHONE_EXISTS");
-            }
-            
-            // ValidationResult emailUniqueValidation = validateEmailUniqueness(customer.getEmail());
-            // if (!emailUniqueValidation.isValid()) {
-            //     result.addError(emailUniqueValidation.getFirstErrorMessage(), "EMAIL_EXISTS");
-            // }
-            ValidationResult emailUniqueValidation = validateEmailUniqueness(customer.getEmail());
-            if (!emailUniqueValidation.isValid()) {
-                result.addError(emailUniqueValidation.getFirstErrorMessage(), "EMAIL_EXISTS");
-            }
-            
-            ValidationResult aadharUniqueValidation = validateAadharNumberUniqueness(customer.getAadharNumber());
-            if (!aadharUniqueValidation.isValid()) {
-                result.addError(aadharUniqueValidation.getFirstErrorMessage(), "AADHAR_EXISTS");
-            }
-        }
-        
-        System.out.println("=== CUSTOMER VALIDATION RESULT ===");
-        System.out.println("Valid: " + result.isValid());
-        if (!result.isValid()) {
-            System.out.println("Errors: " + result.getAllErrorMessages());
-        }
-        
         return result;
     }
 
@@ -170,6 +191,9 @@ public class CustomerValidator {
     }
 
     public ValidationResult validatePhoneNumberUniqueForUpdate(String customerId, String phoneNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, phoneNumber)) {
+            return ValidationResult.success();
+        }
         String query = "SELECT COUNT(*) FROM Customer WHERE phone_number = ? AND customer_id != ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -218,6 +242,9 @@ public class CustomerValidator {
     }
 
     public ValidationResult validateAadharNumberUniqueForUpdate(String customerId, String aadharNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.CUSTOMER_AADHAR, aadharNumber)) {
+            return ValidationResult.success();
+        }
         String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ? AND customer_id != ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -370,6 +397,9 @@ public class CustomerValidator {
     }
 
     public ValidationResult validatePhoneNumberUniqueness(String phoneNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, phoneNumber)) {
+            return ValidationResult.success();
+        }
         String query = "SELECT COUNT(*) FROM Customer WHERE phone_number = ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -416,6 +446,9 @@ public class CustomerValidator {
     
 
     public ValidationResult validateAadharNumberUniqueness(String aadharNumber) {
+        if (!uniquenessIndex.mightContain(UniquenessIndex.Key.CUSTOMER_AADHAR, aadharNumber)) {
+            return ValidationResult.success();
+        }
         String query = "SELECT COUNT(*) FROM Customer WHERE aadhar_number = ?";
         
         try (Connection conn = DBConfig.getConnection();
@@ -2,6 +2,7 @@ package com.bank.simulator.validation;
 
 import com.bank.simulator.config.DBConfig;
 import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferSnapshot;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
@@ -11,9 +12,8 @@ import java.sql.SQLException;
 
 public class TransactionValidator {
 
-    public ValidationResult validateTransactionForCreation(Transaction transaction) {
-        System.out.println("=== TRANSACTION VALIDATION STARTED ===");
-        
+    /** Field checks only, no database access. */
+    public ValidationResult validateTransactionFields(Transaction transaction) {
         ValidationResult result = new ValidationResult();
 
         if (transaction == null) {
@@ -49,7 +49,16 @@ public class TransactionValidator {
                 result.addError(sameAccountValidation.getFirstErrorMessage(), "SAME_ACCOUNT");
                 return result;
             }
+        }
+
+        return result;
+    }
 
+    public ValidationResult validateTransactionForCreation(Transaction transaction) {
+        System.out.println("=== TRANSACTION VALIDATION STARTED ===");
+        ValidationResult result = validateTransactionFields(transaction);
+
+        if (result.isValid()) {
             ValidationResult senderExistsValidation = validateAccountExists(transaction.getSenderAccountNumber());
             if (!senderExistsValidation.isValid()) {
                 result.addError("Sender account does not exist", "SENDER_NOT_FOUND");
@@ -80,6 +89,81 @@ public class TransactionValidator {
         return result;
     }
 
+    public ValidationResult validateTransactionForCreation(Transaction transaction, TransferSnapshot snapshot) {
+        return validateTransactionForCreation(transaction, snapshot, true);
+    }
+
+    /**
+     * With {@code checkBalance} false the snapshot's balance is not checked;
+     * the in-memory ledger checks it under its lock, and while the ledger is on
+     * the stored balance can trail it by a persist interval.
+     */
+    public ValidationResult validateTransactionForCreation(Transaction transaction, TransferSnapshot snapshot,
+                                                           boolean checkBalance) {
+        System.out.println("=== TRANSACTION VALIDATION STARTED ===");
+        ValidationResult result = validateTransactionFields(transaction);
+
+        if (result.isValid()) {
+            if (snapshot.getSender() == null) {
+                result.addError("Sender account does not exist", "SENDER_NOT_FOUND");
+                return result;
+            }
+
+            if (snapshot.getReceiver() == null) {
+                result.addError("Receiver account does not exist", "RECEIVER_NOT_FOUND");
+                return result;
+            }
+
+            BigDecimal currentBalance = snapshot.getSender().getBalance();
+            System.out.println("Current Balance: " + currentBalance + ", Required: " + transaction.getAmount());
+            if (checkBalance && (currentBalance == null || currentBalance.compareTo(transaction.getAmount()) < 0)) {
+                result.addError(
+                    "Insufficient balance. Available: " + currentBalance + ", Required: " + transaction.getAmount(),
+                    "INSUFFICIENT_BALANCE"
+                );
+            }
+        }
+
+        System.out.println("=== VALIDATION RESULT ===");
+        System.out.println("Valid: " + result.isValid());
+        if (!result.isValid()) {
+            System.out.println("Errors: " + result.getAllErrorMessages());
+        }
+
+        return result;
+    }
+
+    /**
+     * The account, customer, user and PIN checks createTransaction applies,
+     * for one row of a bulk transfer. The balance is checked later, against
+     * the locked rows.
+     */
+    public ValidationResult validateTransferParties(Transaction transaction, TransferSnapshot.Party sender,
+                                                    TransferSnapshot.Party receiver) {
+        if (sender == null) {
+            return ValidationResult.failure("Sender account not found", "SENDER_NOT_FOUND");
+        }
+        if (!sender.isAccountActive()) {
+            return ValidationResult.failure("Sender account is deactivated", "SENDER_INACTIVE");
+        }
+        if (receiver == null) {
+            return ValidationResult.failure("Receiver account not found", "RECEIVER_NOT_FOUND");
+        }
+        if (!receiver.isAccountActive()) {
+            return ValidationResult.failure("Receiver account is deactivated", "RECEIVER_INACTIVE");
+        }
+        if (!sender.hasCustomer()) {
+            return ValidationResult.failure("Customer not found", "CUSTOMER_NOT_FOUND");
+        }
+        if (Boolean.FALSE.equals(sender.getUserActive())) {
+            return ValidationResult.failure("Sender's user account is deactivated", "USER_INACTIVE");
+        }
+        if (transaction.getPin() == null || !transaction.getPin().equals(sender.getCustomerPin())) {
+            return ValidationResult.failure("Invalid PIN", "INVALID_PIN");
+        }
+        return ValidationResult.success();
+    }
+
     private ValidationResult validateSenderAccountNumber(String accountNumber) {
         if (accountNumber == null || accountNumber.trim().isEmpty()) {
             return ValidationResult.failure("Sender account number is required");
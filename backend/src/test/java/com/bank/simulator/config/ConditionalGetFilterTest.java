@@ -0,0 +1,184 @@
+package com.bank.simulator.config;
+
+import com.bank.simulator.service.AccountService;
+import com.bank.simulator.service.CustomerService;
+import com.bank.simulator.service.TransactionService;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetFilterTest {
+
+    private String accountVersion = "ACC001|1000.00|2024-01-01 12:00:00.000001";
+    private int probes;
+    private final RequestExecutor executor = new RequestExecutor(1, 1, 0, 2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    static class Resources {
+        @ConditionalGet(value = ConditionalGet.Resource.ACCOUNT, param = "account_number")
+        public void account() {
+        }
+
+        public void plain() {
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testFirstReadGetsETagAndRepeatGets304() throws Exception {
+        ConditionalGetFilter filter = filter("account");
+
+        FakeRequest first = new FakeRequest(null);
+        filter.filter(first.context);
+        assertNull(first.aborted);
+        MultivaluedMap<String, Object> headers = respond(filter, first, 200);
+        EntityTag etag = (EntityTag) headers.getFirst(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals("private, no-cache", headers.getFirst(HttpHeaders.CACHE_CONTROL));
+
+        FakeRequest repeat = new FakeRequest(etag);
+        filter.filter(repeat.context);
+        assertNotNull(repeat.aborted);
+        assertEquals(304, repeat.aborted.getStatus());
+        assertEquals(2, probes);
+    }
+
+    @Test
+    void testChangedVersionGetsFullResponse() throws Exception {
+        ConditionalGetFilter filter = filter("account");
+        FakeRequest first = new FakeRequest(null);
+        filter.filter(first.context);
+        EntityTag etag = (EntityTag) respond(filter, first, 200).getFirst(HttpHeaders.ETAG);
+
+        accountVersion = "ACC001|990.00|2024-01-01 12:00:00.000002";
+        FakeRequest repeat = new FakeRequest(etag);
+        filter.filter(repeat.context);
+
+        assertNull(repeat.aborted);
+        assertNotEquals(etag, respond(filter, repeat, 200).getFirst(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testUnknownResourceAndUnannotatedMethodsAreLeftAlone() throws Exception {
+        accountVersion = null;
+        FakeRequest missing = new FakeRequest(null);
+        filter("account").filter(missing.context);
+        assertNull(respond(filter("account"), missing, 404).getFirst(HttpHeaders.ETAG));
+
+        FakeRequest plain = new FakeRequest(null);
+        filter("plain").filter(plain.context);
+        assertNull(plain.aborted);
+        assertEquals(1, probes);
+    }
+
+    @Test
+    void testProbeIsSkippedWhileExecutorIsSaturated() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        executor.submit(asyncResponse(), () -> {
+            running.countDown();
+            release.await();
+            return Response.ok().build();
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        executor.submit(asyncResponse(), () -> Response.ok().build());
+        assertTrue(executor.isSaturated());
+
+        FakeRequest request = new FakeRequest(null);
+        filter("account").filter(request.context);
+
+        assertNull(request.aborted);
+        assertNull(respond(filter("account"), request, 200).getFirst(HttpHeaders.ETAG));
+        assertEquals(0, probes);
+    }
+
+    private static AsyncResponse asyncResponse() {
+        return proxy(AsyncResponse.class, (name, args) -> null);
+    }
+
+    private ConditionalGetFilter filter(String methodName) throws NoSuchMethodException {
+        Method method = Resources.class.getMethod(methodName);
+        ResourceInfo resourceInfo = proxy(ResourceInfo.class, (name, args) ->
+            "getResourceMethod".equals(name) ? method : null);
+        AccountService accounts = proxy(AccountService.class, (name, args) -> {
+            probes++;
+            return "getAccountVersion".equals(name) ? accountVersion : null;
+        });
+        return new ConditionalGetFilter(resourceInfo, accounts,
+            proxy(CustomerService.class, (name, args) -> null), proxy(TransactionService.class, (name, args) -> null),
+            executor);
+    }
+
+    private static MultivaluedMap<String, Object> respond(ConditionalGetFilter filter, FakeRequest request, int status) {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        ContainerResponseContext response = proxy(ContainerResponseContext.class, (name, args) -> switch (name) {
+            case "getStatus" -> status;
+            case "getHeaders" -> headers;
+            default -> null;
+        });
+        filter.filter(request.context, response);
+        return headers;
+    }
+
+    /** A GET of /account/number/1234567890 with an optional If-None-Match. */
+    private static class FakeRequest {
+        private final Map<String, Object> properties = new HashMap<>();
+        private Response aborted;
+        private final ContainerRequestContext context;
+
+        FakeRequest(EntityTag ifNoneMatch) {
+            MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<>();
+            pathParameters.add("account_number", "1234567890");
+            UriInfo uriInfo = proxy(UriInfo.class, (name, args) ->
+                "getPathParameters".equals(name) ? pathParameters : null);
+            Request request = proxy(Request.class, (name, args) ->
+                "evaluatePreconditions".equals(name) && ifNoneMatch != null && ifNoneMatch.equals(args[0])
+                    ? Response.notModified((EntityTag) args[0]) : null);
+            context = proxy(ContainerRequestContext.class, (name, args) -> switch (name) {
+                case "getMethod" -> "GET";
+                case "getUriInfo" -> uriInfo;
+                case "getRequest" -> request;
+                case "getProperty" -> properties.get((String) args[0]);
+                case "setProperty" -> properties.put((String) args[0], args[1]);
+                case "abortWith" -> {
+                    aborted = (Response) args[0];
+                    yield null;
+                }
+                default -> null;
+            });
+        }
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(ConditionalGetFilterTest.class.getClassLoader(), new Class<?>[]{type},
+            (p, method, args) -> handler.handle(method.getName(), args));
+    }
+}
@@ -0,0 +1,127 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private List<FakeConnection> physicalConnections;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        physicalConnections = new ArrayList<>();
+        pool = new ConnectionPool(this::newPhysicalConnection, new ConnectionPool.PoolSettings()
+            .minIdle(0)
+            .maxSize(2)
+            .connectionTimeoutMs(100)
+            .housekeepingPeriodMs(60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testClosedConnectionIsReused() throws SQLException {
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+
+        assertEquals(1, physicalConnections.size());
+        assertFalse(physicalConnections.get(0).closed);
+    }
+
+    @Test
+    void testBorrowTimesOutWhenPoolExhausted() throws SQLException {
+        pool.getConnection();
+        pool.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> pool.getConnection());
+        assertEquals(1L, pool.getMetrics().get("timeouts"));
+    }
+
+    @Test
+    void testOpenTransactionIsRolledBackOnReturn() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+
+        conn.close();
+
+        FakeConnection physical = physicalConnections.get(0);
+        assertTrue(physical.rolledBack);
+        assertTrue(physical.autoCommit);
+    }
+
+    @Test
+    void testInvalidIdleConnectionIsReplacedOnBorrow() throws SQLException {
+        pool.getConnection().close();
+        FakeConnection stale = physicalConnections.get(0);
+        stale.valid = false;
+
+        pool.getConnection().close();
+
+        assertEquals(2, physicalConnections.size());
+        assertTrue(stale.closed);
+    }
+
+    @Test
+    void testStaleHandleCannotUseReturnedConnection() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        assertEquals(0, pool.getMetrics().get("active"));
+        assertEquals(1, pool.getMetrics().get("idle"));
+    }
+
+    @Test
+    void testShutdownClosesIdleConnections() throws SQLException {
+        pool.getConnection().close();
+        pool.shutdown();
+
+        assertTrue(physicalConnections.get(0).closed);
+        assertThrows(SQLException.class, () -> pool.getConnection());
+    }
+
+    private Connection newPhysicalConnection() {
+        FakeConnection fake = new FakeConnection();
+        physicalConnections.add(fake);
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> fake.handle(method.getName(), args));
+    }
+
+    private static class FakeConnection {
+        boolean valid = true;
+        boolean autoCommit = true;
+        boolean rolledBack;
+        boolean closed;
+
+        Object handle(String method, Object[] args) {
+            switch (method) {
+                case "isValid": return valid;
+                case "getAutoCommit": return autoCommit;
+                case "setAutoCommit": autoCommit = (Boolean) args[0]; return null;
+                case "rollback": rolledBack = true; return null;
+                case "close": closed = true; return null;
+                case "isClosed": return closed;
+                default: return null;
+            }
+        }
+    }
+}
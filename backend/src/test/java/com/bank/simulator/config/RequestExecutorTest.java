@@ -0,0 +1,107 @@
+package com.bank.simulator.config;
+
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.TimeoutHandler;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestExecutorTest {
+
+    private RequestExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testHandlerResultIsResumed() throws Exception {
+        executor = new RequestExecutor(2, 10, 0, 2);
+        FakeResponse response = new FakeResponse();
+
+        executor.submit(response.proxy, () -> Response.ok("done").build());
+
+        assertEquals(200, response.result.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(1L, executor.getMetrics().get("accepted"));
+    }
+
+    @Test
+    void testFullQueueIsShedWithRetryAfter() throws Exception {
+        executor = new RequestExecutor(1, 1, 0, 7);
+        CountDownLatch running = new CountDownLatch(1);
+        executor.submit(new FakeResponse().proxy, () -> {
+            running.countDown();
+            release.await();
+            return Response.ok().build();
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        executor.submit(new FakeResponse().proxy, () -> Response.ok().build());
+
+        FakeResponse shed = new FakeResponse();
+        executor.submit(shed.proxy, () -> Response.ok().build());
+
+        Response response = shed.result.get(5, TimeUnit.SECONDS);
+        assertEquals(503, response.getStatus());
+        assertEquals("7", String.valueOf(response.getHeaderString("Retry-After")));
+        assertEquals(1L, executor.getMetrics().get("rejected"));
+        assertEquals(1, executor.getMetrics().get("queueDepth"));
+    }
+
+    @Test
+    void testTimeoutDropsQueuedRequestButNotRunningOne() throws Exception {
+        executor = new RequestExecutor(1, 10, 60_000, 2);
+        CountDownLatch running = new CountDownLatch(1);
+        FakeResponse busy = new FakeResponse();
+        executor.submit(busy.proxy, () -> {
+            running.countDown();
+            release.await();
+            return Response.ok().build();
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        AtomicBoolean queuedRan = new AtomicBoolean();
+        FakeResponse queued = new FakeResponse();
+        executor.submit(queued.proxy, () -> {
+            queuedRan.set(true);
+            return Response.ok().build();
+        });
+
+        busy.timeoutHandler.handleTimeout(busy.proxy);
+        queued.timeoutHandler.handleTimeout(queued.proxy);
+
+        assertEquals(503, queued.result.get(5, TimeUnit.SECONDS).getStatus());
+        assertFalse(busy.result.isDone());
+        release.countDown();
+        assertEquals(200, busy.result.get(5, TimeUnit.SECONDS).getStatus());
+        executor.shutdown();
+        assertFalse(queuedRan.get());
+        assertEquals(1L, executor.getMetrics().get("timedOut"));
+    }
+
+    /** Records what the executor resumes the request with. */
+    private static class FakeResponse {
+        private final CompletableFuture<Response> result = new CompletableFuture<>();
+        private volatile TimeoutHandler timeoutHandler;
+        private final AsyncResponse proxy = (AsyncResponse) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{AsyncResponse.class}, (p, method, args) -> switch (method.getName()) {
+                case "resume" -> result.complete((Response) args[0]);
+                case "setTimeoutHandler" -> {
+                    timeoutHandler = (TimeoutHandler) args[0];
+                    yield null;
+                }
+                case "setTimeout" -> true;
+                case "isDone" -> result.isDone();
+                default -> null;
+            });
+    }
+}
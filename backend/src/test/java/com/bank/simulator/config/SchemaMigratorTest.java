@@ -0,0 +1,161 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    private Set<Integer> appliedVersions;
+    private Set<String> existingIndexes;
+    private List<String> executed;
+    private boolean lockReleased;
+
+    @BeforeEach
+    void setUp() {
+        appliedVersions = new TreeSet<>();
+        existingIndexes = new TreeSet<>();
+        executed = new ArrayList<>();
+        lockReleased = false;
+    }
+
+    @Test
+    void testFreshDatabaseAppliesEveryMigration() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(this::fakeConnection, SchemaMigrator.defaultMigrations());
+
+        int applied = migrator.migrate();
+
+        assertEquals(SchemaMigrator.defaultMigrations().size(), applied);
+        assertEquals(Set.of(1, 2, 3, 4, 5), appliedVersions);
+        assertTrue(executed.stream().anyMatch(sql -> sql.contains("CREATE TABLE IF NOT EXISTS LedgerCheckpoint")));
+        assertTrue(executed.stream().anyMatch(sql -> sql.contains("CREATE TABLE IF NOT EXISTS Transaction")));
+        assertTrue(executed.contains(
+            "CREATE INDEX idx_txn_sender_date ON Transaction (sender_account_number, created_date, transaction_id)"));
+        assertTrue(lockReleased);
+    }
+
+    @Test
+    void testAppliedVersionsAreSkipped() throws SQLException {
+        appliedVersions.add(1);
+        appliedVersions.add(2);
+        appliedVersions.add(3);
+        appliedVersions.add(4);
+        appliedVersions.add(5);
+        SchemaMigrator migrator = new SchemaMigrator(this::fakeConnection, SchemaMigrator.defaultMigrations());
+
+        assertEquals(0, migrator.migrate());
+        assertTrue(executed.stream().noneMatch(sql -> sql.startsWith("CREATE INDEX")));
+    }
+
+    @Test
+    void testExistingIndexIsNotRecreated() throws SQLException {
+        appliedVersions.add(1);
+        existingIndexes.add("Customer.idx_customer_email");
+        SchemaMigrator migrator = new SchemaMigrator(this::fakeConnection, SchemaMigrator.defaultMigrations());
+
+        migrator.migrate();
+
+        assertTrue(executed.stream().noneMatch(sql -> sql.contains("idx_customer_email")));
+        assertTrue(appliedVersions.contains(2));
+    }
+
+    @Test
+    void testFailedMigrationIsNotRecorded() {
+        List<SchemaMigrator.Migration> migrations = List.of(
+            new SchemaMigrator.Migration(1, "ok", List.of(SchemaMigrator.sql("CREATE TABLE a (id INT)"))),
+            new SchemaMigrator.Migration(2, "broken", List.of(conn -> { throw new SQLException("syntax error"); })),
+            new SchemaMigrator.Migration(3, "later", List.of(SchemaMigrator.sql("CREATE TABLE c (id INT)"))));
+        SchemaMigrator migrator = new SchemaMigrator(this::fakeConnection, migrations);
+
+        assertThrows(SQLException.class, migrator::migrate);
+        assertEquals(Set.of(1), appliedVersions);
+        assertFalse(executed.contains("CREATE TABLE c (id INT)"));
+        assertTrue(lockReleased);
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "createStatement": return fakeStatement();
+                    case "prepareStatement": return fakePreparedStatement((String) args[0]);
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private Statement fakeStatement() {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "executeUpdate":
+                        executed.add(((String) args[0]).trim());
+                        return 0;
+                    case "executeQuery": return resultSet(new ArrayList<>(appliedVersions));
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private PreparedStatement fakePreparedStatement(String sql) {
+        Object[] params = new Object[3];
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                    case "setInt":
+                        params[(Integer) args[0]] = args[1];
+                        return null;
+                    case "executeQuery":
+                        if (sql.contains("GET_LOCK")) {
+                            return resultSet(List.of(1));
+                        }
+                        if (sql.contains("RELEASE_LOCK")) {
+                            lockReleased = true;
+                            return resultSet(List.of(1));
+                        }
+                        return resultSet(List.of(existingIndexes.contains(params[1] + "." + params[2]) ? 1 : 0));
+                    case "executeUpdate":
+                        appliedVersions.add((Integer) params[1]);
+                        return 1;
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private ResultSet resultSet(List<Integer> values) {
+        Iterator<Integer> rows = values.iterator();
+        Integer[] current = new Integer[1];
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        if (!rows.hasNext()) {
+                            return false;
+                        }
+                        current[0] = rows.next();
+                        return true;
+                    case "getInt": return current[0];
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.simulator.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaFallbackFilterTest {
+
+    @Test
+    void testClientRoutesFallBackToIndex() {
+        assertTrue(SpaFallbackFilter.isClientRoute("GET", "/dashboard"));
+        assertTrue(SpaFallbackFilter.isClientRoute("GET", "/accounts/ACC001/transactions"));
+        assertTrue(SpaFallbackFilter.isClientRoute("HEAD", "/login"));
+    }
+
+    @Test
+    void testApiAssetsAndOtherMethodsPassThrough() {
+        assertFalse(SpaFallbackFilter.isClientRoute("GET", "/"));
+        assertFalse(SpaFallbackFilter.isClientRoute("GET", "/api"));
+        assertFalse(SpaFallbackFilter.isClientRoute("GET", "/api/healthz"));
+        assertFalse(SpaFallbackFilter.isClientRoute("GET", "/assets/index-4f9a1c.js"));
+        assertFalse(SpaFallbackFilter.isClientRoute("GET", "/favicon.ico"));
+        assertFalse(SpaFallbackFilter.isClientRoute("POST", "/dashboard"));
+    }
+}
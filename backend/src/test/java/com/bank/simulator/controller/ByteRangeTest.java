@@ -0,0 +1,50 @@
+package com.bank.simulator.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void testExplicitAndOpenEndedRanges() {
+        ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+        assertEquals(0, range.getStart());
+        assertEquals(99, range.getEnd());
+        assertEquals(100, range.length());
+
+        range = ByteRange.parse("bytes=900-", 1000);
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+
+        range = ByteRange.parse("bytes=990-5000", 1000);
+        assertEquals(999, range.getEnd());
+    }
+
+    @Test
+    void testSuffixRange() {
+        ByteRange range = ByteRange.parse("bytes=-100", 1000);
+        assertEquals(900, range.getStart());
+        assertEquals(999, range.getEnd());
+
+        range = ByteRange.parse("bytes=-5000", 1000);
+        assertEquals(0, range.getStart());
+    }
+
+    @Test
+    void testUnsatisfiableRange() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-500", 0));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+    }
+
+    @Test
+    void testIgnoredHeadersServeWholeFile() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-10", 1000));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", 1000));
+        assertNull(ByteRange.parse("bytes=abc-", 1000));
+        assertNull(ByteRange.parse("bytes=50-10", 1000));
+    }
+}
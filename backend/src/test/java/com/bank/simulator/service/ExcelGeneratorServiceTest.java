@@ -0,0 +1,72 @@
+package com.bank.simulator.service;
+
+import com.bank.simulator.model.Transaction;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelGeneratorServiceTest {
+
+    private final ExcelGeneratorService excelService = new ExcelGeneratorService();
+
+    @Test
+    void testStreamedWorkbookContainsEveryRow() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int rows = 2_500;
+
+        try (ExcelGeneratorService.TransactionExcelWriter writer = excelService.openWriter(out)) {
+            for (int i = 0; i < rows; i++) {
+                writer.append(transaction(i));
+            }
+            writer.finish();
+            assertEquals(rows, writer.getRowsWritten());
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Transactions");
+            assertEquals(rows, sheet.getLastRowNum());
+            assertEquals("Sender Account", sheet.getRow(0).getCell(0).getStringCellValue());
+
+            Row last = sheet.getRow(rows);
+            assertEquals("1234567890123456", last.getCell(0).getStringCellValue());
+            assertEquals(rows - 1 + 0.5, last.getCell(2).getNumericCellValue(), 0.001);
+            assertEquals(40 * 256, sheet.getColumnWidth(4));
+        }
+    }
+
+    @Test
+    void testBlankDescriptionExportedAsNA() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Transaction transaction = transaction(1);
+        transaction.setDescription("  ");
+
+        try (ExcelGeneratorService.TransactionExcelWriter writer = excelService.openWriter(out)) {
+            writer.append(transaction);
+            writer.finish();
+        }
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("N/A", workbook.getSheetAt(0).getRow(1).getCell(4).getStringCellValue());
+        }
+    }
+
+    private Transaction transaction(int i) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderAccountNumber("1234567890123456");
+        transaction.setReceiverAccountNumber("9876543210987654");
+        transaction.setAmount(BigDecimal.valueOf(i).add(new BigDecimal("0.5")));
+        transaction.setDescription("Payment " + i);
+        transaction.setCreatedDate(LocalDateTime.of(2026, 10, 17, 10, 0).plusMinutes(i));
+        return transaction;
+    }
+}
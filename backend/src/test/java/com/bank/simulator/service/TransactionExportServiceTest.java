@@ -0,0 +1,111 @@
+package com.bank.simulator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionExportServiceTest {
+
+    private final TransactionExportService exportService = new TransactionExportService();
+
+    @Test
+    void testCsvHeaderAndQuoting() throws Exception {
+        String csv = export(ExportFormat.CSV,
+            row("TXN_1", "Rent, March", "1500.00"),
+            row("TXN_2", "He said \"hi\"", "20.50"),
+            row("TXN_3", null, "1.00"));
+
+        String[] lines = csv.split("\r\n");
+        assertEquals("transaction_id,sender_account_number,receiver_account_number,amount,transaction_type,description,created_date", lines[0]);
+        assertEquals("TXN_1,1234567890123456,9876543210987654,1500.00,ONLINE,\"Rent, March\",2026-10-17 09:30:00", lines[1]);
+        assertTrue(lines[2].contains(",\"He said \"\"hi\"\"\","));
+        assertTrue(lines[3].contains(",ONLINE,,2026-10-17"));
+        assertEquals(4, lines.length);
+    }
+
+    @Test
+    void testCsvNeutralisesFormulaCellsButNotAmounts() throws Exception {
+        String csv = export(ExportFormat.CSV,
+            row("TXN_1", "=HYPERLINK(\"http://evil\",\"x\")", "-15.00"),
+            row("TXN_2", "+1+1", "20.50"),
+            row("TXN_3", "@SUM(A1)", "1.00"),
+            row("TXN_4", "-2+3", "1.00"),
+            row("TXN_5", "a=b", "1.00"));
+
+        String[] lines = csv.split("\r\n");
+        assertTrue(lines[1].contains(",-15.00,ONLINE,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\","));
+        assertTrue(lines[2].contains(",ONLINE,'+1+1,"));
+        assertTrue(lines[3].contains(",ONLINE,'@SUM(A1),"));
+        assertTrue(lines[4].contains(",ONLINE,'-2+3,"));
+        assertTrue(lines[5].contains(",ONLINE,a=b,"));
+    }
+
+    @Test
+    void testNdjsonOneObjectPerLine() throws Exception {
+        String ndjson = export(ExportFormat.NDJSON,
+            row("TXN_1", "line\nbreak \"quoted\"", "1500.00"),
+            row("TXN_2", null, "20.50"));
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"transactionId\":\"TXN_1\",\"senderAccountNumber\":\"1234567890123456\","
+            + "\"receiverAccountNumber\":\"9876543210987654\",\"amount\":1500.00,\"transactionType\":\"ONLINE\","
+            + "\"description\":\"line\\nbreak \\\"quoted\\\"\",\"createdDate\":\"2026-10-17T09:30:00\"}", lines[0]);
+        assertTrue(lines[1].contains("\"description\":null"));
+    }
+
+    @Test
+    void testFormatResolution() {
+        assertEquals(ExportFormat.CSV, ExportFormat.resolve("csv", null));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.resolve("NDJSON", List.of("text/csv")));
+        assertEquals(ExportFormat.CSV, ExportFormat.resolve(null, List.of("application/json", "text/csv")));
+        assertEquals(ExportFormat.XLSX, ExportFormat.resolve(null,
+            List.of("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")));
+        assertNull(ExportFormat.resolve(null, List.of("application/json", "*/*")));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.resolve("pdf", null));
+    }
+
+    @SafeVarargs
+    private String export(ExportFormat format, Map<String, String>... rows) throws SQLException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionExportService.RowWriter writer = exportService.openWriter(format, out);
+        for (Map<String, String> row : rows) {
+            writer.accept(resultSet(row));
+        }
+        writer.finish();
+        assertEquals(rows.length, writer.getRowsWritten());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Map<String, String> row(String transactionId, String description, String amount) {
+        Map<String, String> row = new HashMap<>();
+        row.put("transaction_id", transactionId);
+        row.put("sender_account_number", "1234567890123456");
+        row.put("receiver_account_number", "9876543210987654");
+        row.put("amount", amount);
+        row.put("transaction_type", "ONLINE");
+        row.put("description", description);
+        row.put("created_date", "2026-10-17 09:30:00.0");
+        return row;
+    }
+
+    private ResultSet resultSet(Map<String, String> row) {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("getString")) {
+                    return row.get((String) args[0]);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
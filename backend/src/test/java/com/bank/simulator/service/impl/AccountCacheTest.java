@@ -0,0 +1,79 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.Account;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void testHitReturnsCopyWithoutBalance() {
+        AccountCache cache = new AccountCache(10, 60_000, now::get);
+        cache.put(account("ACC_1", "1000000001", "ACTIVE"));
+
+        Account first = cache.get("1000000001");
+        assertNotNull(first);
+        assertEquals("ACC_1", first.getAccountId());
+        assertEquals("HDFC0001234", first.getIfscCode());
+        assertNull(first.getAmount());
+
+        first.setAccountId(null);
+        assertEquals("ACC_1", cache.get("1000000001").getAccountId());
+        assertEquals(2L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    void testMissesAndExpiry() {
+        AccountCache cache = new AccountCache(10, 5_000, now::get);
+        assertNull(cache.get("1000000001"));
+
+        cache.put(account("ACC_1", "1000000001", "ACTIVE"));
+        now.addAndGet(4_999);
+        assertNotNull(cache.get("1000000001"));
+        now.addAndGet(1);
+        assertNull(cache.get("1000000001"));
+
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(2L, cache.getStats().get("misses"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvictedAtCapacity() {
+        AccountCache cache = new AccountCache(2, 60_000, now::get);
+        cache.put(account("ACC_1", "1000000001", "ACTIVE"));
+        cache.put(account("ACC_2", "1000000002", "ACTIVE"));
+        cache.get("1000000001");
+        cache.put(account("ACC_3", "1000000003", "ACTIVE"));
+
+        assertNotNull(cache.get("1000000001"));
+        assertNull(cache.get("1000000002"));
+        assertNotNull(cache.get("1000000003"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void testInvalidateByIdFindsRenumberedAccount() {
+        AccountCache cache = new AccountCache(10, 60_000, now::get);
+        cache.put(account("ACC_1", "1000000001", "ACTIVE"));
+        cache.put(account("ACC_2", "1000000002", "ACTIVE"));
+
+        cache.invalidateAccountId("ACC_1");
+
+        assertNull(cache.get("1000000001"));
+        assertNotNull(cache.get("1000000002"));
+        assertEquals(1L, cache.getStats().get("invalidations"));
+    }
+
+    private static Account account(String id, String number, String status) {
+        return new Account(id, "CUST_1", number, "123456789012", "HDFC0001234", "9876543210",
+            new BigDecimal("600.00"), "HDFC Bank", "Asha Rao", status, null, null);
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.ExportJob;
+import com.bank.simulator.service.ExcelGeneratorService;
+import com.bank.simulator.service.ExportFormat;
+import com.bank.simulator.service.TransactionExportService;
+import com.bank.simulator.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private volatile String watermark = "TXN_1";
+    private volatile boolean failScan;
+    private volatile CountDownLatch scanGate;
+    private final AtomicInteger scans = new AtomicInteger();
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportJobService(fakeTransactionService(), new ExcelGeneratorService(),
+            new TransactionExportService(), directory, 1, 1, 60_000);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void testFinishedExportIsReusedUntilLedgerChanges() throws Exception {
+        ExportJob first = awaitFinished(service.submit("100200300400", ExportFormat.CSV));
+        assertEquals(ExportJob.STATUS_READY, first.getStatus());
+        assertTrue(Files.size(first.getFile()) > 0);
+        assertEquals("/api/transaction/exports/" + first.getJobId() + "/file", first.getDownloadUrl());
+
+        assertSame(first, service.submit("100200300400", ExportFormat.CSV));
+        assertSame(first, service.findReady("100200300400", ExportFormat.CSV));
+        assertEquals(1, scans.get());
+
+        watermark = "TXN_2";
+        assertNull(service.findReady("100200300400", ExportFormat.CSV));
+        ExportJob second = awaitFinished(service.submit("100200300400", ExportFormat.CSV));
+        assertNotEquals(first.getJobId(), second.getJobId());
+        assertEquals(2, scans.get());
+    }
+
+    @Test
+    void testConcurrentRequestsShareTheInFlightJob() throws Exception {
+        scanGate = new CountDownLatch(1);
+        ExportJob first = service.submit(null, ExportFormat.NDJSON);
+        ExportJob second = service.submit(null, ExportFormat.NDJSON);
+        assertSame(first, second);
+
+        scanGate.countDown();
+        awaitFinished(first);
+        assertEquals(1, scans.get());
+    }
+
+    @Test
+    void testFullQueueIsRejected() throws Exception {
+        scanGate = new CountDownLatch(1);
+        service.submit(null, ExportFormat.CSV);
+        waitFor(() -> scans.get() == 1);
+        service.submit("1", ExportFormat.CSV);
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit("2", ExportFormat.CSV));
+        scanGate.countDown();
+    }
+
+    @Test
+    void testFailedJobIsRetriedOnNextSubmit() throws Exception {
+        failScan = true;
+        ExportJob failed = awaitFinished(service.submit(null, ExportFormat.CSV));
+        assertEquals(ExportJob.STATUS_FAILED, failed.getStatus());
+        assertNull(failed.getDownloadUrl());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+
+        failScan = false;
+        ExportJob retried = awaitFinished(service.submit(null, ExportFormat.CSV));
+        assertEquals(ExportJob.STATUS_READY, retried.getStatus());
+    }
+
+    private ExportJob awaitFinished(ExportJob job) throws InterruptedException {
+        waitFor(job::isFinished);
+        return job;
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private TransactionService fakeTransactionService() {
+        return (TransactionService) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{TransactionService.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getExportWatermark":
+                        return watermark;
+                    case "streamAllTransactionRows":
+                    case "streamTransactionRowsByAccountNumber":
+                        scans.incrementAndGet();
+                        CountDownLatch gate = scanGate;
+                        if (gate != null) {
+                            gate.await(10, TimeUnit.SECONDS);
+                        }
+                        if (failScan) {
+                            throw new SQLException("Communications link failure");
+                        }
+                        return 0L;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
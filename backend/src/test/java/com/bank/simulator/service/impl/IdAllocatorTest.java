@@ -0,0 +1,98 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    /** Stands in for the IdSequence table shared by every node. */
+    private final Map<String, Long> sequenceTable = new ConcurrentHashMap<>();
+    private final AtomicInteger reservations = new AtomicInteger();
+    private IdAllocator.BlockSource sharedSource;
+
+    @BeforeEach
+    void setUp() {
+        sequenceTable.put(IdAllocator.ACCOUNT, 41L);
+        sharedSource = (sequence, size) -> {
+            reservations.incrementAndGet();
+            synchronized (sequenceTable) {
+                long start = sequenceTable.getOrDefault(sequence, 1L);
+                sequenceTable.put(sequence, start + size);
+                return start;
+            }
+        };
+    }
+
+    @Test
+    void testContinuesFromSeededValue() {
+        IdAllocator allocator = new IdAllocator(sharedSource, 10);
+
+        assertEquals(41, allocator.next(IdAllocator.ACCOUNT));
+        assertEquals(42, allocator.next(IdAllocator.ACCOUNT));
+        assertEquals(1, allocator.next(IdAllocator.CUSTOMER));
+    }
+
+    @Test
+    void testOneReservationPerBlock() {
+        IdAllocator allocator = new IdAllocator(sharedSource, 10);
+
+        for (int i = 0; i < 25; i++) {
+            allocator.next(IdAllocator.USER);
+        }
+
+        assertEquals(3, reservations.get());
+        assertEquals(31L, sequenceTable.get(IdAllocator.USER));
+    }
+
+    @Test
+    void testTwoNodesNeverHandOutTheSameId() throws Exception {
+        IdAllocator nodeA = new IdAllocator(sharedSource, 7);
+        IdAllocator nodeB = new IdAllocator(sharedSource, 7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            IdAllocator allocator = t % 2 == 0 ? nodeA : nodeB;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    assertTrue(ids.add(allocator.next(IdAllocator.CUSTOMER)));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(16_000, ids.size());
+    }
+
+    @Test
+    void testReservationFailureSurfacesAndRecovers() {
+        AtomicInteger calls = new AtomicInteger();
+        IdAllocator allocator = new IdAllocator((sequence, size) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new SQLException("Communications link failure");
+            }
+            return sharedSource.reserve(sequence, size);
+        }, 5);
+
+        assertThrows(IllegalStateException.class, () -> allocator.next(IdAllocator.ACCOUNT));
+        assertEquals(41, allocator.next(IdAllocator.ACCOUNT));
+    }
+}
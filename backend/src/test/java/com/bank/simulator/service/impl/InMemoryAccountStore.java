@@ -0,0 +1,238 @@
+package com.bank.simulator.service.impl;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Account table stand-in for transfer tests: hands out JDBC connections (dynamic
+ * proxies) that understand the engine's lock/debit/credit statements (single
+ * row or batched, one account or an IN list), with
+ * InnoDB-like row locks held until commit or rollback and undo on rollback.
+ * Any other statement (ledger insert, outbox rows) is accepted and ignored.
+ */
+class InMemoryAccountStore {
+
+    private final Map<String, BigDecimal> balances = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+    private final AtomicInteger injectedDeadlocks = new AtomicInteger();
+    private final AtomicInteger lockOrderViolations = new AtomicInteger();
+    private final AtomicInteger balanceUpdates = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+    private final Map<String, Integer> committedTouches = new ConcurrentHashMap<>();
+    private volatile String failingInsertValue;
+    private final long lockWaitTimeoutMs;
+
+    InMemoryAccountStore(long lockWaitTimeoutMs) {
+        this.lockWaitTimeoutMs = lockWaitTimeoutMs;
+    }
+
+    void addAccount(String accountId, BigDecimal balance) {
+        balances.put(accountId, balance);
+        rowLocks.put(accountId, new ReentrantLock());
+    }
+
+    BigDecimal balance(String accountId) {
+        return balances.get(accountId);
+    }
+
+    BigDecimal totalBalance() {
+        return balances.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    void failNextLocksWithDeadlock(int count) {
+        injectedDeadlocks.set(count);
+    }
+
+    int getLockOrderViolations() {
+        return lockOrderViolations.get();
+    }
+
+    /** Account rows written so far (each UPDATE statement, batched or not). */
+    int getBalanceUpdates() {
+        return balanceUpdates.get();
+    }
+
+    /** Committed writes that set the account's modified stamp. */
+    int touches(String accountId) {
+        return committedTouches.getOrDefault(accountId, 0);
+    }
+
+    /** Stands in for the export watermark of one account: its amount and modified stamp. */
+    String watermark(String accountId) {
+        return balances.get(accountId).toPlainString() + "|" + touches(accountId);
+    }
+
+    int getCommits() {
+        return commits.get();
+    }
+
+    /** Makes every non-Account write that binds {@code value} fail like a duplicate key. */
+    void failInsertsOf(String value) {
+        failingInsertValue = value;
+    }
+
+    Connection getConnection() {
+        Session session = new Session();
+        return (Connection) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement": return session.prepare((String) args[0]);
+                    case "setAutoCommit": return null;
+                    case "getAutoCommit": return false;
+                    case "commit": session.commit(); return null;
+                    case "rollback": session.rollback(); return null;
+                    case "close": session.rollback(); return null;
+                    case "isClosed": return false;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private class Session {
+        private final List<String> held = new ArrayList<>();
+        private final Map<String, BigDecimal> undo = new HashMap<>();
+        private final List<String> touched = new ArrayList<>();
+
+        PreparedStatement prepare(String sql) {
+            Map<Integer, Object> params = new TreeMap<>();
+            List<Map<Integer, Object>> batch = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setString":
+                        case "setBigDecimal":
+                            params.put((Integer) args[0], args[1]);
+                            return null;
+                        case "executeQuery": return query(sql, params);
+                        case "executeUpdate": return update(sql, params);
+                        case "addBatch":
+                            batch.add(new TreeMap<>(params));
+                            return null;
+                        case "executeBatch": {
+                            int[] counts = new int[batch.size()];
+                            for (int i = 0; i < counts.length; i++) {
+                                counts[i] = update(sql, batch.get(i));
+                            }
+                            batch.clear();
+                            return counts;
+                        }
+                        case "close": return null;
+                        default:
+                            if (method.getName().startsWith("set")) {
+                                return null;
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+
+        private ResultSet query(String sql, Map<Integer, Object> params) throws SQLException {
+            if (!sql.endsWith("FOR UPDATE")) {
+                throw new UnsupportedOperationException(sql);
+            }
+            List<String> rows = new ArrayList<>();
+            for (Object value : params.values()) {
+                String accountId = (String) value;
+                lock(accountId);
+                if (balances.containsKey(accountId)) {
+                    rows.add(accountId);
+                }
+            }
+            int[] position = {-1};
+            return (ResultSet) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next": return ++position[0] < rows.size();
+                        case "getString": return rows.get(position[0]);
+                        case "getBigDecimal": return balances.get(rows.get(position[0]));
+                        case "close": return null;
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+
+        private int update(String sql, Map<Integer, Object> params) throws SQLException {
+            if (!sql.startsWith("UPDATE Account")) {
+                if (failingInsertValue != null && params.containsValue(failingInsertValue)) {
+                    throw new SQLException("Duplicate entry '" + failingInsertValue + "'", "23000", 1062);
+                }
+                return 1;
+            }
+            BigDecimal amount = (BigDecimal) params.get(1);
+            String accountId = (String) params.get(2);
+            if (!held.contains(accountId)) {
+                throw new IllegalStateException("Account " + accountId + " updated without holding its row lock");
+            }
+            BigDecimal current = balances.get(accountId);
+            undo.putIfAbsent(accountId, current);
+            balanceUpdates.incrementAndGet();
+            if (sql.contains("modified = CURRENT_TIMESTAMP(6)")) {
+                touched.add(accountId);
+            }
+            balances.put(accountId, sql.contains("amount - ?") ? current.subtract(amount) : current.add(amount));
+            return 1;
+        }
+
+        private void lock(String accountId) throws SQLException {
+            if (injectedDeadlocks.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+                throw new SQLException("Deadlock found when trying to get lock", "40001", 1213);
+            }
+            ReentrantLock lock = rowLocks.get(accountId);
+            if (lock == null || held.contains(accountId)) {
+                return;
+            }
+            if (!held.isEmpty() && held.get(held.size() - 1).compareTo(accountId) > 0) {
+                lockOrderViolations.incrementAndGet();
+            }
+            try {
+                if (!lock.tryLock(lockWaitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLException("Lock wait timeout exceeded", "40001", 1205);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted", e);
+            }
+            held.add(accountId);
+        }
+
+        void commit() {
+            commits.incrementAndGet();
+            for (String accountId : touched) {
+                committedTouches.merge(accountId, 1, Integer::sum);
+            }
+            touched.clear();
+            undo.clear();
+            release();
+        }
+
+        void rollback() {
+            balances.putAll(undo);
+            undo.clear();
+            touched.clear();
+            release();
+        }
+
+        private void release() {
+            for (String accountId : held) {
+                rowLocks.get(accountId).unlock();
+            }
+            held.clear();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.ListingPage;
+import com.bank.simulator.model.PageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetListingTest {
+
+    private final List<String> preparedQueries = new ArrayList<>();
+    private final Map<Integer, Object> boundParams = new HashMap<>();
+
+    @Test
+    void testFirstPageQuerySelectsOnlyProjectedColumns() {
+        String sql = AccountServiceImpl.LISTING.buildQuery(List.of("accountNumber", "amount"), "created", true, false);
+
+        assertEquals("SELECT account_number, amount, created, account_id FROM Account "
+            + "ORDER BY created DESC, account_id DESC LIMIT ?", sql);
+    }
+
+    @Test
+    void testNextPageQuerySeeksPastCursor() {
+        String sql = UserServiceImpl.LISTING.buildQuery(List.of("email"), "email", false, true);
+
+        assertEquals("SELECT email, id FROM User WHERE (email > ? OR (email = ? AND id > ?)) "
+            + "ORDER BY email ASC, id ASC LIMIT ?", sql);
+    }
+
+    @Test
+    void testHiddenAndUnknownFieldsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> AccountServiceImpl.LISTING.projection(List.of("accountId")));
+        assertThrows(IllegalArgumentException.class,
+            () -> UserServiceImpl.LISTING.projection(List.of("password")));
+        assertThrows(IllegalArgumentException.class,
+            () -> CustomerServiceImpl.LISTING.projection(List.of("customerPin")));
+        assertEquals(List.of("name", "email"), CustomerServiceImpl.LISTING.projection(List.of("name", "email", "name")));
+    }
+
+    @Test
+    void testUnindexedSortIsRejected() {
+        PageRequest request = new PageRequest(null, 10, "-amount", null, null);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> AccountServiceImpl.LISTING.fetch(this::fakeConnection, request));
+        assertTrue(preparedQueries.isEmpty());
+    }
+
+    @Test
+    void testPageSizeIsCapped() {
+        assertEquals(PageRequest.MAX_LIMIT, new PageRequest(null, 100_000, null, null, null).getLimit());
+        assertEquals(PageRequest.DEFAULT_LIMIT, new PageRequest(null, null, null, null, null).getLimit());
+        assertThrows(IllegalArgumentException.class, () -> new PageRequest(null, 10, null, null, "sometimes"));
+    }
+
+    @Test
+    void testFetchReturnsCursorThatResumesAfterLastRow() throws Exception {
+        PageRequest first = new PageRequest(null, 2, null, "amount,createdDate", "estimate");
+
+        ListingPage page = TransactionServiceImpl.LISTING.fetch(this::fakeConnection, first);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(List.of("amount", "createdDate"), new ArrayList<>(page.getItems().get(0).keySet()));
+        assertEquals("2026-10-17T09:30:00", page.getItems().get(0).get("createdDate"));
+        assertEquals(3, boundParams.get(1));
+        assertNotNull(page.getNextCursor());
+        assertEquals(Long.valueOf(1234), page.getTotal());
+        assertTrue(page.isTotalEstimated());
+
+        boundParams.clear();
+        TransactionServiceImpl.LISTING.fetch(this::fakeConnection,
+            new PageRequest(page.getNextCursor(), 2, null, "amount", null));
+
+        assertTrue(preparedQueries.get(preparedQueries.size() - 1).contains("WHERE (created_date < ?"));
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2026, 10, 17, 9, 29)), boundParams.get(1));
+        assertEquals("TXN_2", boundParams.get(3));
+        assertEquals(3, boundParams.get(4));
+    }
+
+    @Test
+    void testItemHookSeesPrimaryKeyAndCanReplaceValues() throws Exception {
+        List<String> ids = new ArrayList<>();
+
+        ListingPage page = TransactionServiceImpl.LISTING.fetch(this::fakeConnection,
+            new PageRequest(null, 2, null, "amount", null), (id, item) -> {
+                ids.add(id);
+                item.put("amount", new BigDecimal("99.00"));
+            });
+
+        assertEquals(List.of("TXN_1", "TXN_2"), ids);
+        assertEquals(new BigDecimal("99.00"), page.getItems().get(1).get("amount"));
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void testCursorFromAnotherSortIsRejected() throws Exception {
+        ListingPage page = UserServiceImpl.LISTING.fetch(this::fakeUserConnection, new PageRequest(null, 1, "email", null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> UserServiceImpl.LISTING.fetch(this::fakeUserConnection,
+            new PageRequest(page.getNextCursor(), 1, "-createdAt", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> UserServiceImpl.LISTING.fetch(this::fakeUserConnection,
+            new PageRequest("not-a-cursor", 1, null, null, null)));
+    }
+
+    // ---------------------------------------------------------------- fakes
+
+    private Connection fakeConnection() {
+        List<Object[]> rows = List.of(
+            new Object[]{"TXN_1", new BigDecimal("10.00"), LocalDateTime.of(2026, 10, 17, 9, 30)},
+            new Object[]{"TXN_2", new BigDecimal("20.00"), LocalDateTime.of(2026, 10, 17, 9, 29)},
+            new Object[]{"TXN_3", new BigDecimal("30.00"), LocalDateTime.of(2026, 10, 17, 9, 28)});
+        return connection(sql -> sql.contains("information_schema") ? countResult(1234) : transactionRows(rows));
+    }
+
+    private Connection fakeUserConnection() {
+        return connection(sql -> userRows());
+    }
+
+    private Connection connection(java.util.function.Function<String, ResultSet> results) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement":
+                        String sql = (String) args[0];
+                        preparedQueries.add(sql);
+                        return statement(sql, results.apply(sql));
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private PreparedStatement statement(String sql, ResultSet result) {
+        Map<Integer, Object> params = sql.contains("information_schema") ? new HashMap<>() : boundParams;
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                    case "setInt":
+                    case "setTimestamp":
+                        params.put((Integer) args[0], args[1]);
+                        return null;
+                    case "executeQuery": return result;
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private ResultSet transactionRows(List<Object[]> rows) {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next": return ++cursor[0] < rows.size();
+                    case "getString": return rows.get(cursor[0])[0];
+                    case "getBigDecimal": return rows.get(cursor[0])[1];
+                    case "getTimestamp": return Timestamp.valueOf((LocalDateTime) rows.get(cursor[0])[2]);
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private ResultSet userRows() {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next": return ++cursor[0] < 2;
+                    case "getString": return "id".equals(args[0]) ? "USER_" + cursor[0] : "u" + cursor[0] + "@bank.test";
+                    case "getBoolean": return true;
+                    case "getTimestamp": return Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 0, 0));
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private ResultSet countResult(long count) {
+        boolean[] read = {false};
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        boolean first = !read[0];
+                        read[0] = true;
+                        return first;
+                    case "getLong": return count;
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
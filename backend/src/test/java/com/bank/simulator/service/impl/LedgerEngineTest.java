@@ -0,0 +1,344 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerEngineTest {
+
+    private static final long OPENING_CENTS = 100_000;
+
+    @TempDir
+    Path walDirectory;
+
+    private FakeStore store;
+    private final List<LedgerEngine> engines = new ArrayList<>();
+    private final AtomicInteger transactionIds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new FakeStore();
+        for (int i = 1; i <= 4; i++) {
+            store.balances.put("ACC00" + i, OPENING_CENTS);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        engines.forEach(LedgerEngine::stop);
+    }
+
+    @Test
+    void testTransferMovesFundsAndIsPersistedInBackground() throws Exception {
+        LedgerEngine ledger = startLedger();
+
+        assertEquals(TransferEngine.Outcome.COMPLETED, ledger.transfer(transaction("ACC001", "250.50"), "ACC002"));
+        assertEquals(new BigDecimal("749.50"), ledger.getBalance("ACC001"));
+        assertEquals(new BigDecimal("1250.50"), ledger.getBalance("ACC002"));
+        assertEquals(OPENING_CENTS, store.balances.get("ACC001"));
+
+        ledger.persistPending();
+
+        assertEquals(74_950L, store.balances.get("ACC001"));
+        assertEquals(125_050L, store.balances.get("ACC002"));
+        assertEquals(1L, store.checkpoint);
+        assertEquals(List.of("TXN1"), store.transactionIds);
+    }
+
+    @Test
+    void testInsufficientBalanceAndUnknownAccountAreRejected() throws Exception {
+        LedgerEngine ledger = startLedger();
+
+        assertEquals(TransferEngine.Outcome.INSUFFICIENT_BALANCE,
+            ledger.transfer(transaction("ACC001", "1000.01"), "ACC002"));
+        assertEquals(TransferEngine.Outcome.ACCOUNT_NOT_FOUND,
+            ledger.transfer(transaction("ACC001", "1.00"), "ACC999"));
+
+        assertEquals(new BigDecimal("1000.00"), ledger.getBalance("ACC001"));
+        ledger.persistPending();
+        assertTrue(store.transactionIds.isEmpty());
+    }
+
+    @Test
+    void testUnpersistedCreditCanBeSpent() throws Exception {
+        LedgerEngine ledger = startLedger();
+        assertEquals(TransferEngine.Outcome.COMPLETED, ledger.transfer(transaction("ACC001", "800.00"), "ACC002"));
+        assertEquals(OPENING_CENTS, store.balances.get("ACC002"));
+
+        assertEquals(TransferEngine.Outcome.COMPLETED, ledger.transfer(transaction("ACC002", "1500.00"), "ACC003"));
+        assertEquals(new BigDecimal("300.00"), ledger.getBalance("ACC002"));
+
+        ledger.persistPending();
+        assertEquals(30_000L, store.balances.get("ACC002"));
+        assertEquals(250_000L, store.balances.get("ACC003"));
+    }
+
+    @Test
+    void testAccountCreatedAfterStartIsLoadedOnFirstUse() throws Exception {
+        LedgerEngine ledger = startLedger();
+        store.balances.put("ACC005", 500L);
+
+        assertEquals(TransferEngine.Outcome.COMPLETED, ledger.transfer(transaction("ACC001", "10.00"), "ACC005"));
+        assertEquals(new BigDecimal("15.00"), ledger.getBalance("ACC005"));
+    }
+
+    @Test
+    void testUnpersistedTransfersAreReplayedFromJournal() throws Exception {
+        LedgerEngine ledger = startLedger();
+        ledger.transfer(transaction("ACC001", "100.00"), "ACC002");
+        ledger.persistPending();
+
+        store.failPersist = true;
+        ledger.transfer(transaction("ACC002", "30.00"), "ACC003");
+        ledger.transfer(transaction("ACC003", "5.00"), "ACC001");
+        ledger.stop();
+        assertEquals(1L, store.checkpoint);
+
+        store.failPersist = false;
+        LedgerEngine recovered = startLedger();
+
+        assertEquals(new BigDecimal("905.00"), recovered.getBalance("ACC001"));
+        assertEquals(new BigDecimal("1070.00"), recovered.getBalance("ACC002"));
+        assertEquals(new BigDecimal("1025.00"), recovered.getBalance("ACC003"));
+
+        recovered.persistPending();
+        assertEquals(3L, store.checkpoint);
+        assertEquals(List.of("TXN1", "TXN2", "TXN3"), store.transactionIds);
+        assertEquals(90_500L, store.balances.get("ACC001"));
+
+        recovered.transfer(transaction("ACC004", "1.00"), "ACC001");
+        recovered.persistPending();
+        assertEquals(4L, store.checkpoint);
+    }
+
+    @Test
+    void testTornJournalTailIsDiscarded() throws Exception {
+        LedgerEngine ledger = startLedger();
+        store.failPersist = true;
+        ledger.transfer(transaction("ACC001", "100.00"), "ACC002");
+        ledger.stop();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            segment = files.filter(path -> path.toString().endsWith(".wal")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        store.failPersist = false;
+        LedgerEngine recovered = startLedger();
+
+        assertEquals(new BigDecimal("900.00"), recovered.getBalance("ACC001"));
+        recovered.persistPending();
+        assertEquals(List.of("TXN1"), store.transactionIds);
+    }
+
+    @Test
+    void testEntriesOfDeletedSenderAreDroppedWithoutStallingPersistence() throws Exception {
+        LedgerEngine ledger = startLedger();
+        ledger.transfer(transaction("ACC001", "100.00"), "ACC002");
+        ledger.transfer(transaction("ACC003", "50.00"), "ACC004");
+
+        store.balances.remove("ACC001");
+        ledger.forgetAccount("ACC001");
+        ledger.persistPending();
+
+        assertEquals(List.of("TXN2"), store.transactionIds);
+        assertEquals(2L, store.checkpoint);
+        assertEquals(1L, ledger.getStats().get("droppedForDeletedAccounts"));
+        assertEquals(0L, ledger.getStats().get("persistLag"));
+        assertEquals(TransferEngine.Outcome.ACCOUNT_NOT_FOUND,
+            ledger.transfer(transaction("ACC001", "1.00"), "ACC002"));
+    }
+
+    @Test
+    void testPersistTouchesAccountWhoseEntriesNetToZero() throws Exception {
+        Map<String, Long> net = new TreeMap<>(Map.of("ACC001", -1000L, "ACC002", 0L, "ACC003", 1000L));
+        Map<String, BigDecimal> written = new LinkedHashMap<>();
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement stmt = (PreparedStatement) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class}, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "setBigDecimal", "setString" -> params.put((Integer) args[0], args[1]);
+                    case "addBatch" -> written.put((String) params.get(2), (BigDecimal) params.get(1));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+                return null;
+            });
+
+        LedgerEngine.DatabaseStore.addNetMovements(stmt, net);
+
+        assertEquals(List.of("ACC001", "ACC002", "ACC003"), new ArrayList<>(written.keySet()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(written.get("ACC002")));
+        assertTrue(LedgerEngine.DatabaseStore.APPLY_NET_QUERY.contains("modified = CURRENT_TIMESTAMP(6)"));
+    }
+
+    @Test
+    void testAtomicBulkTransferIsAllOrNothing() throws Exception {
+        LedgerEngine ledger = startLedger();
+        List<TransferEngine.Leg> legs = List.of(
+            new TransferEngine.Leg("ACC001", "ACC002", new BigDecimal("600.00")),
+            new TransferEngine.Leg("ACC002", "ACC003", new BigDecimal("1500.00")),
+            new TransferEngine.Leg("ACC001", "ACC003", new BigDecimal("600.00")));
+        List<Transaction> transactions = List.of(
+            transaction("ACC001", "600.00"), transaction("ACC002", "1500.00"), transaction("ACC001", "600.00"));
+
+        TransferEngine.BatchOutcome atomic = ledger.transferAll(legs, transactions, true);
+
+        assertFalse(atomic.isCommitted());
+        assertEquals(List.of(TransferEngine.Outcome.COMPLETED, TransferEngine.Outcome.COMPLETED,
+            TransferEngine.Outcome.INSUFFICIENT_BALANCE), atomic.getOutcomes());
+        assertEquals(new BigDecimal("1000.00"), ledger.getBalance("ACC002"));
+
+        TransferEngine.BatchOutcome partial = ledger.transferAll(legs, transactions, false);
+
+        assertTrue(partial.isCommitted());
+        assertEquals(new BigDecimal("400.00"), ledger.getBalance("ACC001"));
+        assertEquals(new BigDecimal("100.00"), ledger.getBalance("ACC002"));
+        assertEquals(new BigDecimal("2500.00"), ledger.getBalance("ACC003"));
+        ledger.persistPending();
+        assertEquals(2, store.transactionIds.size());
+        assertEquals(10_000L, store.balances.get("ACC002"));
+    }
+
+    @Test
+    void testConcurrentTransfersConserveMoney() throws Exception {
+        for (int i = 5; i <= 20; i++) {
+            store.balances.put(String.format("ACC%03d", i), OPENING_CENTS);
+        }
+        List<String> accounts = new ArrayList<>(store.balances.keySet());
+        LedgerEngine ledger = startLedger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long seed = t;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 500; i++) {
+                    String sender = accounts.get(random.nextInt(accounts.size()));
+                    String receiver = accounts.get(random.nextInt(accounts.size()));
+                    if (!sender.equals(receiver)) {
+                        ledger.transfer(transaction(sender, random.nextInt(30_000) / 100 + ".00"), receiver);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (String account : accounts) {
+            BigDecimal balance = ledger.getBalance(account);
+            assertTrue(balance.signum() >= 0, account + " went negative: " + balance);
+            total = total.add(balance);
+        }
+        assertEquals(BigDecimal.valueOf(OPENING_CENTS * accounts.size(), 2), total);
+
+        ledger.persistPending();
+        for (String account : accounts) {
+            assertEquals(LedgerEngine.toCents(ledger.getBalance(account)), store.balances.get(account));
+        }
+    }
+
+    private LedgerEngine startLedger() throws SQLException, IOException {
+        LedgerEngine ledger = new LedgerEngine(true, store, walDirectory, 60_000, 100, 8, 512, false);
+        ledger.start();
+        engines.add(ledger);
+        return ledger;
+    }
+
+    private Transaction transaction(String senderAccountId, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN" + transactionIds.incrementAndGet());
+        transaction.setAccountId(senderAccountId);
+        transaction.setSenderAccountNumber("N-" + senderAccountId);
+        transaction.setReceiverAccountNumber("N-OTHER");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTransactionType("TRANSFER");
+        transaction.setCreatedDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return transaction;
+    }
+
+    private static class FakeStore implements LedgerEngine.Store {
+        private final Map<String, Long> balances = new ConcurrentHashMap<>();
+        private final List<String> transactionIds = new ArrayList<>();
+        private long checkpoint;
+        private boolean failPersist;
+
+        @Override
+        public long loadCheckpoint() {
+            return checkpoint;
+        }
+
+        @Override
+        public void loadBalances(LedgerEngine.BalanceSink sink) {
+            balances.forEach(sink::accept);
+        }
+
+        @Override
+        public Long loadBalance(String accountId) {
+            return balances.get(accountId);
+        }
+
+        @Override
+        public void persist(List<LedgerWal.Entry> entries) throws SQLException {
+            if (failPersist) {
+                throw new SQLException("database unavailable");
+            }
+            for (LedgerWal.Entry entry : entries) {
+                if (!balances.containsKey(entry.getSenderAccountId())) {
+                    throw new SQLException("foreign key violation on Transaction.account_id");
+                }
+            }
+            for (LedgerWal.Entry entry : entries) {
+                balances.merge(entry.getSenderAccountId(), -entry.getAmountCents(), Long::sum);
+                balances.merge(entry.getReceiverAccountId(), entry.getAmountCents(), Long::sum);
+                transactionIds.add(entry.getTransaction().getTransactionId());
+            }
+            checkpoint = entries.get(entries.size() - 1).getSeq();
+        }
+
+        @Override
+        public Set<String> existingAccounts(Set<String> accountIds) throws SQLException {
+            if (failPersist) {
+                throw new SQLException("database unavailable");
+            }
+            Set<String> existing = new HashSet<>(accountIds);
+            existing.retainAll(balances.keySet());
+            return existing;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bank.simulator.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for tests: accepts plain (no TLS, no auth)
+ * sessions and records every message it receives.
+ */
+class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<Socket> openSockets = new CopyOnWriteArrayList<>();
+    private volatile boolean rejectMessages;
+    private volatile boolean dropOnData;
+
+    LocalSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0);
+        executor.submit(this::acceptLoop);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<String> getMessages() {
+        return messages;
+    }
+
+    List<String> getRecipients() {
+        return recipients;
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    void setRejectMessages(boolean rejectMessages) {
+        this.rejectMessages = rejectMessages;
+    }
+
+    /** Closes the connection when the client starts sending a message, as a server timeout would. */
+    void setDropOnData(boolean dropOnData) {
+        this.dropOnData = dropOnData;
+    }
+
+    /** Refuses new connections from now on; open ones keep working. */
+    void stopAccepting() throws IOException {
+        serverSocket.close();
+    }
+
+    void dropConnections() throws IOException {
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        openSockets.clear();
+    }
+
+    Properties appProperties() {
+        Properties props = new Properties();
+        props.setProperty("email.smtp.host", "localhost");
+        props.setProperty("email.smtp.port", String.valueOf(getPort()));
+        props.setProperty("email.smtp.auth", "false");
+        props.setProperty("email.smtp.starttls.enable", "false");
+        props.setProperty("email.from", "noreply@banksimulator.com");
+        props.setProperty("email.enabled", "true");
+        return props;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                openSockets.add(socket);
+                executor.submit(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+
+            reply(out, "220 localhost ESMTP test");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO:")) {
+                    recipients.add(line.substring(8).trim());
+                    reply(out, "250 OK");
+                } else if (command.startsWith("DATA") && dropOnData) {
+                    return;
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append("\n");
+                    }
+                    if (rejectMessages) {
+                        reply(out, "554 Transaction failed");
+                    } else {
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    }
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
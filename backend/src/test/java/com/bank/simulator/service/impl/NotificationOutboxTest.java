@@ -0,0 +1,189 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationOutboxTest {
+
+    private static final long LEASE_MS = 60_000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final LocalDateTime COMMITTED_AT = LocalDateTime.of(2024, 1, 5, 10, 30);
+
+    private final FakeStore store = new FakeStore();
+    private final List<Object[]> deliveries = new CopyOnWriteArrayList<>();
+    private final List<String> statusDuringSend = new CopyOnWriteArrayList<>();
+    private volatile boolean delivering = true;
+    private NotificationOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        NotificationService notifications = (NotificationService) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{NotificationService.class}, (p, method, args) -> {
+                deliveries.add(args);
+                statusDuringSend.add(store.rows.get(1L).status);
+                return delivering;
+            });
+        outbox = new NotificationOutbox(notifications, store, 3_600_000, 10, MAX_ATTEMPTS, 1000, 10_000, LEASE_MS, 2);
+        outbox.start();
+        store.add(1L, NotificationOutbox.TYPE_DEBIT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.stop();
+    }
+
+    @Test
+    void testDeliveredRowIsLeasedThenMarkedSent() throws Exception {
+        long before = System.currentTimeMillis();
+
+        assertEquals(1, outbox.drain());
+
+        FakeStore.Row row = store.rows.get(1L);
+        assertEquals(List.of(NotificationOutbox.STATUS_SENDING), statusDuringSend);
+        assertTrue(row.leasedUntil >= before + LEASE_MS);
+        assertEquals(NotificationOutbox.STATUS_SENT, row.status);
+        assertEquals(1, row.entry.attempts);
+        assertEquals(0, outbox.drain());
+    }
+
+    @Test
+    void testEmailCarriesCommitTimeOfTheRow() throws Exception {
+        outbox.drain();
+
+        Object[] args = deliveries.get(0);
+        assertEquals("TXN_1", args[6]);
+        assertEquals(COMMITTED_AT, args[7]);
+    }
+
+    @Test
+    void testFailuresBackOffThenGoToDeadLetter() throws Exception {
+        delivering = false;
+        FakeStore.Row row = store.rows.get(1L);
+
+        long before = System.currentTimeMillis();
+        assertEquals(1, outbox.drain());
+        assertEquals(NotificationOutbox.STATUS_PENDING, row.status);
+        assertEquals(1, row.entry.attempts);
+        assertTrue(row.nextAttemptAt >= before + 1000);
+        assertEquals(0, outbox.drain());
+
+        for (int attempt = 2; attempt <= MAX_ATTEMPTS; attempt++) {
+            row.nextAttemptAt = 0;
+            assertEquals(1, outbox.drain());
+        }
+
+        assertEquals(NotificationOutbox.STATUS_DEAD, row.status);
+        assertEquals(MAX_ATTEMPTS, row.entry.attempts);
+        assertEquals("Delivery failed", row.lastError);
+        row.nextAttemptAt = 0;
+        assertEquals(0, outbox.drain());
+    }
+
+    @Test
+    void testRowWithExpiredLeaseIsClaimedAgain() throws Exception {
+        assertEquals(1, outbox.claimBatch().size());
+        assertEquals(0, outbox.drain());
+        assertTrue(deliveries.isEmpty());
+
+        FakeStore.Row row = store.rows.get(1L);
+        row.nextAttemptAt = System.currentTimeMillis() - 1;
+
+        assertEquals(1, outbox.drain());
+        assertEquals(NotificationOutbox.STATUS_SENT, row.status);
+        assertEquals(1, deliveries.size());
+    }
+
+    /** Stands in for the NotificationOutbox table, with the same due-row rule as the claim query. */
+    private static class FakeStore implements NotificationOutbox.Store {
+
+        static class Row {
+            final NotificationOutbox.OutboxEntry entry = new NotificationOutbox.OutboxEntry();
+            volatile String status = NotificationOutbox.STATUS_PENDING;
+            volatile long nextAttemptAt;
+            volatile long leasedUntil;
+            volatile String lastError;
+        }
+
+        private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+
+        void add(long id, String type) {
+            Row row = new Row();
+            row.entry.id = id;
+            row.entry.transactionId = "TXN_" + id;
+            row.entry.type = type;
+            row.entry.email = "user" + id + "@example.com";
+            row.entry.name = "User " + id;
+            row.entry.bankName = "Test Bank";
+            row.entry.accountNumber = "1234567890123456";
+            row.entry.counterpartyAccountNumber = "9876543210987654";
+            row.entry.amount = BigDecimal.valueOf(1000);
+            row.entry.createdAt = COMMITTED_AT;
+            rows.put(id, row);
+        }
+
+        @Override
+        public synchronized List<NotificationOutbox.OutboxEntry> claim(long now, long leaseUntil, int limit) {
+            List<NotificationOutbox.OutboxEntry> claimed = new ArrayList<>();
+            rows.values().stream()
+                .filter(row -> (NotificationOutbox.STATUS_PENDING.equals(row.status)
+                    || NotificationOutbox.STATUS_SENDING.equals(row.status)) && row.nextAttemptAt <= now)
+                .sorted(Comparator.comparingLong(row -> row.nextAttemptAt))
+                .limit(limit)
+                .forEach(row -> {
+                    row.status = NotificationOutbox.STATUS_SENDING;
+                    row.nextAttemptAt = leaseUntil;
+                    row.leasedUntil = leaseUntil;
+                    claimed.add(copy(row.entry));
+                });
+            return claimed;
+        }
+
+        @Override
+        public synchronized void markSent(long id) {
+            Row row = rows.get(id);
+            row.status = NotificationOutbox.STATUS_SENT;
+            row.entry.attempts++;
+            row.lastError = null;
+        }
+
+        @Override
+        public synchronized void markFailed(long id, String status, int attempts, long nextAttemptAt, String error) {
+            Row row = rows.get(id);
+            row.status = status;
+            row.entry.attempts = attempts;
+            row.nextAttemptAt = nextAttemptAt;
+            row.lastError = error;
+        }
+
+        private static NotificationOutbox.OutboxEntry copy(NotificationOutbox.OutboxEntry source) {
+            NotificationOutbox.OutboxEntry entry = new NotificationOutbox.OutboxEntry();
+            entry.id = source.id;
+            entry.transactionId = source.transactionId;
+            entry.type = source.type;
+            entry.email = source.email;
+            entry.name = source.name;
+            entry.bankName = source.bankName;
+            entry.accountNumber = source.accountNumber;
+            entry.counterpartyAccountNumber = source.counterpartyAccountNumber;
+            entry.amount = source.amount;
+            entry.attempts = source.attempts;
+            entry.createdAt = source.createdAt;
+            return entry;
+        }
+    }
+}
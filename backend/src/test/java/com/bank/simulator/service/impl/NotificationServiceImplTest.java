@@ -0,0 +1,120 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationServiceImplTest {
+
+    private LocalSmtpServer smtpServer;
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+        notificationService = new NotificationServiceImpl(smtpServer.appProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        notificationService.close();
+        smtpServer.close();
+    }
+
+    @Test
+    void testSenderNotificationDelivered() {
+        boolean sent = notificationService.sendTransactionNotificationToSender(
+            "sender@example.com", "Sender", "Test Bank", "1234567890123456",
+            "9876543210987654", BigDecimal.valueOf(1000), "TXN_1", LocalDateTime.of(2024, 1, 5, 10, 30));
+
+        assertTrue(sent);
+        assertEquals(1, smtpServer.getMessages().size());
+        assertTrue(smtpServer.getRecipients().get(0).contains("sender@example.com"));
+        assertTrue(smtpServer.getMessages().get(0).replace("=\r\n", "").contains("10:30"));
+    }
+
+    @Test
+    void testReceiverNotificationDelivered() {
+        boolean sent = notificationService.sendTransactionNotificationToReceiver(
+            "receiver@example.com", "Receiver", "Test Bank", "9876543210987654",
+            "1234567890123456", BigDecimal.valueOf(1000), "TXN_1", LocalDateTime.now());
+
+        assertTrue(sent);
+        assertEquals(1, smtpServer.getMessages().size());
+    }
+
+    @Test
+    void testRejectedMessageReportsFailure() {
+        smtpServer.setRejectMessages(true);
+
+        boolean sent = notificationService.sendNotification("someone@example.com", "Subject", "<p>Body</p>");
+
+        assertFalse(sent);
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    void testBurstReusesPooledConnection() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(notificationService.sendNotification("user" + i + "@example.com", "Subject " + i, "<p>Body</p>"));
+        }
+
+        assertEquals(5, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnectionCount());
+    }
+
+    @Test
+    void testConnectionStillUsableAfterRejectedMessage() {
+        smtpServer.setRejectMessages(true);
+        assertFalse(notificationService.sendNotification("first@example.com", "Subject", "<p>Body</p>"));
+
+        smtpServer.setRejectMessages(false);
+        assertTrue(notificationService.sendNotification("second@example.com", "Subject", "<p>Body</p>"));
+
+        assertEquals(1, smtpServer.getMessages().size());
+        assertEquals(1, smtpServer.getConnectionCount());
+    }
+
+    @Test
+    void testReconnectsAfterServerDropsConnection() throws IOException {
+        assertTrue(notificationService.sendNotification("first@example.com", "Subject", "<p>Body</p>"));
+
+        smtpServer.dropConnections();
+
+        assertTrue(notificationService.sendNotification("second@example.com", "Subject", "<p>Body</p>"));
+        assertEquals(2, smtpServer.getMessages().size());
+        assertEquals(2, smtpServer.getConnectionCount());
+    }
+
+    @Test
+    void testDisabledEmailSkipsDelivery() {
+        Properties props = smtpServer.appProperties();
+        props.setProperty("email.enabled", "false");
+        NotificationServiceImpl disabled = new NotificationServiceImpl(props);
+
+        boolean sent = disabled.sendTransactionNotificationToSender(
+            "sender@example.com", "Sender", "Test Bank", "1234567890123456",
+            "9876543210987654", BigDecimal.valueOf(1000), "TXN_1", LocalDateTime.now());
+
+        assertTrue(sent);
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    void testOutboxBackoffGrowsAndIsCapped() {
+        NotificationOutbox outbox = new NotificationOutbox(notificationService);
+
+        long first = outbox.backoffDelayMs(1);
+        long second = outbox.backoffDelayMs(2);
+
+        assertTrue(second > first);
+        assertEquals(outbox.backoffDelayMs(64), outbox.backoffDelayMs(40));
+    }
+}
@@ -0,0 +1,209 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.BatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OnboardingBatchTest {
+
+    private static final String INSERT = "INSERT INTO T (v) VALUES (?)";
+
+    private Set<String> stored;
+    private List<String> queries;
+    private List<String> pendingBatch;
+    private List<String> uncommitted;
+    private String rejectOnInsert;
+    private int commits;
+    private int rollbacks;
+
+    @BeforeEach
+    void setUp() {
+        stored = new HashSet<>();
+        queries = new ArrayList<>();
+        pendingBatch = new ArrayList<>();
+        uncommitted = new ArrayList<>();
+        commits = 0;
+        rollbacks = 0;
+    }
+
+    @Test
+    void testDuplicatesWithinBatchAndTableAreRejected() throws SQLException {
+        stored.add("taken@example.com");
+        List<String> emails = List.of("a@example.com", "TAKEN@example.com", "A@Example.com ", "b@example.com");
+        BatchResult result = new BatchResult(emails.size(), false);
+
+        OnboardingBatch.rejectDuplicates(fakeConnection(), emails, result, value -> value, "T", "v",
+            new UniquenessIndex(), null, "EMAIL_EXISTS", "Email");
+
+        assertEquals(List.of(0, 3), result.pendingIndexes());
+        assertEquals("Email already exists", result.getRows().get(1).getMessage());
+        assertEquals("Email appears more than once in the batch", result.getRows().get(2).getMessage());
+        assertEquals("EMAIL_EXISTS", result.getRows().get(2).getErrorCode());
+        assertEquals(1, queries.size());
+        assertEquals("SELECT v FROM T WHERE v IN (?, ?, ?)", queries.get(0));
+    }
+
+    @Test
+    void testInListIsChunked() throws SQLException {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < OnboardingBatch.IN_CHUNK + 1; i++) {
+            values.add("v" + i);
+        }
+        BatchResult result = new BatchResult(values.size(), true);
+
+        OnboardingBatch.rejectDuplicates(fakeConnection(), values, result, value -> value, "T", "v",
+            new UniquenessIndex(), UniquenessIndex.Key.CUSTOMER_PHONE, "PHONE_EXISTS", "Phone number");
+
+        assertEquals(2, queries.size());
+        assertEquals(values.size(), result.pendingIndexes().size());
+    }
+
+    @Test
+    void testAtomicBatchCommitsOnceAndMarksEveryRowCreated() throws SQLException {
+        List<String> values = List.of("x", "y", "z");
+        BatchResult result = new BatchResult(values.size(), true);
+
+        OnboardingBatch.insertPending(fakeConnection(), INSERT, values, result, value -> "ID_" + value,
+            (stmt, value) -> stmt.setString(1, value));
+
+        assertEquals(3, result.getCreated());
+        assertEquals("ID_y", result.getRows().get(1).getId());
+        assertEquals(Set.of("x", "y", "z"), stored);
+        assertEquals(1, commits);
+    }
+
+    @Test
+    void testAtomicBatchIsRolledBackOnDuplicateKey() throws SQLException {
+        rejectOnInsert = "y";
+        List<String> values = List.of("x", "y", "z");
+        BatchResult result = new BatchResult(values.size(), true);
+
+        OnboardingBatch.insertPending(fakeConnection(), INSERT, values, result, value -> "ID_" + value,
+            (stmt, value) -> stmt.setString(1, value));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals("DUPLICATE", result.getRows().get(0).getErrorCode());
+        assertTrue(stored.isEmpty());
+        assertEquals(0, commits);
+    }
+
+    @Test
+    void testPartialBatchRetriesFailedChunkRowByRow() throws SQLException {
+        rejectOnInsert = "y";
+        List<String> values = List.of("x", "y", "z");
+        BatchResult result = new BatchResult(values.size(), false);
+
+        OnboardingBatch.insertPending(fakeConnection(), INSERT, values, result, value -> "ID_" + value,
+            (stmt, value) -> stmt.setString(1, value));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(BatchResult.FAILED, result.getRows().get(1).getStatus());
+        assertEquals("DUPLICATE", result.getRows().get(1).getErrorCode());
+        assertEquals(Set.of("x", "z"), stored);
+        assertEquals(2, rollbacks);
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement": return fakeStatement((String) args[0]);
+                    case "setAutoCommit":
+                    case "close":
+                        return null;
+                    case "commit":
+                        commits++;
+                        stored.addAll(uncommitted);
+                        uncommitted.clear();
+                        return null;
+                    case "rollback":
+                        rollbacks++;
+                        uncommitted.clear();
+                        return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private PreparedStatement fakeStatement(String sql) {
+        Map<Integer, String> params = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                        params.put((Integer) args[0], (String) args[1]);
+                        return null;
+                    case "executeQuery": {
+                        queries.add(sql);
+                        List<String> matches = new ArrayList<>();
+                        for (String value : params.values()) {
+                            if (stored.contains(UniquenessIndex.normalize(value))) {
+                                matches.add(value);
+                            }
+                        }
+                        return resultSet(matches);
+                    }
+                    case "addBatch":
+                        pendingBatch.add(params.get(1));
+                        return null;
+                    case "clearBatch":
+                        pendingBatch.clear();
+                        return null;
+                    case "executeBatch": {
+                        List<String> batch = new ArrayList<>(pendingBatch);
+                        pendingBatch.clear();
+                        if (batch.contains(rejectOnInsert)) {
+                            throw new BatchUpdateException("Duplicate entry '" + rejectOnInsert + "'", "23000", 1062, new int[0]);
+                        }
+                        uncommitted.addAll(batch);
+                        return new int[batch.size()];
+                    }
+                    case "executeUpdate":
+                        if (params.get(1).equals(rejectOnInsert)) {
+                            throw new SQLException("Duplicate entry '" + rejectOnInsert + "'", "23000", 1062);
+                        }
+                        uncommitted.add(params.get(1));
+                        return 1;
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private ResultSet resultSet(List<String> values) {
+        Iterator<String> rows = values.iterator();
+        String[] current = new String[1];
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        if (!rows.hasNext()) {
+                            return false;
+                        }
+                        current[0] = rows.next();
+                        return true;
+                    case "getString": return current[0];
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
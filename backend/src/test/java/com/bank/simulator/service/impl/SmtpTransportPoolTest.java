@@ -0,0 +1,61 @@
+package com.bank.simulator.service.impl;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpTransportPoolTest {
+
+    private LocalSmtpServer smtpServer;
+    private Session session;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new LocalSmtpServer();
+        Properties props = new Properties();
+        props.put("mail.smtp.host", "localhost");
+        props.put("mail.smtp.port", String.valueOf(smtpServer.getPort()));
+        props.put("mail.smtp.connectiontimeout", "2000");
+        props.put("mail.smtp.timeout", "2000");
+        session = Session.getInstance(props);
+        pool = new SmtpTransportPool(session, "", "", false, 2, 60_000, 100, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdown();
+        smtpServer.close();
+    }
+
+    @Test
+    void testFailedReconnectLeavesNothingInThePool() throws Exception {
+        pool.send(message("first@example.com"));
+        assertEquals(1, pool.idleCount());
+
+        smtpServer.setDropOnData(true);
+        smtpServer.stopAccepting();
+
+        assertThrows(MessagingException.class, () -> pool.send(message("second@example.com")));
+        assertEquals(0, pool.idleCount());
+    }
+
+    private Message message(String to) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@banksimulator.com"));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
+        message.setSubject("Subject");
+        message.setText("Body");
+        return message;
+    }
+}
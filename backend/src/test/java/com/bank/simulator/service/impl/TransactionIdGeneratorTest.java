@@ -0,0 +1,118 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    private static final long NOW = 1792195200000L; // 2026-10-17T00:00:00Z
+
+    @Test
+    void testIdFormat() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, () -> NOW);
+
+        String id = generator.nextId();
+
+        assertTrue(id.startsWith("TXN_20261017"), id);
+        assertEquals("TXN_".length() + 8 + 19, id.length());
+    }
+
+    @Test
+    void testIdsAreSortedInCreationOrder() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, clock::get);
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(1);
+            }
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testSequenceOverflowBorrowsNextMillisecond() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, () -> NOW);
+
+        long last = 0;
+        for (int i = 0; i <= TransactionIdGenerator.SEQUENCE_MASK + 1; i++) {
+            long id = generator.nextRawId();
+            assertTrue(id > last);
+            last = id;
+        }
+
+        long timestamp = last >>> (TransactionIdGenerator.NODE_BITS + TransactionIdGenerator.SEQUENCE_BITS);
+        assertEquals(NOW - TransactionIdGenerator.EPOCH_MS + 1, timestamp);
+    }
+
+    @Test
+    void testClockMovingBackwardsStillProducesIncreasingIds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TransactionIdGenerator generator = new TransactionIdGenerator(1, clock::get);
+
+        long before = generator.nextRawId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextRawId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void testDifferentNodesNeverCollide() {
+        TransactionIdGenerator nodeA = new TransactionIdGenerator(1, () -> NOW);
+        TransactionIdGenerator nodeB = new TransactionIdGenerator(2, () -> NOW);
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ids.add(nodeA.nextId()));
+            assertTrue(ids.add(nodeB.nextId()));
+        }
+    }
+
+    @Test
+    void testConcurrentCallersGetUniqueIds() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(3, System::currentTimeMillis);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 5_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testNodeIdValidation() {
+        assertEquals(12, TransactionIdGenerator.resolveNodeId(" 12 "));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TransactionIdGenerator(TransactionIdGenerator.MAX_NODE + 1, () -> NOW));
+        long random = TransactionIdGenerator.resolveNodeId("");
+        assertTrue(random >= 0 && random <= TransactionIdGenerator.MAX_NODE);
+    }
+}
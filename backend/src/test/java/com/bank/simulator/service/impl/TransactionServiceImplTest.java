@@ -1,15 +1,20 @@
 package com.bank.simulator.service.impl;
 
+import com.bank.simulator.model.StatementCursor;
 import com.bank.simulator.model.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -151,6 +156,64 @@ class TransactionServiceImplTest {
         assertNotEquals(txn1, txn2Id);
     }
 
+    @Test
+    void testStatementCursorRoundTrip() {
+        StatementCursor cursor = new StatementCursor(LocalDateTime.of(2026, 10, 17, 9, 30, 5), "TXN_202610170000012345678901234567");
+
+        StatementCursor decoded = StatementCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getCreatedDate(), decoded.getCreatedDate());
+        assertEquals(cursor.getTransactionId(), decoded.getTransactionId());
+        assertFalse(cursor.encode().contains("="));
+    }
+
+    @Test
+    void testStatementCursorRejectsGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> StatementCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> StatementCursor.decode("Zm9vYmFy"));
+    }
+
+    @Test
+    void testStatementQueryUsesIndexedLegsWithoutOr() {
+        String query = TransactionServiceImpl.buildStatementQuery(true, true);
+
+        assertTrue(query.contains("UNION ALL"));
+        assertTrue(query.contains("WHERE t.sender_account_number = ?"));
+        assertTrue(query.contains("WHERE t.receiver_account_number = ?"));
+        assertFalse(query.contains("sender_account_number = ? OR"));
+        assertFalse(query.contains("JOIN"));
+    }
+
+    @Test
+    void testStatementQueryBindsEveryPlaceholder() throws SQLException {
+        StatementCursor cursor = new StatementCursor(LocalDateTime.of(2026, 10, 17, 9, 30), "TXN_1");
+        for (boolean afterCursor : new boolean[]{false, true}) {
+            for (boolean limited : new boolean[]{false, true}) {
+                String query = TransactionServiceImpl.buildStatementQuery(afterCursor, limited);
+                TreeMap<Integer, Object> bound = new TreeMap<>();
+
+                TransactionServiceImpl.bindStatementQuery(recordingStatement(bound), "1234567890123456",
+                    afterCursor ? cursor : null, limited ? 11 : 0);
+
+                long placeholders = query.chars().filter(c -> c == '?').count();
+                assertEquals(placeholders, bound.size(), query);
+                assertEquals(placeholders, bound.lastKey().longValue(), query);
+            }
+        }
+    }
+
+    private PreparedStatement recordingStatement(Map<Integer, Object> bound) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+                if (method.getName().startsWith("set")) {
+                    bound.put((Integer) args[0], args[1]);
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
     private String simulateCreateTransaction(Transaction transaction) {
         if (transaction == null) {
             return null;
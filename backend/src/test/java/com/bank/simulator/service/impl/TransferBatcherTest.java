@@ -0,0 +1,167 @@
+package com.bank.simulator.service.impl;
+
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferBatcherTest {
+
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(1000);
+
+    private InMemoryAccountStore store;
+    private TransferEngine engine;
+    private TransferBatcher batcher;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryAccountStore(2000);
+        for (int i = 1; i <= 4; i++) {
+            store.addAccount("ACC00" + i, OPENING_BALANCE);
+        }
+        engine = new TransferEngine(store::getConnection, 3, 1);
+        callers = Executors.newFixedThreadPool(40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentTransfersShareCommits() throws Exception {
+        batcher = startBatcher(50, 20);
+        List<Future<TransferEngine.Outcome>> results = submit(40, i -> new String[]{
+            "ACC00" + (i % 4 + 1), "ACC00" + ((i + 1) % 4 + 1), "1.00"});
+
+        for (Future<TransferEngine.Outcome> result : results) {
+            assertEquals(TransferEngine.Outcome.COMPLETED, result.get(10, TimeUnit.SECONDS));
+        }
+        assertTrue(store.getCommits() < 40, "commits: " + store.getCommits());
+        assertEquals(0, BigDecimal.valueOf(4000).compareTo(store.totalBalance()));
+        assertEquals(0, store.getLockOrderViolations());
+        assertEquals(40L, batcher.getStats().get("transfers"));
+    }
+
+    @Test
+    void testInsufficientBalanceOnlyFailsThatTransfer() throws Exception {
+        batcher = startBatcher(3, 5_000);
+        List<Future<TransferEngine.Outcome>> results = submit(3, i -> i == 0
+            ? new String[]{"ACC001", "ACC002", "5000.00"}
+            : new String[]{"ACC003", "ACC004", "100.00"});
+
+        assertEquals(TransferEngine.Outcome.INSUFFICIENT_BALANCE, results.get(0).get(10, TimeUnit.SECONDS));
+        assertEquals(TransferEngine.Outcome.COMPLETED, results.get(1).get(10, TimeUnit.SECONDS));
+        assertEquals(TransferEngine.Outcome.COMPLETED, results.get(2).get(10, TimeUnit.SECONDS));
+        assertEquals(1, store.getCommits());
+        assertEquals(0, BigDecimal.valueOf(800).compareTo(store.balance("ACC003")));
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC001")));
+    }
+
+    @Test
+    void testChainInOneBatchMovesMiddleAccountWatermark() throws Exception {
+        String before = store.watermark("ACC002");
+        batcher = startBatcher(2, 5_000);
+        List<Future<TransferEngine.Outcome>> results = submit(2, i -> i == 0
+            ? new String[]{"ACC001", "ACC002", "10.00"}
+            : new String[]{"ACC002", "ACC003", "10.00"});
+
+        for (Future<TransferEngine.Outcome> result : results) {
+            assertEquals(TransferEngine.Outcome.COMPLETED, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, store.getCommits());
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC002")));
+        assertNotEquals(before, store.watermark("ACC002"));
+    }
+
+    @Test
+    void testFailedBatchIsRetriedOneByOne() throws Exception {
+        store.failInsertsOf("TXN1");
+        batcher = startBatcher(3, 5_000);
+        List<Future<TransferEngine.Outcome>> results = submit(3, i -> new String[]{"ACC001", "ACC002", "10.00"});
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+            () -> results.get(1).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(SQLException.class, failure.getCause());
+        assertEquals(TransferEngine.Outcome.COMPLETED, results.get(0).get(10, TimeUnit.SECONDS));
+        assertEquals(TransferEngine.Outcome.COMPLETED, results.get(2).get(10, TimeUnit.SECONDS));
+        assertEquals(0, BigDecimal.valueOf(980).compareTo(store.balance("ACC001")));
+        assertEquals(1L, batcher.getStats().get("oneByOneFallbacks"));
+    }
+
+    @Test
+    void testTransferRunsOnCallerThreadWhenNotStarted() throws SQLException {
+        batcher = new TransferBatcher(true, engine, new NotificationOutbox(null), 1, 10, 0);
+
+        assertEquals(TransferEngine.Outcome.COMPLETED,
+            batcher.transfer(transaction(0, "ACC001", "25.00"), party("ACC001"), party("ACC002")));
+        assertEquals(1, store.getCommits());
+        assertEquals(0, BigDecimal.valueOf(975).compareTo(store.balance("ACC001")));
+    }
+
+    private TransferBatcher startBatcher(int maxBatch, long maxWaitMs) {
+        TransferBatcher started = new TransferBatcher(true, engine, new NotificationOutbox(null), 1, maxBatch, maxWaitMs);
+        started.start();
+        return started;
+    }
+
+    private interface LegSpec {
+        String[] of(int index);
+    }
+
+    /** Submits {@code count} transfers from separate threads, all released at once. */
+    private List<Future<TransferEngine.Outcome>> submit(int count, LegSpec spec) {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<TransferEngine.Outcome>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String[] leg = spec.of(i);
+            Transaction transaction = transaction(i, leg[0], leg[2]);
+            results.add(callers.submit(() -> {
+                go.await();
+                return batcher.transfer(transaction, party(leg[0]), party(leg[1]));
+            }));
+        }
+        go.countDown();
+        return results;
+    }
+
+    private static Transaction transaction(int index, String senderAccountId, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN" + index);
+        transaction.setAccountId(senderAccountId);
+        transaction.setSenderAccountNumber("N-" + senderAccountId);
+        transaction.setReceiverAccountNumber("N-OTHER");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTransactionType("TRANSFER");
+        transaction.setCreatedDate(LocalDateTime.now());
+        return transaction;
+    }
+
+    private static TransferSnapshot.Party party(String accountId) {
+        TransferSnapshot.Party party = new TransferSnapshot.Party();
+        party.setAccountId(accountId);
+        party.setAccountNumber("N-" + accountId);
+        party.setCustomerName("Customer " + accountId);
+        party.setCustomerEmail(accountId.toLowerCase() + "@example.com");
+        return party;
+    }
+}
@@ -0,0 +1,218 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferEngineTest {
+
+    private static final String[] ACCOUNTS = {"ACC001", "ACC002", "ACC003", "ACC004"};
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(1000);
+
+    private InMemoryAccountStore store;
+    private TransferEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryAccountStore(2000);
+        for (String account : ACCOUNTS) {
+            store.addAccount(account, OPENING_BALANCE);
+        }
+        engine = new TransferEngine(store::getConnection, 3, 1);
+    }
+
+    @Test
+    void testTransferMovesFunds() throws SQLException {
+        TransferEngine.Outcome outcome = engine.transfer("ACC002", "ACC001", BigDecimal.valueOf(250), null);
+
+        assertEquals(TransferEngine.Outcome.COMPLETED, outcome);
+        assertEquals(0, BigDecimal.valueOf(750).compareTo(store.balance("ACC002")));
+        assertEquals(0, BigDecimal.valueOf(1250).compareTo(store.balance("ACC001")));
+    }
+
+    @Test
+    void testInsufficientBalanceLeavesAccountsUntouched() throws SQLException {
+        TransferEngine.Outcome outcome = engine.transfer("ACC001", "ACC002", BigDecimal.valueOf(1000.01), null);
+
+        assertEquals(TransferEngine.Outcome.INSUFFICIENT_BALANCE, outcome);
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC001")));
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC002")));
+    }
+
+    @Test
+    void testUnknownAccountReported() throws SQLException {
+        TransferEngine.Outcome outcome = engine.transfer("ACC001", "ACC999", BigDecimal.TEN, null);
+
+        assertEquals(TransferEngine.Outcome.ACCOUNT_NOT_FOUND, outcome);
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC001")));
+    }
+
+    @Test
+    void testDeadlockIsRetried() throws SQLException {
+        store.failNextLocksWithDeadlock(2);
+        AtomicInteger workRuns = new AtomicInteger();
+
+        TransferEngine.Outcome outcome = engine.transfer("ACC001", "ACC002", BigDecimal.TEN,
+            conn -> workRuns.incrementAndGet());
+
+        assertEquals(TransferEngine.Outcome.COMPLETED, outcome);
+        assertEquals(1, workRuns.get());
+        assertEquals(0, BigDecimal.valueOf(990).compareTo(store.balance("ACC001")));
+    }
+
+    @Test
+    void testFailingWorkRollsBackBalanceMove() {
+        SQLException failure = new SQLException("Duplicate entry", "23000", 1062);
+
+        SQLException thrown = assertThrows(SQLException.class, () ->
+            engine.transfer("ACC001", "ACC002", BigDecimal.TEN, conn -> { throw failure; }));
+
+        assertSame(failure, thrown);
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC001")));
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC002")));
+    }
+
+    @Test
+    void testTransferAllUpdatesEachAccountOnceWithItsNetMovement() throws SQLException {
+        List<TransferEngine.Leg> legs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            legs.add(new TransferEngine.Leg("ACC001", i % 2 == 0 ? "ACC002" : "ACC003", BigDecimal.TEN));
+        }
+        legs.add(new TransferEngine.Leg("ACC002", "ACC001", BigDecimal.valueOf(40)));
+        List<Integer> committedLegs = new ArrayList<>();
+
+        TransferEngine.BatchOutcome outcome = engine.transferAll(legs, true, (conn, completed) -> committedLegs.addAll(completed));
+
+        assertTrue(outcome.isCommitted());
+        assertEquals(legs.size(), committedLegs.size());
+        assertEquals(0, BigDecimal.valueOf(540).compareTo(store.balance("ACC001")));
+        assertEquals(0, BigDecimal.valueOf(1210).compareTo(store.balance("ACC002")));
+        assertEquals(0, BigDecimal.valueOf(1250).compareTo(store.balance("ACC003")));
+        assertEquals(3, store.getBalanceUpdates());
+        assertEquals(0, store.getLockOrderViolations());
+    }
+
+    @Test
+    void testTransferAllTouchesAccountWhoseNetIsZero() throws SQLException {
+        List<TransferEngine.Leg> legs = List.of(
+            new TransferEngine.Leg("ACC001", "ACC002", BigDecimal.TEN),
+            new TransferEngine.Leg("ACC002", "ACC003", BigDecimal.TEN));
+
+        TransferEngine.BatchOutcome outcome = engine.transferAll(legs, false, null);
+
+        assertTrue(outcome.isCommitted());
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC002")));
+        assertEquals(1, store.touches("ACC002"));
+        assertEquals(1, store.touches("ACC001"));
+        assertEquals(1, store.touches("ACC003"));
+        assertEquals(0, store.touches("ACC004"));
+    }
+
+    @Test
+    void testTransferAllChecksBalancesInOrder() throws SQLException {
+        List<TransferEngine.Leg> legs = List.of(
+            new TransferEngine.Leg("ACC001", "ACC002", BigDecimal.valueOf(900)),
+            new TransferEngine.Leg("ACC001", "ACC003", BigDecimal.valueOf(200)),
+            new TransferEngine.Leg("ACC002", "ACC001", BigDecimal.valueOf(500)),
+            new TransferEngine.Leg("ACC001", "ACC004", BigDecimal.valueOf(550)),
+            new TransferEngine.Leg("ACC001", "ACC999", BigDecimal.ONE));
+        List<Integer> committedLegs = new ArrayList<>();
+
+        TransferEngine.BatchOutcome outcome = engine.transferAll(legs, false, (conn, completed) -> committedLegs.addAll(completed));
+
+        assertTrue(outcome.isCommitted());
+        assertEquals(List.of(TransferEngine.Outcome.COMPLETED, TransferEngine.Outcome.INSUFFICIENT_BALANCE,
+            TransferEngine.Outcome.COMPLETED, TransferEngine.Outcome.COMPLETED, TransferEngine.Outcome.ACCOUNT_NOT_FOUND),
+            outcome.getOutcomes());
+        assertEquals(List.of(0, 2, 3), committedLegs);
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(store.balance("ACC001")));
+        assertEquals(0, BigDecimal.valueOf(1400).compareTo(store.balance("ACC002")));
+        assertEquals(0, BigDecimal.valueOf(1550).compareTo(store.balance("ACC004")));
+    }
+
+    @Test
+    void testAtomicTransferAllWritesNothingIfAnyLegFails() throws SQLException {
+        List<TransferEngine.Leg> legs = List.of(
+            new TransferEngine.Leg("ACC001", "ACC002", BigDecimal.valueOf(600)),
+            new TransferEngine.Leg("ACC001", "ACC003", BigDecimal.valueOf(600)));
+        AtomicInteger workRuns = new AtomicInteger();
+
+        TransferEngine.BatchOutcome outcome = engine.transferAll(legs, true, (conn, completed) -> workRuns.incrementAndGet());
+
+        assertFalse(outcome.isCommitted());
+        assertEquals(TransferEngine.Outcome.INSUFFICIENT_BALANCE, outcome.getOutcomes().get(1));
+        assertEquals(0, workRuns.get());
+        assertEquals(0, store.getBalanceUpdates());
+        assertEquals(0, OPENING_BALANCE.compareTo(store.balance("ACC001")));
+    }
+
+    @Test
+    void testRetryableErrorDetection() {
+        assertTrue(TransferEngine.isRetryable(new SQLException("deadlock", "40001", 1213)));
+        assertTrue(TransferEngine.isRetryable(new SQLException("lock wait", "HY000", 1205)));
+        assertFalse(TransferEngine.isRetryable(new SQLException("duplicate", "23000", 1062)));
+    }
+
+    @Test
+    void testConcurrentOpposingTransfersKeepBalancesConsistent() throws Exception {
+        int threads = 8;
+        int transfersPerThread = 400;
+        Map<String, BigDecimal> expectedDelta = new ConcurrentHashMap<>();
+        for (String account : ACCOUNTS) {
+            expectedDelta.put(account, BigDecimal.ZERO);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    String from = ACCOUNTS[random.nextInt(ACCOUNTS.length)];
+                    String to = ACCOUNTS[random.nextInt(ACCOUNTS.length)];
+                    if (from.equals(to)) {
+                        continue;
+                    }
+                    BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(200));
+                    if (engine.transfer(from, to, amount, null) == TransferEngine.Outcome.COMPLETED) {
+                        expectedDelta.merge(from, amount.negate(), BigDecimal::add);
+                        expectedDelta.merge(to, amount, BigDecimal::add);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS.length)).compareTo(store.totalBalance()));
+        for (String account : ACCOUNTS) {
+            BigDecimal balance = store.balance(account);
+            assertTrue(balance.signum() >= 0, account + " went negative: " + balance);
+            assertEquals(0, OPENING_BALANCE.add(expectedDelta.get(account)).compareTo(balance), account);
+        }
+        assertEquals(0, store.getLockOrderViolations());
+    }
+}
@@ -0,0 +1,148 @@
+package com.bank.simulator.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniquenessIndexTest {
+
+    private final List<String> phoneNumbers = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void testBloomFilterHasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testChecksFallThroughUntilFilterIsBuilt() throws SQLException {
+        phoneNumbers.add("9876543210");
+        UniquenessIndex index = newIndex();
+
+        assertFalse(index.isReady(UniquenessIndex.Key.CUSTOMER_PHONE));
+        assertTrue(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, "9000000000"));
+
+        index.rebuild(UniquenessIndex.Key.CUSTOMER_PHONE);
+
+        assertTrue(index.isReady(UniquenessIndex.Key.CUSTOMER_PHONE));
+        assertTrue(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, "9876543210"));
+        assertFalse(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, "9000000000"));
+        assertTrue(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, null));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stats = (Map<String, Object>) index.getStats().get("CUSTOMER_PHONE");
+        assertEquals(1L, stats.get("skipped"));
+        assertEquals(3L, stats.get("fellThrough"));
+    }
+
+    @Test
+    void testValuesAddedBeforeRebuildSurviveTheSwap() throws SQLException {
+        UniquenessIndex index = newIndex();
+
+        // Written while the scan was running, so the scan itself did not see it.
+        index.add(UniquenessIndex.Key.CUSTOMER_PHONE, "9123456780");
+        index.rebuild(UniquenessIndex.Key.CUSTOMER_PHONE);
+
+        assertTrue(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, "9123456780"));
+
+        index.add(UniquenessIndex.Key.CUSTOMER_PHONE, "9555555555");
+        assertTrue(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, "9555555555"));
+    }
+
+    @Test
+    void testMatchingFollowsDatabaseCollation() throws SQLException {
+        phoneNumbers.add("José.Silva@Example.com ");
+        UniquenessIndex index = newIndex();
+        index.rebuild(UniquenessIndex.Key.CUSTOMER_PHONE);
+
+        assertTrue(index.mightContain(UniquenessIndex.Key.CUSTOMER_PHONE, "jose.silva@example.com"));
+        assertEquals("jose.silva@example.com", UniquenessIndex.normalize(" JOSÉ.silva@example.COM"));
+    }
+
+    @Test
+    void testDisabledIndexAlwaysFallsThrough() {
+        UniquenessIndex index = new UniquenessIndex();
+        index.add(UniquenessIndex.Key.USER_EMAIL, "a@example.com");
+
+        assertTrue(index.mightContain(UniquenessIndex.Key.USER_EMAIL, "b@example.com"));
+        assertFalse(index.isReady(UniquenessIndex.Key.USER_EMAIL));
+    }
+
+    private UniquenessIndex newIndex() {
+        return new UniquenessIndex(this::fakeConnection, true, 1_000, 0.01, 0, now::get);
+    }
+
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement": return fakeStatement((String) args[0]);
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private PreparedStatement fakeStatement(String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                    case "setFetchSize":
+                    case "close":
+                        return null;
+                    case "executeQuery":
+                        return sql.contains("information_schema")
+                            ? resultSet(List.of(String.valueOf(phoneNumbers.size())))
+                            : resultSet(new ArrayList<>(phoneNumbers));
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private ResultSet resultSet(List<String> values) {
+        Iterator<String> rows = values.iterator();
+        String[] current = new String[1];
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        if (!rows.hasNext()) {
+                            return false;
+                        }
+                        current[0] = rows.next();
+                        return true;
+                    case "getString": return current[0];
+                    case "getLong": return Long.parseLong(current[0]);
+                    case "close": return null;
+                    default: throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
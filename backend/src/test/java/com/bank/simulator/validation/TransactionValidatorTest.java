@@ -1,5 +1,7 @@
 package com.bank.simulator.validation;
 
+import com.bank.simulator.model.Transaction;
+import com.bank.simulator.model.TransferSnapshot;
 import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import static org.junit.jupiter.api.Assertions.*;
@@ -81,7 +83,72 @@ class TransactionValidatorTest {
         assertFalse(isValidTransactionType(null));
     }
 
+    @Test
+    void testSnapshotValidation_ValidTransfer() {
+        ValidationResult result = new TransactionValidator()
+            .validateTransactionForCreation(createTransaction(BigDecimal.valueOf(1000)), createSnapshot(true, true));
+        assertTrue(result.isValid());
+    }
+
+    @Test
+    void testSnapshotValidation_SenderMissing() {
+        ValidationResult result = new TransactionValidator()
+            .validateTransactionForCreation(createTransaction(BigDecimal.valueOf(1000)), createSnapshot(false, true));
+        assertFalse(result.isValid());
+        assertEquals("SENDER_NOT_FOUND", result.getErrorCode());
+    }
+
+    @Test
+    void testSnapshotValidation_ReceiverMissing() {
+        ValidationResult result = new TransactionValidator()
+            .validateTransactionForCreation(createTransaction(BigDecimal.valueOf(1000)), createSnapshot(true, false));
+        assertFalse(result.isValid());
+        assertEquals("RECEIVER_NOT_FOUND", result.getErrorCode());
+    }
+
+    @Test
+    void testSnapshotValidation_InsufficientBalance() {
+        ValidationResult result = new TransactionValidator()
+            .validateTransactionForCreation(createTransaction(BigDecimal.valueOf(6000)), createSnapshot(true, true));
+        assertFalse(result.isValid());
+        assertEquals("INSUFFICIENT_BALANCE", result.getErrorCode());
+    }
+
+    @Test
+    void testSnapshotValidation_BalanceLeftToLedger() {
+        // With the in-memory ledger on, the stored balance may not include credits yet to be persisted.
+        ValidationResult result = new TransactionValidator()
+            .validateTransactionForCreation(createTransaction(BigDecimal.valueOf(6000)), createSnapshot(true, true), false);
+        assertTrue(result.isValid());
+    }
+
     // Helper methods
+    private Transaction createTransaction(BigDecimal amount) {
+        Transaction transaction = new Transaction();
+        transaction.setSenderAccountNumber("1234567890123456");
+        transaction.setReceiverAccountNumber("9876543210987654");
+        transaction.setAmount(amount);
+        transaction.setTransactionType("ONLINE");
+        return transaction;
+    }
+
+    private TransferSnapshot createSnapshot(boolean withSender, boolean withReceiver) {
+        TransferSnapshot snapshot = new TransferSnapshot();
+        if (withSender) {
+            TransferSnapshot.Party sender = new TransferSnapshot.Party();
+            sender.setAccountNumber("1234567890123456");
+            sender.setBalance(BigDecimal.valueOf(5000));
+            snapshot.setSender(sender);
+        }
+        if (withReceiver) {
+            TransferSnapshot.Party receiver = new TransferSnapshot.Party();
+            receiver.setAccountNumber("9876543210987654");
+            receiver.setBalance(BigDecimal.valueOf(2000));
+            snapshot.setReceiver(receiver);
+        }
+        return snapshot;
+    }
+
     private boolean isValidAccountNumber(String accountNumber) {
         return accountNumber != null && accountNumber.matches("^[0-9]{10,25}$");
     }
@@ -0,0 +1,34 @@
+// Writes .br and .gz siblings next to the compressible files in dist so the
+// backend can serve them as-is instead of compressing on every request.
+import { readdir, readFile, writeFile } from 'node:fs/promises';
+import path from 'node:path';
+import { brotliCompressSync, gzipSync, constants } from 'node:zlib';
+
+const distDir = path.resolve(process.argv[2] ?? 'dist');
+const compressible = /\.(js|mjs|css|html|svg|json|txt|map|ico|webmanifest)$/;
+const minBytes = 1024;
+
+async function* walk(dir) {
+  for (const entry of await readdir(dir, { withFileTypes: true })) {
+    const file = path.join(dir, entry.name);
+    if (entry.isDirectory()) {
+      yield* walk(file);
+    } else if (compressible.test(entry.name)) {
+      yield file;
+    }
+  }
+}
+
+let count = 0;
+for await (const file of walk(distDir)) {
+  const content = await readFile(file);
+  if (content.length < minBytes) {
+    continue;
+  }
+  await writeFile(`${file}.gz`, gzipSync(content, { level: 9 }));
+  await writeFile(`${file}.br`, brotliCompressSync(content, {
+    params: { [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY },
+  }));
+  count++;
+}
+console.log(`precompressed ${count} files in ${distDir}`);